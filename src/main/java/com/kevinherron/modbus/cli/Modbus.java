@@ -1,20 +1,30 @@
 package com.kevinherron.modbus.cli;
 
+import com.kevinherron.modbus.cli.daemon.DaemonClient;
+import java.util.OptionalInt;
 import org.fusesource.jansi.AnsiConsole;
 import picocli.CommandLine;
 
 public class Modbus {
 
   static void main(String[] args) {
+    // Hand the command to a running daemon, if configured, before paying for any local setup
+    OptionalInt forwarded = DaemonClient.forwardIfConfigured(args);
+    if (forwarded.isPresent()) {
+      System.exit(forwarded.getAsInt());
+    }
+
     AnsiConsole.systemInstall();
 
     try {
-      var cmd = new CommandLine(new ModbusCommand());
+      var command = new ModbusCommand();
+      var cmd = new CommandLine(command);
 
       if (args.length == 0) {
         cmd.usage(System.out);
       } else {
         int result = cmd.execute(args);
+        command.flushOutput();
 
         System.exit(result);
       }
@@ -1,6 +1,8 @@
 package com.kevinherron.modbus.cli;
 
 import com.kevinherron.modbus.cli.client.ClientCommand;
+import com.kevinherron.modbus.cli.daemon.DaemonCommand;
+import com.kevinherron.modbus.cli.output.BatchingOutputStream;
 import com.kevinherron.modbus.cli.output.DefaultOutputContext;
 import com.kevinherron.modbus.cli.output.HumanFormatter;
 import com.kevinherron.modbus.cli.output.JsonFormatter;
@@ -10,12 +12,15 @@ import com.kevinherron.modbus.cli.output.OutputFormatConverter;
 import com.kevinherron.modbus.cli.output.OutputFormatter;
 import com.kevinherron.modbus.cli.output.OutputOptions;
 import com.kevinherron.modbus.cli.server.ServerCommand;
+import java.io.InputStream;
+import java.io.PrintStream;
+import org.jspecify.annotations.Nullable;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
 @Command(
     name = "modbus",
-    subcommands = {ClientCommand.class, ServerCommand.class})
+    subcommands = {ClientCommand.class, ServerCommand.class, DaemonCommand.class})
 public class ModbusCommand {
 
   @Option(
@@ -39,6 +44,49 @@ public class ModbusCommand {
       description = "disable ANSI color output")
   boolean noColor = false;
 
+  /** The streams commands use, or {@code null} for the process's standard stream at that time. */
+  private final @Nullable InputStream stdin;
+
+  private final @Nullable PrintStream stdout;
+  private final @Nullable PrintStream stderr;
+
+  /**
+   * The batching stream results are written through, shared by every output context so their
+   * output stays in order, and the stream it writes to.
+   */
+  private @Nullable PrintStream batchedStdout;
+
+  private @Nullable PrintStream batchedTarget;
+
+  /**
+   * Creates a command that uses the process's standard streams, as they are when each command runs
+   * rather than when this command is created.
+   */
+  public ModbusCommand() {
+    this.stdin = null;
+    this.stdout = null;
+    this.stderr = null;
+  }
+
+  /**
+   * Creates a command that reads and writes the given streams instead of the process's standard
+   * streams, e.g. for one request forwarded to the daemon.
+   *
+   * @param stdin the input read by commands that read standard input.
+   * @param stdout the stream results are written to.
+   * @param stderr the stream warnings and errors are written to.
+   */
+  public ModbusCommand(InputStream stdin, PrintStream stdout, PrintStream stderr) {
+    this.stdin = stdin;
+    this.stdout = stdout;
+    this.stderr = stderr;
+  }
+
+  /** Returns the input read by commands that read standard input. */
+  public InputStream stdin() {
+    return stdin != null ? stdin : System.in;
+  }
+
   /** Creates an OutputContext based on the command-line options. */
   public OutputContext createOutputContext() {
     OutputFormatter formatter =
@@ -49,6 +97,31 @@ public class ModbusCommand {
 
     var options = new OutputOptions(format, verbose, quiet, !noColor);
 
-    return new DefaultOutputContext(formatter, options);
+    return new DefaultOutputContext(
+        formatter, options, batchedStdout(), stderr != null ? stderr : System.err);
+  }
+
+  /**
+   * Writes out any results still buffered. Called once a command has finished, before the process
+   * exits or the daemon reports the exit code.
+   */
+  public synchronized void flushOutput() {
+    if (batchedStdout != null) {
+      batchedStdout.flush();
+    }
+  }
+
+  /**
+   * Returns the stream results are written to: stdout wrapped in a {@link BatchingOutputStream},
+   * so that high-rate output is written in large batches rather than a write per line.
+   */
+  private synchronized PrintStream batchedStdout() {
+    PrintStream target = stdout != null ? stdout : System.out;
+    if (batchedStdout == null || batchedTarget != target) {
+      flushOutput();
+      batchedStdout = BatchingOutputStream.batching(target);
+      batchedTarget = target;
+    }
+    return batchedStdout;
   }
 }
@@ -0,0 +1,101 @@
+package com.kevinherron.modbus.cli.client;
+
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Window sizing policy for adaptive scans.
+ *
+ * <p>Devices differ in how many registers they accept per read: some accept the protocol maximum
+ * anywhere, others reject any window that touches an unmapped address. An adaptive scan starts each
+ * region of the address space at the largest allowed window, halves the window whenever the device
+ * rejects it (or times out), and doubles it again after each successful read.
+ *
+ * <p>The largest window accepted in each fixed-size region is remembered. Entering a region starts
+ * from the size remembered for it, or the maximum if none, so a hole in one region doesn't slow
+ * down the regions after it.
+ *
+ * <p>This class is not thread-safe; each scanning thread uses its own instance.
+ */
+final class AdaptiveWindow {
+
+  /** Number of addresses per region tracked for remembered window sizes. */
+  static final int REGION_SIZE = 1024;
+
+  private final NavigableMap<Integer, Integer> accepted = new TreeMap<>();
+
+  private final int maxSize;
+
+  private int currentRegion = -1;
+  private int size;
+  private int requests;
+
+  /**
+   * Creates a new adaptive window.
+   *
+   * @param maxSize the largest window to try, e.g. the protocol maximum for the function code.
+   */
+  AdaptiveWindow(int maxSize) {
+    this.maxSize = Math.max(1, maxSize);
+    this.size = this.maxSize;
+  }
+
+  /**
+   * Returns the window size to try next.
+   *
+   * @param address the address the next window starts at.
+   * @param remaining the number of addresses left to scan from {@code address}.
+   * @return the window size, between 1 and {@code remaining}.
+   */
+  int next(int address, int remaining) {
+    int region = address / REGION_SIZE;
+    if (region != currentRegion) {
+      currentRegion = region;
+      size = accepted.getOrDefault(region, maxSize);
+    }
+    return Math.max(1, Math.min(size, remaining));
+  }
+
+  /**
+   * Records a successful read, growing the window for the next one.
+   *
+   * @param address the address the window started at.
+   * @param windowSize the size of the window that was read.
+   */
+  void success(int address, int windowSize) {
+    requests++;
+    accepted.merge(address / REGION_SIZE, windowSize, Math::max);
+    size = Math.min(maxSize, Math.max(size, windowSize) * 2);
+  }
+
+  /**
+   * Records a rejected read, shrinking the window for the next attempt.
+   *
+   * @param windowSize the size of the window that was rejected.
+   */
+  void failure(int windowSize) {
+    requests++;
+    size = Math.max(1, windowSize / 2);
+  }
+
+  /**
+   * Returns the largest window accepted in each region, keyed by the region's first address.
+   *
+   * @return an unmodifiable map of region start address to largest accepted window size.
+   */
+  NavigableMap<Integer, Integer> acceptedByRegion() {
+    var byAddress = new TreeMap<Integer, Integer>();
+    accepted.forEach((region, windowSize) -> byAddress.put(region * REGION_SIZE, windowSize));
+    return Collections.unmodifiableNavigableMap(byAddress);
+  }
+
+  /**
+   * Returns the number of reads attempted, successful or not.
+   *
+   * @return the number of reads attempted.
+   */
+  int requests() {
+    return requests;
+  }
+}
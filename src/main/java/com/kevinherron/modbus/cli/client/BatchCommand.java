@@ -0,0 +1,196 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.kevinherron.modbus.cli.output.OutputContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.IExitCodeGenerator;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+import picocli.CommandLine.Spec;
+
+/**
+ * Runs a list of client commands, one per line, over a single connection.
+ *
+ * <p>Each line is a client subcommand and its arguments exactly as they would follow the endpoint
+ * on the command line, e.g. {@code rhr 0 10} or {@code wsr 5 0x1234}. Blank lines are ignored and
+ * anything from a {@code #} to the end of its line is a comment. Lines are read and executed one at
+ * a time, so results stream out as each command completes, including when commands are piped in
+ * interactively.
+ *
+ * <p>The connection is opened once and shared by every command through {@link
+ * ClientCommand#runWithSharedClient}. A command that fails, or a line that can't be parsed, is
+ * reported as an error with its line number and the batch continues with the next line; the batch
+ * then exits with exit code 1. {@code poll} opens connections of its own, and a batch can't
+ * contain another {@code batch}.
+ *
+ * <p>This command is invoked using {@code batch} (e.g., {@code modbus client plc1 batch
+ * commands.txt}, or {@code ... | modbus client plc1 batch} to read standard input).
+ */
+@Command(name = "batch", description = "run client commands read from a file or stdin")
+public class BatchCommand implements Runnable, IExitCodeGenerator {
+
+  /** The command file, or {@code -} for standard input. */
+  @Parameters(
+      index = "0",
+      arity = "0..1",
+      paramLabel = "FILE",
+      description = "file of commands, one per line, or - for stdin (default: stdin)")
+  String file = "-";
+
+  @ParentCommand ClientCommand clientCommand;
+
+  @Spec CommandSpec spec;
+
+  /** Whether any line of the last batch failed or could not be parsed. */
+  private boolean failed = false;
+
+  @Override
+  public void run() {
+    failed = false;
+    int errors = clientCommand.errorCount();
+
+    clientCommand.runWithSharedClient(
+        (ModbusClient client, int unitId, OutputContext output) -> {
+          Map<String, CommandLine> subcommands = spec.commandLine().getParent().getSubcommands();
+
+          BufferedReader reader = null;
+          try {
+            reader = open();
+
+            int lineNumber = 0;
+            int succeeded = 0;
+            int failures = 0;
+            int rejected = 0;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+              lineNumber++;
+
+              String[] args = tokenize(line);
+              if (args.length == 0) {
+                continue;
+              }
+
+              CommandLine subcommand = subcommands.get(args[0]);
+              if (subcommand == null || subcommand.getCommand() instanceof BatchCommand) {
+                output.error("batch line %d: unknown command '%s'", lineNumber, args[0]);
+                rejected++;
+                continue;
+              }
+
+              try {
+                subcommand.parseArgs(Arrays.copyOfRange(args, 1, args.length));
+              } catch (ParameterException e) {
+                output.error("batch line %d: %s", lineNumber, e.getMessage());
+                rejected++;
+                continue;
+              }
+
+              if (execute(subcommand, output, lineNumber)) {
+                succeeded++;
+              } else {
+                failures++;
+              }
+            }
+
+            output.info("Batch complete: %d command(s) succeeded, %d failed", succeeded, failures);
+            if (rejected > 0) {
+              output.warning("%d batch line(s) could not be parsed", rejected);
+            }
+            failed = failures > 0 || rejected > 0;
+          } catch (IOException e) {
+            throw new UncheckedIOException("cannot read batch file %s".formatted(file), e);
+          } finally {
+            // Standard input is left open for the rest of the process
+            if (reader != null && !file.equals("-")) {
+              try {
+                reader.close();
+              } catch (IOException ignored) {
+              }
+            }
+          }
+        });
+
+    // Also covers failing to connect or to read the batch file
+    failed |= clientCommand.errorCount() > errors;
+  }
+
+  /**
+   * Returns the exit code of the last batch.
+   *
+   * @return 0 if every line ran successfully, or 1 if any line failed or could not be parsed.
+   */
+  @Override
+  public int getExitCode() {
+    return failed ? 1 : 0;
+  }
+
+  /**
+   * Runs one parsed subcommand, reporting a failure with its line number.
+   *
+   * <p>Client commands report their own errors rather than throwing them, so a command has failed
+   * if it reported an error, threw, or finished with a non-zero {@link IExitCodeGenerator exit
+   * code}, e.g. a scan aborted by {@code --fail-fast}.
+   *
+   * @param subcommand the parsed subcommand.
+   * @param output the output context for reporting the failure.
+   * @param lineNumber the line the subcommand was read from.
+   * @return {@code true} if the command succeeded.
+   */
+  private boolean execute(CommandLine subcommand, OutputContext output, int lineNumber) {
+    Object command = subcommand.getCommand();
+    int errors = clientCommand.errorCount();
+
+    try {
+      ((Runnable) command).run();
+    } catch (RuntimeException e) {
+      output.error("batch line %d: %s", lineNumber, e.getMessage());
+      return false;
+    }
+
+    boolean succeeded =
+        clientCommand.errorCount() == errors
+            && !(command instanceof IExitCodeGenerator generator && generator.getExitCode() != 0);
+    if (!succeeded) {
+      output.error("batch line %d: %s failed", lineNumber, subcommand.getCommandName());
+    }
+    return succeeded;
+  }
+
+  private BufferedReader open() throws IOException {
+    if (file.equals("-")) {
+      return new BufferedReader(
+          new InputStreamReader(clientCommand.parent.stdin(), StandardCharsets.UTF_8));
+    } else {
+      return Files.newBufferedReader(Path.of(file));
+    }
+  }
+
+  /**
+   * Splits a batch line into arguments on whitespace, ignoring anything from a {@code #} on.
+   *
+   * @param line the line.
+   * @return the arguments; empty for a blank or comment-only line.
+   */
+  static String[] tokenize(String line) {
+    int comment = line.indexOf('#');
+    if (comment >= 0) {
+      line = line.substring(0, comment);
+    }
+
+    String trimmed = line.strip();
+    return trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+  }
+}
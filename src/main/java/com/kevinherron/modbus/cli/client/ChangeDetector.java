@@ -0,0 +1,229 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.kevinherron.modbus.cli.util.RegisterCodec.Values;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the registers or bits whose values changed since they were last reported, for
+ * report-by-exception polling ({@code --on-change}).
+ *
+ * <p>Each address is compared against the value last reported for it, not the value last read, so a
+ * register drifting slowly within the deadband is still reported once its total change exceeds it.
+ * A register is reported when its value differs from the last reported value by more than the
+ * deadband; a bit is reported whenever it changes. An address seen for the first time is always
+ * reported.
+ *
+ * <p>Registers decoded with {@code --type} are compared as typed values, each at the address of its
+ * first register, so the deadband is in the value's own unit: an int16 going from 0 to -1 is a
+ * change of 1, and a float32 is compared as a float rather than as two registers. Without a type,
+ * registers are compared one by one as raw unsigned 16-bit values.
+ *
+ * <p>This class is not thread-safe; it is intended to be driven from a single polling loop.
+ */
+public final class ChangeDetector {
+
+  /** The change last reported for each address, whose value is the one last reported. */
+  private final Map<Integer, ValueChange> reported = new HashMap<>();
+
+  private final double deadband;
+
+  /**
+   * Creates a detector.
+   *
+   * @param deadband the largest change in a register's or decoded value that isn't reported; 0
+   *     reports every change.
+   */
+  ChangeDetector(double deadband) {
+    this.deadband = Math.max(0, deadband);
+  }
+
+  /**
+   * Returns whether no value has been reported yet, i.e. before the first {@link #registers} or
+   * {@link #bits} call.
+   *
+   * @return {@code true} if nothing has been reported.
+   */
+  boolean isEmpty() {
+    return reported.isEmpty();
+  }
+
+  /**
+   * Compares registers read at {@code startAddress} against the values last reported, and records
+   * the changed values as reported.
+   *
+   * @param startAddress the address of the first register.
+   * @param registers the register data, 2 bytes per register (big-endian).
+   * @return the changed registers, in address order, with values as unsigned 16-bit integers.
+   */
+  List<ValueChange> registers(int startAddress, byte[] registers) {
+    var changes = new ArrayList<ValueChange>();
+
+    for (int i = 0; i + 1 < registers.length; i += 2) {
+      int value = ((registers[i] & 0xFF) << 8) | (registers[i + 1] & 0xFF);
+      compare(startAddress + i / 2, value, deadband, changes);
+    }
+
+    return changes;
+  }
+
+  /**
+   * Compares values decoded from registers read at {@code startAddress} against the values last
+   * reported, and records the changed values as reported.
+   *
+   * @param startAddress the address of the first register.
+   * @param values the decoded values.
+   * @param width the number of registers each value spans.
+   * @return the changed values, in address order, each at the address of its first register, as
+   *     integer, float or double changes by the decoded type.
+   * @throws IllegalArgumentException if {@code values} is a string, which has no numeric value to
+   *     compare.
+   */
+  List<ValueChange> values(int startAddress, Values values, int width) {
+    var changes = new ArrayList<ValueChange>();
+
+    switch (values) {
+      case Values.Integers(long[] longs) -> {
+        for (int i = 0; i < longs.length; i++) {
+          compare(startAddress + i * width, longs[i], deadband, changes);
+        }
+      }
+      case Values.Floats(float[] floats) -> {
+        for (int i = 0; i < floats.length; i++) {
+          compare(startAddress + i * width, floats[i], deadband, changes);
+        }
+      }
+      case Values.Doubles(double[] doubles) -> {
+        for (int i = 0; i < doubles.length; i++) {
+          compare(startAddress + i * width, doubles[i], deadband, changes);
+        }
+      }
+      case Values.Text _ ->
+          throw new IllegalArgumentException("string values can't be compared for changes");
+    }
+
+    return changes;
+  }
+
+  /**
+   * Compares bits read at {@code startAddress} against the values last reported, and records the
+   * changed values as reported. Deadbands don't apply to bits.
+   *
+   * @param startAddress the address of the first bit.
+   * @param bits the bits, packed LSB-first.
+   * @param quantity the number of bits.
+   * @return the changed bits, in address order, with values of 0 or 1.
+   */
+  List<ValueChange> bits(int startAddress, byte[] bits, int quantity) {
+    var changes = new ArrayList<ValueChange>();
+
+    for (int i = 0; i < quantity && i / 8 < bits.length; i++) {
+      int value = (bits[i / 8] >> (i % 8)) & 1;
+      compare(startAddress + i, value, 0, changes);
+    }
+
+    return changes;
+  }
+
+  private void compare(int address, long value, double deadband, List<ValueChange> changes) {
+    if (reported.get(address) instanceof ValueChange.IntegerChange previous) {
+      // Compare integers exactly, since 64-bit values don't all fit in a double
+      long p = previous.value();
+      if (p == value || (deadband > 0 && Math.abs((double) value - (double) p) <= deadband)) {
+        return;
+      }
+      report(new ValueChange.IntegerChange(address, true, p, value), changes);
+    } else {
+      report(new ValueChange.IntegerChange(address, false, 0, value), changes);
+    }
+  }
+
+  private void compare(int address, float value, double deadband, List<ValueChange> changes) {
+    if (reported.get(address) instanceof ValueChange.FloatChange previous) {
+      if (changed(previous.value(), value, deadband)) {
+        report(new ValueChange.FloatChange(address, true, previous.value(), value), changes);
+      }
+    } else {
+      report(new ValueChange.FloatChange(address, false, 0, value), changes);
+    }
+  }
+
+  private void compare(int address, double value, double deadband, List<ValueChange> changes) {
+    if (reported.get(address) instanceof ValueChange.DoubleChange previous) {
+      if (changed(previous.value(), value, deadband)) {
+        report(new ValueChange.DoubleChange(address, true, previous.value(), value), changes);
+      }
+    } else {
+      report(new ValueChange.DoubleChange(address, false, 0, value), changes);
+    }
+  }
+
+  private void report(ValueChange change, List<ValueChange> changes) {
+    reported.put(change.address(), change);
+    changes.add(change);
+  }
+
+  private static boolean changed(double previous, double value, double deadband) {
+    // NaN is never within a deadband of a number, but doesn't change to another NaN
+    if (Double.isNaN(previous) || Double.isNaN(value)) {
+      return Double.isNaN(previous) != Double.isNaN(value);
+    }
+    return previous != value && Math.abs(value - previous) > deadband;
+  }
+
+  /**
+   * A register, decoded value or bit whose value changed, holding its values as primitives so they
+   * can be rendered without boxing.
+   */
+  public sealed interface ValueChange {
+
+    /**
+     * Returns the address of the changed value.
+     *
+     * @return the address, of the first register for a decoded value.
+     */
+    int address();
+
+    /**
+     * Returns whether a value was reported for the address before this change.
+     *
+     * @return {@code false} for the first report of an address, whose previous value is then 0.
+     */
+    boolean hasPrevious();
+
+    /**
+     * A raw register, a bit, or a value decoded as an integer type.
+     *
+     * @param address the address, of the first register for a decoded value.
+     * @param hasPrevious whether a value was reported before.
+     * @param previous the value last reported, or 0 if none was.
+     * @param value the new value: unsigned 16-bit for a raw register, 0 or 1 for a bit.
+     */
+    record IntegerChange(int address, boolean hasPrevious, long previous, long value)
+        implements ValueChange {}
+
+    /**
+     * A value decoded as a float32.
+     *
+     * @param address the address of the value's first register.
+     * @param hasPrevious whether a value was reported before.
+     * @param previous the value last reported, or 0 if none was.
+     * @param value the new value.
+     */
+    record FloatChange(int address, boolean hasPrevious, float previous, float value)
+        implements ValueChange {}
+
+    /**
+     * A value decoded as a float64.
+     *
+     * @param address the address of the value's first register.
+     * @param hasPrevious whether a value was reported before.
+     * @param previous the value last reported, or 0 if none was.
+     * @param value the new value.
+     */
+    record DoubleChange(int address, boolean hasPrevious, double previous, double value)
+        implements ValueChange {}
+  }
+}
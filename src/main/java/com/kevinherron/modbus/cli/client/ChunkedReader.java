@@ -0,0 +1,190 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.exceptions.ModbusExecutionException;
+import com.digitalpetri.modbus.pdu.ModbusResponsePdu;
+import com.digitalpetri.modbus.pdu.ReadCoilsRequest;
+import com.digitalpetri.modbus.pdu.ReadDiscreteInputsRequest;
+import com.digitalpetri.modbus.pdu.ReadHoldingRegistersRequest;
+import com.digitalpetri.modbus.pdu.ReadInputRegistersRequest;
+import com.kevinherron.modbus.cli.output.Direction;
+import com.kevinherron.modbus.cli.output.OutputContext;
+import java.time.Instant;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Reads address ranges of any size, splitting those larger than the protocol maximum into several
+ * requests.
+ *
+ * <p>A read of up to {@link ModbusTable#maxReadQuantity()} values is a single request. A larger
+ * read is split into consecutive max-size chunks that are issued through a {@link
+ * RequestPipeline}, so up to {@code --pipeline} chunks are in flight at once on a TCP connection,
+ * and the responses are reassembled into one contiguous block of data in the same layout a single
+ * read would have returned. Every chunk's request and response is reported through {@link
+ * OutputContext#protocol}.
+ *
+ * <p>If any chunk fails, or a device answers a chunk with fewer values than were requested, the
+ * outstanding chunks are cancelled and the failure is thrown; missing values are never filled in.
+ */
+final class ChunkedReader {
+
+  private ChunkedReader() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Reads {@code quantity} values starting at {@code address}, in as many requests as needed.
+   *
+   * @param client the connected client.
+   * @param pipeline the pipeline to issue chunks on.
+   * @param table the table to read.
+   * @param unitId the target unit identifier.
+   * @param address the starting address.
+   * @param quantity the number of bits or registers to read.
+   * @param output the output context for protocol messages.
+   * @return the raw data bytes: 2 bytes per register (big-endian) for register tables, or bits
+   *     packed LSB-first for bit tables.
+   * @throws IllegalArgumentException if a chunked read extends past the end of the address space.
+   * @throws ModbusException if any chunk fails or returns fewer values than requested.
+   */
+  static byte[] read(
+      ModbusClient client,
+      RequestPipeline<Chunk> pipeline,
+      ModbusTable table,
+      int unitId,
+      int address,
+      int quantity,
+      OutputContext output)
+      throws ModbusException {
+
+    int maxQuantity = table.maxReadQuantity();
+
+    if (quantity <= maxQuantity) {
+      // A single request, left for the device to validate, returning exactly what it sent
+      var result = new byte[1][];
+      pipeline.submit(
+          unitId,
+          () -> send(client, table, unitId, address, quantity, output),
+          chunk -> {
+            output.protocol(chunk.response(), Direction.RECEIVED, chunk.received());
+            result[0] = chunk.data();
+          });
+      pipeline.drain();
+      return result[0];
+    }
+
+    if (address < 0 || address + quantity > 0x10000) {
+      throw new IllegalArgumentException(
+          "address %d + quantity %d exceeds the address space".formatted(address, quantity));
+    }
+
+    var data = new byte[table.byteCount(quantity)];
+
+    try {
+      for (int offset = 0; offset < quantity; offset += maxQuantity) {
+        int chunkOffset = offset;
+        int chunkQuantity = Math.min(maxQuantity, quantity - offset);
+
+        pipeline.submit(
+            unitId,
+            () -> send(client, table, unitId, address + chunkOffset, chunkQuantity, output),
+            chunk -> {
+              output.protocol(chunk.response(), Direction.RECEIVED, chunk.received());
+              copy(table, chunk.data(), data, chunkOffset, chunkQuantity);
+            });
+      }
+
+      pipeline.drain();
+    } catch (ModbusException | RuntimeException e) {
+      pipeline.cancel();
+      throw e;
+    }
+
+    return data;
+  }
+
+  /**
+   * Sends one read request, reporting it as sent.
+   *
+   * @return a stage completing with the response and its data.
+   */
+  private static CompletionStage<Chunk> send(
+      ModbusClient client,
+      ModbusTable table,
+      int unitId,
+      int address,
+      int quantity,
+      OutputContext output) {
+
+    return switch (table) {
+      case COILS -> {
+        var request = new ReadCoilsRequest(address, quantity);
+        output.protocol(request, Direction.SENT, null);
+        yield client
+            .readCoilsAsync(unitId, request)
+            .thenApply(response -> new Chunk(response, response.coils(), Instant.now()));
+      }
+      case DISCRETE_INPUTS -> {
+        var request = new ReadDiscreteInputsRequest(address, quantity);
+        output.protocol(request, Direction.SENT, null);
+        yield client
+            .readDiscreteInputsAsync(unitId, request)
+            .thenApply(response -> new Chunk(response, response.inputs(), Instant.now()));
+      }
+      case HOLDING_REGISTERS -> {
+        var request = new ReadHoldingRegistersRequest(address, quantity);
+        output.protocol(request, Direction.SENT, null);
+        yield client
+            .readHoldingRegistersAsync(unitId, request)
+            .thenApply(response -> new Chunk(response, response.registers(), Instant.now()));
+      }
+      case INPUT_REGISTERS -> {
+        var request = new ReadInputRegistersRequest(address, quantity);
+        output.protocol(request, Direction.SENT, null);
+        yield client
+            .readInputRegistersAsync(unitId, request)
+            .thenApply(response -> new Chunk(response, response.registers(), Instant.now()));
+      }
+    };
+  }
+
+  /**
+   * Copies one chunk's data into the reassembled data at a value offset.
+   *
+   * @throws ModbusExecutionException if the device returned less data than {@code quantity}
+   *     values, which would otherwise leave a gap of zeros in the reassembled data.
+   */
+  private static void copy(
+      ModbusTable table, byte[] chunkData, byte[] data, int offset, int quantity)
+      throws ModbusExecutionException {
+
+    if (chunkData.length < table.byteCount(quantity)) {
+      throw new ModbusExecutionException(
+          "short response: %d byte(s) for %d %s addresses, expected %d"
+              .formatted(
+                  chunkData.length, quantity, table.cliName(), table.byteCount(quantity)));
+    }
+
+    if (!table.isBit()) {
+      System.arraycopy(chunkData, 0, data, offset * 2, quantity * 2);
+      return;
+    }
+
+    for (int i = 0; i < quantity; i++) {
+      if (((chunkData[i / 8] >> (i % 8)) & 1) != 0) {
+        int bit = offset + i;
+        data[bit / 8] |= (byte) (1 << (bit % 8));
+      }
+    }
+  }
+
+  /**
+   * The response to one chunk's read request.
+   *
+   * @param response the response PDU.
+   * @param data the raw data bytes of the response.
+   * @param received when the response was received.
+   */
+  record Chunk(ModbusResponsePdu response, byte[] data, Instant received) {}
+}
@@ -0,0 +1,271 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.pdu.ModbusResponsePdu;
+import com.digitalpetri.modbus.pdu.WriteMultipleCoilsRequest;
+import com.digitalpetri.modbus.pdu.WriteMultipleRegistersRequest;
+import com.kevinherron.modbus.cli.output.Direction;
+import com.kevinherron.modbus.cli.output.OutputContext;
+import com.kevinherron.modbus.cli.util.ValueParser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.IntFunction;
+
+/**
+ * Writes value lists of any length, splitting those larger than the protocol maximum into several
+ * Write Multiple Registers (FC 16) or Write Multiple Coils (FC 15) requests.
+ *
+ * <p>Up to {@value #MAX_WRITE_REGISTERS} registers or {@value #MAX_WRITE_COILS} coils are a single
+ * request. Longer lists are split into consecutive max-size chunks issued through a {@link
+ * RequestPipeline}, so up to {@code --pipeline} chunks are in flight at once on a TCP connection.
+ * Every chunk's request and response is reported through {@link OutputContext#protocol}, and when
+ * there is more than one chunk each acknowledged chunk is also reported as a success.
+ *
+ * <p>The first failed chunk aborts the write: the number of chunks acknowledged before it is
+ * reported and the failure is thrown. With a pipeline depth above 1, chunks after the failed one
+ * may already have been sent and applied by the device.
+ */
+final class ChunkedWriter {
+
+  /** The most registers a single Write Multiple Registers request may carry. */
+  static final int MAX_WRITE_REGISTERS = 123;
+
+  /** The most coils a single Write Multiple Coils request may carry. */
+  static final int MAX_WRITE_COILS = 1968;
+
+  private ChunkedWriter() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Resolves the value strings for a write command from either its inline values or its value
+   * file, split by {@link ValueParser#splitValues(String)}.
+   *
+   * @param values the inline values, or {@code null}.
+   * @param file the value file, {@code -} for standard input, or {@code null}.
+   * @param quantity the expected number of values, or {@code null} to accept any number.
+   * @param stdin the standard input to read when {@code file} is {@code -}.
+   * @return the value strings, in order.
+   * @throws IllegalArgumentException if both or neither of {@code values} and {@code file} are
+   *     given, if there are no values, or if the number of values does not match {@code quantity}.
+   * @throws UncheckedIOException if the value file cannot be read.
+   */
+  static List<String> valueStrings(
+      String values, String file, Integer quantity, InputStream stdin) {
+    List<String> valueStrings = ValueParser.splitValues(valueText(values, file, stdin));
+    if (valueStrings.isEmpty()) {
+      throw new IllegalArgumentException("no values to write");
+    }
+    if (quantity != null && valueStrings.size() != quantity) {
+      throw new IllegalArgumentException(
+          "number of values (%d) does not match quantity (%d)"
+              .formatted(valueStrings.size(), quantity));
+    }
+
+    return valueStrings;
+  }
+
+  /**
+   * Resolves the text of a write command's values from either its inline values or its value
+   * file, without splitting it into values.
+   *
+   * @param values the inline values, or {@code null}.
+   * @param file the value file, {@code -} for standard input, or {@code null}.
+   * @param stdin the standard input to read when {@code file} is {@code -}.
+   * @return the value text.
+   * @throws IllegalArgumentException if both or neither of {@code values} and {@code file} are
+   *     given.
+   * @throws UncheckedIOException if the value file cannot be read.
+   */
+  static String valueText(String values, String file, InputStream stdin) {
+    if ((values == null) == (file == null)) {
+      throw new IllegalArgumentException("specify either values or --file, but not both");
+    }
+
+    if (values != null) {
+      return values;
+    }
+    try {
+      return file.equals("-")
+          ? new String(stdin.readAllBytes(), StandardCharsets.UTF_8)
+          : Files.readString(Path.of(file));
+    } catch (IOException e) {
+      throw new UncheckedIOException("cannot read value file %s".formatted(file), e);
+    }
+  }
+
+  /**
+   * Writes consecutive holding registers starting at {@code address}.
+   *
+   * @param client the connected client.
+   * @param pipeline the pipeline to issue chunks on.
+   * @param unitId the target unit identifier.
+   * @param address the starting address.
+   * @param registers the register data, 2 bytes per register in the order they are sent.
+   * @param output the output context.
+   * @throws IllegalArgumentException if the values extend past the end of the address space.
+   * @throws ModbusException if any chunk fails.
+   */
+  static void writeRegisters(
+      ModbusClient client,
+      RequestPipeline<Written> pipeline,
+      int unitId,
+      int address,
+      byte[] registers,
+      OutputContext output)
+      throws ModbusException {
+
+    write(
+        pipeline,
+        unitId,
+        "registers",
+        address,
+        registers.length / 2,
+        MAX_WRITE_REGISTERS,
+        output,
+        offset ->
+            (chunkAddress, quantity) -> {
+              byte[] bytes = Arrays.copyOfRange(registers, offset * 2, (offset + quantity) * 2);
+
+              var request = new WriteMultipleRegistersRequest(chunkAddress, quantity, bytes);
+              output.protocol(request, Direction.SENT, null);
+
+              return client
+                  .writeMultipleRegistersAsync(unitId, request)
+                  .thenApply(response -> new Written(response, Instant.now()));
+            });
+  }
+
+  /**
+   * Writes consecutive coils starting at {@code address}.
+   *
+   * @param client the connected client.
+   * @param pipeline the pipeline to issue chunks on.
+   * @param unitId the target unit identifier.
+   * @param address the starting address.
+   * @param values the coil values.
+   * @param output the output context.
+   * @throws IllegalArgumentException if the values extend past the end of the address space.
+   * @throws ModbusException if any chunk fails.
+   */
+  static void writeCoils(
+      ModbusClient client,
+      RequestPipeline<Written> pipeline,
+      int unitId,
+      int address,
+      boolean[] values,
+      OutputContext output)
+      throws ModbusException {
+
+    write(
+        pipeline,
+        unitId,
+        "coils",
+        address,
+        values.length,
+        MAX_WRITE_COILS,
+        output,
+        offset ->
+            (chunkAddress, quantity) -> {
+              // Pack coil values into bytes (LSB-first per Modbus protocol)
+              var bytes = new byte[(quantity + 7) / 8];
+              for (int i = 0; i < quantity; i++) {
+                if (values[offset + i]) {
+                  bytes[i / 8] |= (byte) (1 << (i % 8));
+                }
+              }
+
+              var request = new WriteMultipleCoilsRequest(chunkAddress, quantity, bytes);
+              output.protocol(request, Direction.SENT, null);
+
+              return client
+                  .writeMultipleCoilsAsync(unitId, request)
+                  .thenApply(response -> new Written(response, Instant.now()));
+            });
+  }
+
+  /**
+   * Splits a write of {@code count} values into chunks and issues them in order.
+   *
+   * @param chunkWriter given a value offset, returns the function that sends that chunk.
+   */
+  private static void write(
+      RequestPipeline<Written> pipeline,
+      int unitId,
+      String noun,
+      int address,
+      int count,
+      int maxQuantity,
+      OutputContext output,
+      IntFunction<ChunkSender> chunkWriter)
+      throws ModbusException {
+
+    if (count > maxQuantity && address + count > 0x10000) {
+      throw new IllegalArgumentException(
+          "address %d + %d values exceeds the address space".formatted(address, count));
+    }
+
+    int chunks = Math.max(1, (count + maxQuantity - 1) / maxQuantity);
+    int[] acknowledged = {0};
+
+    try {
+      int offset = 0;
+      do {
+        int chunkAddress = address + offset;
+        int quantity = Math.min(maxQuantity, count - offset);
+        ChunkSender sender = chunkWriter.apply(offset);
+
+        pipeline.submit(
+            unitId,
+            () -> sender.send(chunkAddress, quantity),
+            written -> {
+              output.protocol(written.response(), Direction.RECEIVED, written.received());
+              acknowledged[0]++;
+              if (chunks > 1) {
+                output.success(
+                    "Wrote %s %d-%d (chunk %d of %d)",
+                    noun, chunkAddress, chunkAddress + quantity - 1, acknowledged[0], chunks);
+              }
+            },
+            failure -> {
+              if (chunks > 1) {
+                output.error(
+                    "Write of %s %d-%d failed; %d of %d chunk(s) acknowledged",
+                    noun, chunkAddress, chunkAddress + quantity - 1, acknowledged[0], chunks);
+              }
+              throw failure;
+            });
+
+        offset += quantity;
+      } while (offset < count);
+
+      pipeline.drain();
+    } catch (ModbusException | RuntimeException e) {
+      pipeline.cancel();
+      throw e;
+    }
+  }
+
+  /** Builds and sends the request for one chunk. */
+  private interface ChunkSender {
+
+    CompletionStage<Written> send(int address, int quantity);
+  }
+
+  /**
+   * The response to one chunk's write request.
+   *
+   * @param response the response PDU.
+   * @param received when the response was received.
+   */
+  record Written(ModbusResponsePdu response, Instant received) {}
+}
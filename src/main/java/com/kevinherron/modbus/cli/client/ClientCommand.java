@@ -10,12 +10,18 @@ import com.digitalpetri.modbus.serial.client.SerialPortClientTransport;
 import com.digitalpetri.modbus.tcp.client.NettyTcpClientTransport;
 import com.kevinherron.modbus.cli.ModbusCommand;
 import com.kevinherron.modbus.cli.SerialPortOptions;
+import com.kevinherron.modbus.cli.client.PollScheduler.OverrunPolicy;
 import com.kevinherron.modbus.cli.output.OutputContext;
 import com.kevinherron.modbus.cli.util.EndpointParser;
 import com.kevinherron.modbus.cli.util.EndpointParser.Endpoint;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.jspecify.annotations.Nullable;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Option;
@@ -42,6 +48,10 @@ import picocli.CommandLine.ParentCommand;
  *   <li>{@link ReadWriteMultipleRegistersCommand} (rwmr) - Read/write multiple registers (function
  *       code 23)
  *   <li>{@link ScanCommand} (scan) - Scan register ranges
+ *   <li>{@link DiscoverCommand} (discover) - Discover responding unit IDs
+ *   <li>{@link SweepCommand} (sweep) - Sweep a range of TCP hosts for Modbus servers
+ *   <li>{@link PollCommand} (poll) - Poll the tags listed in a CSV file
+ *   <li>{@link BatchCommand} (batch) - Run a list of commands over one connection
  * </ul>
  */
 @Command(
@@ -57,7 +67,11 @@ import picocli.CommandLine.ParentCommand;
       WriteMultipleRegistersCommand.class,
       MaskWriteRegisterCommand.class,
       ReadWriteMultipleRegistersCommand.class,
-      ScanCommand.class
+      ScanCommand.class,
+      DiscoverCommand.class,
+      SweepCommand.class,
+      PollCommand.class,
+      BatchCommand.class
     })
 public class ClientCommand {
 
@@ -66,7 +80,9 @@ public class ClientCommand {
   @Parameters(
       index = "0",
       description =
-          "endpoint (hostname, tcp:hostname[:port], tcp://hostname[:port], rtu:/dev/ttyUSB0, rtu:COM3)")
+          "endpoint (hostname, tcp:hostname[:port], tcp://hostname[:port], rtu:/dev/ttyUSB0, rtu:COM3),"
+              + " or for sweep a host range (tcp:10.1.0.0/22, tcp:host1,host2);"
+              + " for poll, the endpoint of tags that don't name one")
   String endpoint;
 
   @Option(
@@ -84,32 +100,122 @@ public class ClientCommand {
       description = "request timeout in milliseconds (default: 5000ms)")
   int timeout = 5000;
 
+  @Option(
+      names = {"--persistent"},
+      description = "keep the TCP connection open and reconnect automatically if it drops")
+  boolean persistent = false;
+
+  @Option(
+      names = {"--reconnect-delay"},
+      description = "initial delay in milliseconds between reconnect attempts (default: 100ms)")
+  int reconnectDelay = 100;
+
+  @Option(
+      names = {"--reconnect-max-delay"},
+      description = "maximum delay in milliseconds between reconnect attempts (default: 10000ms)")
+  int reconnectMaxDelay = 10_000;
+
+  @Option(
+      names = {"--reconnect-attempts"},
+      description =
+          "maximum number of attempts to re-establish a dropped connection before giving up"
+              + " (default: 0, no limit; a poll with -c N also gives up at its last deadline)")
+  int reconnectAttempts = 0;
+
+  @Option(
+      names = {"--pipeline"},
+      description =
+          "maximum number of requests in flight at once on a TCP connection (default: 1)")
+  int pipeline = 1;
+
+  @Option(
+      names = {"--max-in-flight"},
+      description =
+          "maximum number of requests in flight at once to the endpoint, across all connections,"
+              + " e.g. 1 for gateways that serialize requests; writes are sent ahead of polling"
+              + " reads only while requests wait for this limit (default: 0, no limit)")
+  int maxInFlight = 0;
+
+  @Option(
+      names = {"--overrun"},
+      description =
+          "what polling does when an iteration runs past the next deadline: skip, catch-up,"
+              + " coalesce (default: coalesce)",
+      converter = PollScheduler.OverrunPolicyConverter.class)
+  OverrunPolicy overrun = OverrunPolicy.COALESCE;
+
+  @Option(
+      names = {"--on-change"},
+      description =
+          "when polling, output the first response in full and then only the registers or coils"
+              + " whose values changed")
+  boolean onChange = false;
+
+  @Option(
+      names = {"--deadband"},
+      description =
+          "with --on-change, the largest change in a value that isn't reported: a value decoded"
+              + " with --type, or else a raw unsigned 16-bit register (default: 0, every change)")
+  double deadband = 0;
+
   @Mixin SerialPortOptions serialOptions;
 
+  /** Number of times a dropped connection has been re-established during this invocation. */
+  private int reconnectCount = 0;
+
+  /** Number of errors reported by {@link #handleException} during this invocation. */
+  private int errorCount = 0;
+
+  /** The connection shared by the commands of a running batch, or {@code null} outside a batch. */
+  private ModbusClient sharedClient;
+
+  /** The lane requests wait in for permits: background while polling, foreground otherwise. */
+  private RequestLimiter.Lane lane = RequestLimiter.Lane.FOREGROUND;
+
   /**
    * Creates a new Modbus TCP client configured with the resolved connection parameters.
    *
-   * <p>The client uses {@link NettyTcpClientTransport} with non-persistent connections, meaning
-   * each connect/disconnect cycle establishes a new TCP connection.
+   * <p>The client uses {@link NettyTcpClientTransport} with non-persistent connections by default,
+   * meaning each connect/disconnect cycle establishes a new TCP connection. When {@code
+   * --persistent} is set, the transport keeps the channel open and re-establishes it in the
+   * background if it drops, so polling loops recover without a full client teardown.
+   *
+   * <p>{@code --timeout} bounds both establishing the connection and each request.
    *
    * @return a configured but not yet connected {@link ModbusTcpClient}.
    */
   public ModbusTcpClient createTcpClient(String hostname, int tcpPort) {
+    return createTcpClient(hostname, tcpPort, timeout);
+  }
+
+  /**
+   * Creates a new Modbus TCP client, as {@link #createTcpClient(String, int)} does, but with a
+   * timeout other than {@code --timeout}, e.g. a command's own probe timeout.
+   *
+   * @param timeoutMs the connect and request timeout in milliseconds.
+   * @return a configured but not yet connected {@link ModbusTcpClient}.
+   */
+  ModbusTcpClient createTcpClient(String hostname, int tcpPort, int timeoutMs) {
     var transport =
         NettyTcpClientTransport.create(
             cfg -> {
               cfg.hostname = hostname;
               cfg.port = tcpPort;
-              cfg.connectPersistent = false;
+              cfg.connectTimeout = Duration.ofMillis(timeoutMs);
+              cfg.connectPersistent = persistent;
             });
 
     ModbusClientConfig config =
-        ModbusClientConfig.create(cfg -> cfg.requestTimeout = Duration.ofMillis(timeout));
+        ModbusClientConfig.create(cfg -> cfg.requestTimeout = Duration.ofMillis(timeoutMs));
 
     return new ModbusTcpClient(config, transport);
   }
 
   public ModbusRtuClient createRtuClient(String serialPort) {
+    return createRtuClient(serialPort, timeout);
+  }
+
+  private ModbusRtuClient createRtuClient(String serialPort, int timeoutMs) {
     int resolvedDataBits = serialOptions.resolveDataBits();
     int resolvedStopBits = serialOptions.resolveStopBits();
     int resolvedParity = serialOptions.resolveParity();
@@ -127,16 +233,214 @@ public class ClientCommand {
     serialOptions.configureRs485(transport.getSerialPort());
 
     ModbusClientConfig config =
-        ModbusClientConfig.create(cfg -> cfg.requestTimeout = Duration.ofMillis(timeout));
+        ModbusClientConfig.create(cfg -> cfg.requestTimeout = Duration.ofMillis(timeoutMs));
 
     return new ModbusRtuClient(config, transport);
   }
 
+  /**
+   * Creates a {@link RequestPipeline} sized by the {@code --pipeline} option.
+   *
+   * <p>RTU is a strict request/response protocol on a shared serial line, so pipelining is only
+   * applied to TCP clients; RTU clients always get a depth of 1. Requests also wait for the
+   * client's {@link RequestLimiter}, in the background lane while {@link #runWithClientPolling}
+   * is polling.
+   *
+   * @param client the connected client the pipeline will issue requests on.
+   * @param <T> the response type.
+   * @return a new pipeline.
+   */
+  <T> RequestPipeline<T> createPipeline(ModbusClient client) {
+    int depth = client instanceof ModbusRtuClient ? 1 : pipeline;
+    return new RequestPipeline<>(depth, RequestLimiter.of(client), lane);
+  }
+
+  /**
+   * Creates a client for {@code resolvedEndpoint}.
+   *
+   * <p>When {@code --max-in-flight} is set, the client shares the endpoint's {@link RequestLimiter}
+   * with every other client connected to it, so requests beyond the limit wait their turn instead
+   * of being sent. RTU clients always share a limit of 1 per serial port, so that requests from
+   * commands sharing the port are scheduled by priority. A TCP client without a limit has no
+   * limiter, so its requests never wait and aren't scheduled by priority.
+   *
+   * @param resolvedEndpoint the endpoint to connect to.
+   * @return a configured but not yet connected client.
+   */
   public ModbusClient createClient(Endpoint resolvedEndpoint) {
-    return switch (resolvedEndpoint) {
-      case Endpoint.Tcp tcp -> createTcpClient(tcp.hostname(), tcp.port());
-      case Endpoint.Rtu rtu -> createRtuClient(rtu.serialPort());
-    };
+    return createClient(resolvedEndpoint, timeout);
+  }
+
+  private ModbusClient createClient(Endpoint resolvedEndpoint, int timeoutMs) {
+    ModbusClient client =
+        switch (resolvedEndpoint) {
+          case Endpoint.Tcp tcp -> createTcpClient(tcp.hostname(), tcp.port(), timeoutMs);
+          case Endpoint.Rtu rtu -> createRtuClient(rtu.serialPort(), timeoutMs);
+        };
+
+    switch (resolvedEndpoint) {
+      case Endpoint.Tcp _ -> {
+        if (maxInFlight > 0) {
+          RequestLimiter.attach(client, resolvedEndpoint, maxInFlight);
+        }
+      }
+      case Endpoint.Rtu _ -> RequestLimiter.attach(client, resolvedEndpoint, 1);
+    }
+    return client;
+  }
+
+  /**
+   * Parses the {@code endpoint} parameter and {@code --port} option into a resolved endpoint.
+   *
+   * @return the resolved endpoint.
+   * @throws IllegalArgumentException if the endpoint is invalid.
+   */
+  Endpoint resolveEndpoint() {
+    return EndpointParser.parse(endpoint, port);
+  }
+
+  /**
+   * Connects a client to {@code endpoint}, taken from the {@link ConnectionPool#shared() shared
+   * connection pool} when pooling is on.
+   *
+   * <p>Commands that open connections beyond the one passed to their {@link ClientRunnable}, e.g.
+   * to spread work across several connections or endpoints, use this. The caller owns the returned
+   * lease and must close it when done, which disconnects the client or returns it to the pool.
+   *
+   * @param endpoint the endpoint to connect to.
+   * @return a lease on a connected client.
+   * @throws ModbusExecutionException if the connection cannot be established.
+   */
+  ConnectionPool.Lease connect(Endpoint endpoint) throws ModbusExecutionException {
+    return connect(endpoint, timeout);
+  }
+
+  private ConnectionPool.Lease connect(Endpoint endpoint, int timeoutMs)
+      throws ModbusExecutionException {
+
+    ConnectionPool pool = ConnectionPool.shared();
+    if (pool != null) {
+      return pool.acquire(
+          poolKey(endpoint, timeoutMs),
+          () -> createClient(endpoint, timeoutMs),
+          Duration.ofMillis(timeoutMs));
+    }
+
+    ModbusClient client = createClient(endpoint, timeoutMs);
+    try {
+      client.connect();
+    } catch (ModbusExecutionException e) {
+      disconnectQuietly(client);
+      throw e;
+    }
+    return ConnectionPool.Lease.unpooled(client);
+  }
+
+  /**
+   * Returns the key under which clients created by this command are pooled: the endpoint plus
+   * every option that affects how the client is created.
+   *
+   * @param endpoint the resolved endpoint.
+   * @param timeoutMs the connect and request timeout the client is created with.
+   * @return the pool key.
+   */
+  private ConnectionPool.Key poolKey(Endpoint endpoint, int timeoutMs) {
+    List<Object> settings =
+        switch (endpoint) {
+          case Endpoint.Tcp _ -> List.of(timeoutMs, persistent, maxInFlight);
+          case Endpoint.Rtu _ ->
+              List.of(
+                  timeoutMs,
+                  serialOptions.baudRate,
+                  serialOptions.resolveDataBits(),
+                  serialOptions.resolveStopBits(),
+                  serialOptions.resolveParity(),
+                  serialOptions.rs485,
+                  serialOptions.rs485RtsActiveHigh,
+                  serialOptions.rs485Termination,
+                  serialOptions.rs485RxDuringTx,
+                  serialOptions.rs485DelayBefore,
+                  serialOptions.rs485DelayAfter);
+        };
+
+    return new ConnectionPool.Key(endpoint, settings);
+  }
+
+  /**
+   * Runs each task, the first on the primary client and the rest concurrently on virtual threads,
+   * each with its own additional connection. On RTU endpoints, which can't open a second connection
+   * to the same serial port, the tasks instead run one after another on the primary client.
+   *
+   * <p>Commands that split their work across connections (e.g. {@code scan --connections}) use
+   * this to run each piece. The tasks run in a {@link TaskScope}: if any task fails, the others are
+   * cancelled and the failure is thrown.
+   *
+   * @param client the primary connected client.
+   * @param tasks the tasks to run.
+   * @param <T> the result type of each task.
+   * @return the result of each task, in the same order as the tasks.
+   * @throws ModbusException if any task fails.
+   */
+  <T> List<T> runOnConnections(ModbusClient client, List<ConnectionTask<T>> tasks)
+      throws ModbusException {
+
+    return runOnConnections(client, tasks, timeout);
+  }
+
+  /**
+   * Runs each task as {@link #runOnConnections(ModbusClient, List)} does, opening the additional
+   * connections with a timeout other than {@code --timeout}.
+   *
+   * @param client the primary connected client.
+   * @param tasks the tasks to run.
+   * @param timeoutMs the connect and request timeout of the additional connections.
+   * @param <T> the result type of each task.
+   * @return the result of each task, in the same order as the tasks.
+   * @throws ModbusException if any task fails.
+   */
+  <T> List<T> runOnConnections(ModbusClient client, List<ConnectionTask<T>> tasks, int timeoutMs)
+      throws ModbusException {
+
+    var results = new ArrayList<T>(tasks.size());
+
+    if (tasks.size() == 1 || client instanceof ModbusRtuClient) {
+      for (ConnectionTask<T> task : tasks) {
+        results.add(task.run(client));
+      }
+      return results;
+    }
+
+    try (var scope = new TaskScope<T>("modbus-connection")) {
+      scope.fork(() -> tasks.getFirst().run(client));
+
+      for (int i = 1; i < tasks.size(); i++) {
+        ConnectionTask<T> task = tasks.get(i);
+
+        scope.fork(
+            () -> {
+              try (ConnectionPool.Lease lease = connect(resolveEndpoint(), timeoutMs)) {
+                return task.run(lease.client());
+              }
+            });
+      }
+
+      return scope.join();
+    }
+  }
+
+  /**
+   * Disconnects a client, ignoring any failure to do so, and detaches it from its {@link
+   * RequestLimiter}.
+   *
+   * @param client the client to disconnect.
+   */
+  static void disconnectQuietly(ModbusClient client) {
+    try {
+      client.disconnect();
+    } catch (ModbusExecutionException ignored) {
+    } finally {
+      RequestLimiter.detach(client);
+    }
   }
 
   /**
@@ -149,46 +453,129 @@ public class ClientCommand {
    * @param command the Modbus operation to execute.
    */
   public void runWithClient(ClientRunnable command) {
-    executeWithClient((client, output) -> command.run(client, unitId, output));
+    runWithClient(command, timeout);
+  }
+
+  /**
+   * Executes a single Modbus operation as {@link #runWithClient(ClientRunnable)} does, but on a
+   * client created with a timeout other than {@code --timeout}, e.g. a command's own probe timeout,
+   * leaving {@code --timeout} itself untouched for later commands in a batch or the daemon.
+   *
+   * <p>Within {@link #runWithSharedClient}, the shared connection keeps its own timeout.
+   *
+   * @param command the Modbus operation to execute.
+   * @param timeoutMs the connect and request timeout in milliseconds.
+   */
+  void runWithClient(ClientRunnable command, int timeoutMs) {
+    executeWithClient((client, output) -> command.run(client, unitId, output), timeoutMs);
+  }
+
+  /**
+   * Executes an operation with a connection that every {@link #runWithClient} and {@link
+   * #runWithClientPolling} call made during it reuses, instead of connecting and disconnecting
+   * around each operation.
+   *
+   * <p>This is how {@link BatchCommand} runs many subcommands over one connection.
+   *
+   * @param command the operation to execute.
+   */
+  void runWithSharedClient(ClientRunnable command) {
+    executeWithClient(
+        (client, output) -> {
+          sharedClient = client;
+          try {
+            command.run(client, unitId, output);
+          } finally {
+            sharedClient = null;
+          }
+        },
+        timeout);
   }
 
   /**
    * Executes a Modbus operation repeatedly with polling support.
    *
    * <p>This method maintains a single connection while executing the command multiple times at the
-   * specified interval. The sleep duration between iterations is adjusted to account for the
-   * operation's execution time, ensuring consistent polling intervals.
+   * specified interval. Iterations are scheduled by a {@link PollScheduler} at fixed absolute
+   * deadlines, so the polling rate doesn't drift with the operation's execution time. When an
+   * iteration overruns the next deadline, {@code --overrun} decides whether the missed deadlines
+   * are skipped, caught up, or coalesced into one iteration, and a warning reports how many were
+   * missed.
    *
    * <p>Iteration tracking is provided via {@link OutputContext#setIteration(Integer)}, allowing
    * output formatters to include iteration numbers in their output.
    *
+   * <p>When {@code --persistent} is set and an iteration fails because the connection was lost, the
+   * loop waits for the connection to be re-established (see {@link #reconnect}) before
+   * continuing. Polling stops if reconnecting gives up: after {@code --reconnect-attempts}, or,
+   * with a bounded {@code count}, once the deadline of the last iteration has passed.
+   *
+   * <p>Polling reads wait in the {@link RequestLimiter.Lane#BACKGROUND background} lane, so writes
+   * and one-shot reads sharing the endpoint's {@link RequestLimiter} are sent ahead of them. Only
+   * requests waiting for a permit are reordered, so on a TCP endpoint without {@code
+   * --max-in-flight} polling reads and writes are sent in the order they are issued.
+   *
+   * <p>With {@code --on-change}, the command's register and coil tables are filtered through an
+   * {@link OnChangeOutputContext}, so after the first iteration only changed values are output.
+   *
    * @param command the Modbus operation to execute on each iteration.
    * @param count the number of iterations to execute; 0 for infinite polling until interrupted.
    * @param intervalMs the target delay in milliseconds between the start of each iteration.
    */
   public void runWithClientPolling(ClientRunnable command, int count, int intervalMs) {
-    executeWithClient(
-        (client, output) -> {
-          int iteration = 0;
-          while (count == 0 || iteration < count) {
-            iteration++;
-            output.setIteration(iteration);
-
-            long start = System.nanoTime();
-            try {
-              command.run(client, unitId, output);
-            } catch (Exception e) {
-              handleException(e, output);
+    lane = RequestLimiter.Lane.BACKGROUND;
+    try {
+      executeWithClient(
+          (client, output) -> {
+            var scheduler = new PollScheduler(Duration.ofMillis(intervalMs), overrun);
+
+            // A bounded poll stops trying to reconnect once its last iteration is due
+            @Nullable Instant lastDeadline =
+                count == 0 ? null : Instant.now().plusMillis((long) (count - 1) * intervalMs);
+
+            OutputContext pollOutput =
+                onChange ? new OnChangeOutputContext(output, deadband, parent.verbose) : output;
+
+            int iteration = 0;
+            while (count == 0 || iteration < count) {
+              iteration++;
+              output.setIteration(iteration);
+
+              try {
+                command.run(client, unitId, pollOutput);
+              } catch (Exception e) {
+                handleException(e, output);
+
+                if (shouldReconnect(client) && !reconnect(client, output, lastDeadline)) {
+                  break;
+                }
+              }
+
+              // Wait for the next deadline, but not after the last iteration
+              if (count == 0 || iteration < count) {
+                output.flush();
+                long missed = scheduler.awaitNext();
+                if (missed > 0) {
+                  output.warning(
+                      "Iteration %d overran the %d ms interval; %d deadline(s) missed (%s)",
+                      iteration,
+                      intervalMs,
+                      missed,
+                      overrun.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+                }
+              }
             }
 
-            long duration = System.nanoTime() - start;
-
-            // Sleep between iterations, but not after the last one
-            if (count == 0 || iteration < count) {
-              Thread.sleep(Math.max(0, intervalMs - Duration.ofNanos(duration).toMillis()));
+            if (scheduler.missedDeadlines() > 0) {
+              output.warning(
+                  "%d polling deadline(s) missed over %d iteration(s)",
+                  scheduler.missedDeadlines(), iteration);
             }
-          }
-        });
+          },
+          timeout);
+    } finally {
+      lane = RequestLimiter.Lane.FOREGROUND;
+    }
   }
 
   /**
@@ -198,22 +585,47 @@ public class ClientCommand {
    * endpoint, creating and connecting the client, and ensuring proper disconnection. The provided
    * action is invoked with the connected client and output context.
    *
+   * <p>Within {@link #runWithSharedClient}, the action runs on the shared connection, which is left
+   * connected afterward. When {@link ConnectionPool#shared() pooling} is on, the client is leased
+   * from the pool and returned to it afterward.
+   *
    * @param action the operation to execute with the connected client.
+   * @param timeoutMs the connect and request timeout of a client created for the action.
    */
-  private void executeWithClient(ClientAction action) {
+  private void executeWithClient(ClientAction action, int timeoutMs) {
     OutputContext output = parent.createOutputContext();
 
+    if (sharedClient != null) {
+      try {
+        action.execute(sharedClient, output);
+      } catch (Exception e) {
+        handleException(e, output);
+      }
+      return;
+    }
+
     Endpoint resolvedEndpoint;
     try {
-      resolvedEndpoint = EndpointParser.parse(endpoint, port);
+      resolvedEndpoint = resolveEndpoint();
     } catch (Exception e) {
       handleException(e, output);
       return;
     }
 
+    if (ConnectionPool.shared() != null) {
+      // The connection outlives this command, returned to the pool instead of disconnected
+      outputEndpointInfo(output, resolvedEndpoint);
+      try (ConnectionPool.Lease lease = connect(resolvedEndpoint, timeoutMs)) {
+        action.execute(lease.client(), output);
+      } catch (Exception e) {
+        handleException(e, output);
+      }
+      return;
+    }
+
     ModbusClient client;
     try {
-      client = createClient(resolvedEndpoint);
+      client = createClient(resolvedEndpoint, timeoutMs);
     } catch (Exception e) {
       handleException(e, output);
       return;
@@ -226,16 +638,73 @@ public class ClientCommand {
     } catch (Exception e) {
       handleException(e, output);
     } finally {
+      disconnectQuietly(client);
+    }
+  }
+
+  /**
+   * Whether a failed request should be followed by {@link #reconnect}: {@code --persistent} is set,
+   * the client is a TCP client, and its connection was lost.
+   *
+   * @param client the client whose request failed.
+   * @return {@code true} if the connection should be re-established.
+   */
+  boolean shouldReconnect(ModbusClient client) {
+    return persistent && client instanceof ModbusTcpClient && !client.isConnected();
+  }
+
+  /**
+   * Re-establishes a dropped connection, retrying with exponential backoff.
+   *
+   * <p>The delay between attempts starts at {@code --reconnect-delay} and doubles after each failed
+   * attempt, up to {@code --reconnect-max-delay}. Retrying gives up after {@code
+   * --reconnect-attempts} attempts, if set, once {@code deadline} has passed, or when the thread is
+   * interrupted.
+   *
+   * @param client the client whose connection was lost.
+   * @param output the output context for reporting reconnect progress.
+   * @param deadline when to stop retrying, or {@code null} to retry without a time limit.
+   * @return {@code true} if the connection was re-established, {@code false} if reconnecting gave
+   *     up.
+   */
+  boolean reconnect(ModbusClient client, OutputContext output, @Nullable Instant deadline) {
+    long delay = Math.max(1, reconnectDelay);
+    int attempts = 0;
+
+    while (true) {
+      attempts++;
+      try {
+        client.connect();
+        break;
+      } catch (ModbusExecutionException e) {
+        output.warning("Reconnect attempt %d failed: %s", attempts, e.getMessage());
+      }
+
+      long remaining =
+          deadline != null ? Duration.between(Instant.now(), deadline).toMillis() : delay;
+      if ((reconnectAttempts > 0 && attempts >= reconnectAttempts) || remaining <= 0) {
+        output.error("Giving up reconnecting after %d attempt(s)", attempts);
+        return false;
+      }
+
       try {
-        client.disconnect();
-      } catch (ModbusExecutionException ignored) {
+        Thread.sleep(Math.min(delay, remaining));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
       }
+      delay = Math.min(delay * 2, Math.max(delay, reconnectMaxDelay));
     }
+
+    reconnectCount++;
+    output.warning(
+        "Reconnected after %d attempt(s) (total reconnects: %d)", attempts, reconnectCount);
+    return true;
   }
 
   /**
    * Internal callback for operations executed within the client lifecycle managed by {@link
-   * #executeWithClient(ClientAction)}.
+   * #executeWithClient(ClientAction, int)}.
    */
   private interface ClientAction {
 
@@ -258,7 +727,8 @@ public class ClientCommand {
    * @param e the exception to handle.
    * @param output the output context for error display.
    */
-  private void handleException(Exception e, OutputContext output) {
+  void handleException(Exception e, OutputContext output) {
+    errorCount++;
     if (parent.verbose) {
       var sw = new StringWriter();
       e.printStackTrace(new PrintWriter(sw));
@@ -267,6 +737,16 @@ public class ClientCommand {
       output.error("%s", e.getMessage());
     }
   }
+  /**
+   * Returns the number of errors reported by {@link #handleException} so far, so that a caller
+   * running several commands, e.g. {@link BatchCommand}, can tell whether one of them failed.
+   *
+   * @return the number of errors reported.
+   */
+  int errorCount() {
+    return errorCount;
+  }
+
 
   private void outputEndpointInfo(OutputContext output, Endpoint resolvedEndpoint) {
     switch (resolvedEndpoint) {
@@ -278,6 +758,11 @@ public class ClientCommand {
         } else {
           output.info("Serial Port: %s, Unit ID: %d", rtu.serialPort(), unitId);
         }
+        if (persistent) {
+          output.warning(
+              "--persistent and --reconnect-* only apply to TCP endpoints; ignored for %s",
+              rtu.serialPort());
+        }
       }
     }
   }
@@ -301,4 +786,21 @@ public class ClientCommand {
      */
     void run(ModbusClient client, int unitId, OutputContext output) throws ModbusException;
   }
+
+  /**
+   * A unit of work run on one connection by {@link #runOnConnections}.
+   *
+   * @param <T> the result type.
+   */
+  interface ConnectionTask<T> {
+
+    /**
+     * Runs the task.
+     *
+     * @param client the connected client to run on.
+     * @return the task's result.
+     * @throws ModbusException if the task fails.
+     */
+    T run(ModbusClient client) throws ModbusException;
+  }
 }
@@ -0,0 +1,377 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.digitalpetri.modbus.exceptions.ModbusExecutionException;
+import com.kevinherron.modbus.cli.util.EndpointParser.Endpoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A pool of connected clients that outlive the commands using them, so that commands run in one
+ * long-lived process (e.g. the daemon) reuse connections instead of opening one each.
+ *
+ * <p>Clients are pooled by {@link Key}: an endpoint plus every setting the client was created with,
+ * so a pooled client is only reused by commands that would have created an identical one. At most
+ * {@code maxConnectionsPerHost} clients are open at once to one host, across all keys, and at most
+ * one to a serial port.
+ *
+ * <p>A client can carry several commands' requests at once, so {@link #acquire} prefers an idle
+ * client, then opens a new one while under the per-host limit, and beyond that shares the
+ * least-used client for the key. A shared RTU client's {@link RequestLimiter} sends one request at
+ * a time, so e.g. a write from one command is interleaved with another command's polling instead of
+ * waiting for it to finish. A command needing a client with other settings, on a host at its limit,
+ * closes an idle client of another key to make room; if every client is leased, it waits for one to
+ * be released, up to the acquire timeout.
+ *
+ * <p>Before an idle client is reused, it is checked with {@link ModbusClient#isConnected()}, and
+ * clients whose connection has been closed are discarded instead of being handed out. This is a
+ * passive check: no request is sent, so a half-open TCP connection, e.g. to a device that lost
+ * power without closing it, is only detected when a request on it fails. Clients idle for longer
+ * than {@code idleTimeout} are disconnected by a background sweep.
+ *
+ * <p>Pooling is off unless a pool is installed with {@link #setShared}; by default every command
+ * connects and disconnects its own client.
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+  private static volatile ConnectionPool shared;
+
+  private final Map<String, List<Pooled>> clientsByHost = new HashMap<>();
+
+  private final Duration idleTimeout;
+  private final int maxConnectionsPerHost;
+  private final Thread sweeper;
+
+  private boolean closed = false;
+
+  /**
+   * Creates a pool.
+   *
+   * @param idleTimeout how long a client may sit unused before it is disconnected.
+   * @param maxConnectionsPerHost the most clients open at once to one host.
+   */
+  public ConnectionPool(Duration idleTimeout, int maxConnectionsPerHost) {
+    this.idleTimeout = idleTimeout;
+    this.maxConnectionsPerHost = Math.max(1, maxConnectionsPerHost);
+
+    long sweepMillis = Math.max(100, idleTimeout.toMillis() / 2);
+    this.sweeper =
+        Thread.ofVirtual()
+            .name("modbus-connection-pool-sweeper")
+            .start(
+                () -> {
+                  try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                      Thread.sleep(sweepMillis);
+                      evictIdle();
+                    }
+                  } catch (InterruptedException ignored) {
+                    // Closed
+                  }
+                });
+  }
+
+  /**
+   * Returns the pool commands take their connections from, or {@code null} if pooling is off.
+   *
+   * @return the shared pool, or {@code null}.
+   */
+  public static ConnectionPool shared() {
+    return shared;
+  }
+
+  /**
+   * Installs the pool commands take their connections from.
+   *
+   * @param pool the pool, or {@code null} to turn pooling off.
+   */
+  public static void setShared(ConnectionPool pool) {
+    shared = pool;
+  }
+
+  /**
+   * Leases a connected client for {@code key}, reusing a pooled client when possible.
+   *
+   * @param key the key identifying interchangeable clients.
+   * @param factory creates a new, unconnected client for {@code key}.
+   * @param timeout how long to wait for a client when the host is at its connection limit.
+   * @return the lease; closing it returns the client to the pool.
+   * @throws ModbusExecutionException if a new client fails to connect, no client becomes available
+   *     within {@code timeout}, or the pool is closed.
+   */
+  public Lease acquire(Key key, Supplier<ModbusClient> factory, Duration timeout)
+      throws ModbusExecutionException {
+
+    long deadline = System.nanoTime() + timeout.toNanos();
+    // A serial port can only be opened once
+    int hostLimit = key.endpoint() instanceof Endpoint.Rtu ? 1 : maxConnectionsPerHost;
+    var stale = new ArrayList<ModbusClient>();
+    Pooled reserved;
+
+    try {
+      synchronized (this) {
+        while (true) {
+          if (closed) {
+            throw new ModbusExecutionException("connection pool is closed");
+          }
+
+          List<Pooled> hostClients =
+              clientsByHost.computeIfAbsent(key.host(), _ -> new ArrayList<>());
+          discardDisconnected(hostClients, stale);
+
+          List<Pooled> candidates =
+              hostClients.stream().filter(p -> p.client != null && p.key.equals(key)).toList();
+
+          for (Pooled pooled : candidates) {
+            if (pooled.leases == 0) {
+              pooled.leases++;
+              return new Lease(pooled.client, () -> release(pooled));
+            }
+          }
+
+          if (hostClients.size() >= hostLimit && candidates.isEmpty()) {
+            // Make room by closing the longest-idle client created with other settings
+            hostClients.stream()
+                .filter(p -> p.client != null && p.leases == 0)
+                .min(Comparator.comparingLong(p -> p.idleSince))
+                .ifPresent(
+                    idle -> {
+                      hostClients.remove(idle);
+                      stale.add(idle.client);
+                    });
+          }
+
+          if (hostClients.size() < hostLimit) {
+            // Reserve a slot, then connect without holding the lock
+            reserved = new Pooled(key);
+            reserved.leases = 1;
+            hostClients.add(reserved);
+            break;
+          }
+
+          if (!candidates.isEmpty()) {
+            Pooled leastUsed =
+                candidates.stream().min(Comparator.comparingInt(p -> p.leases)).orElseThrow();
+            leastUsed.leases++;
+            return new Lease(leastUsed.client, () -> release(leastUsed));
+          }
+
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            throw new ModbusExecutionException(
+                "timed out waiting for a connection to %s".formatted(key.host()));
+          }
+          try {
+            wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModbusExecutionException(e);
+          }
+        }
+      }
+    } finally {
+      // Release dead clients' resources without holding the lock
+      stale.forEach(ClientCommand::disconnectQuietly);
+    }
+
+    ModbusClient client = null;
+    try {
+      client = factory.get();
+      client.connect();
+
+      synchronized (this) {
+        reserved.client = client;
+      }
+      return new Lease(client, () -> release(reserved));
+    } catch (ModbusExecutionException | RuntimeException e) {
+      synchronized (this) {
+        remove(reserved);
+      }
+      if (client != null) {
+        ClientCommand.disconnectQuietly(client);
+      }
+      throw e;
+    }
+  }
+
+  /** Disconnects every pooled client and stops the idle sweep. */
+  @Override
+  public void close() {
+    var clients = new ArrayList<ModbusClient>();
+
+    synchronized (this) {
+      closed = true;
+      clientsByHost.values().forEach(l -> l.forEach(p -> clients.add(p.client)));
+      clientsByHost.clear();
+      notifyAll();
+    }
+
+    sweeper.interrupt();
+    clients.stream().filter(c -> c != null).forEach(ClientCommand::disconnectQuietly);
+  }
+
+  /**
+   * Returns the number of clients currently open, leased or idle.
+   *
+   * @return the number of pooled clients.
+   */
+  synchronized int size() {
+    return clientsByHost.values().stream().mapToInt(List::size).sum();
+  }
+
+  private void release(Pooled pooled) {
+    boolean discard;
+
+    synchronized (this) {
+      pooled.leases--;
+      pooled.idleSince = System.nanoTime();
+
+      discard = closed || (pooled.leases == 0 && !pooled.client.isConnected());
+      if (discard) {
+        remove(pooled);
+      }
+      notifyAll();
+    }
+
+    if (discard) {
+      ClientCommand.disconnectQuietly(pooled.client);
+    }
+  }
+
+  /** Disconnects clients that have been idle for longer than the idle timeout. */
+  private void evictIdle() {
+    var evicted = new ArrayList<ModbusClient>();
+    long now = System.nanoTime();
+
+    synchronized (this) {
+      for (List<Pooled> hostClients : clientsByHost.values()) {
+        hostClients.removeIf(
+            p -> {
+              boolean idle =
+                  p.client != null
+                      && p.leases == 0
+                      && (now - p.idleSince >= idleTimeout.toNanos() || !p.client.isConnected());
+              if (idle) {
+                evicted.add(p.client);
+              }
+              return idle;
+            });
+      }
+      clientsByHost.values().removeIf(List::isEmpty);
+      notifyAll();
+    }
+
+    evicted.forEach(ClientCommand::disconnectQuietly);
+  }
+
+  /**
+   * Drops idle clients whose connection has been lost, so they aren't handed out; the caller holds
+   * the lock.
+   *
+   * @param hostClients the clients to check.
+   * @param stale collects the dropped clients, to be disconnected once the lock is released.
+   */
+  private static void discardDisconnected(List<Pooled> hostClients, List<ModbusClient> stale) {
+    hostClients.removeIf(
+        p -> {
+          boolean dead = p.client != null && p.leases == 0 && !p.client.isConnected();
+          if (dead) {
+            stale.add(p.client);
+          }
+          return dead;
+        });
+  }
+
+  /** Removes a client from the pool; the caller holds the lock. */
+  private void remove(Pooled pooled) {
+    List<Pooled> hostClients = clientsByHost.get(pooled.key.host());
+    if (hostClients != null) {
+      hostClients.remove(pooled);
+    }
+    notifyAll();
+  }
+
+  /**
+   * Identifies interchangeable clients.
+   *
+   * @param endpoint the endpoint.
+   * @param settings every other setting the client is created with, e.g. timeouts and serial
+   *     parameters.
+   */
+  public record Key(Endpoint endpoint, List<Object> settings) {
+
+    /**
+     * Returns the host or serial port the per-host connection limit applies to.
+     *
+     * @return the host name or serial port.
+     */
+    String host() {
+      return switch (endpoint) {
+        case Endpoint.Tcp tcp -> tcp.hostname();
+        case Endpoint.Rtu rtu -> rtu.serialPort();
+      };
+    }
+  }
+
+  /**
+   * A connected client leased to one command. Closing the lease returns a pooled client to its
+   * pool, or disconnects a client that isn't pooled.
+   */
+  public static final class Lease implements AutoCloseable {
+
+    private final ModbusClient client;
+    private final Runnable release;
+
+    private boolean released = false;
+
+    private Lease(ModbusClient client, Runnable release) {
+      this.client = client;
+      this.release = release;
+    }
+
+    /**
+     * Returns a lease on a client that isn't pooled; closing it disconnects the client.
+     *
+     * @param client the connected client.
+     * @return the lease.
+     */
+    static Lease unpooled(ModbusClient client) {
+      return new Lease(client, () -> ClientCommand.disconnectQuietly(client));
+    }
+
+    /** Returns the leased client. */
+    public ModbusClient client() {
+      return client;
+    }
+
+    @Override
+    public synchronized void close() {
+      if (!released) {
+        released = true;
+        release.run();
+      }
+    }
+  }
+
+  /** A client in the pool; all fields are guarded by the pool's lock. */
+  private static final class Pooled {
+
+    final Key key;
+
+    /** The client, or {@code null} while its slot is reserved and it is being connected. */
+    ModbusClient client;
+
+    int leases = 0;
+    long idleSince = System.nanoTime();
+
+    Pooled(Key key) {
+      this.key = key;
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.kevinherron.modbus.cli.util.RegisterCodec;
+import com.kevinherron.modbus.cli.util.RegisterCodec.DataType;
+import com.kevinherron.modbus.cli.util.RegisterCodec.Order;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+/**
+ * Picocli mixin providing the options that interpret register data as typed values, shared by the
+ * commands that read or write registers.
+ *
+ * <p>Without {@code --type}, registers read are output as raw bytes and values written are 16-bit
+ * integers, one per register.
+ */
+class DataTypeOptions {
+
+  @Option(
+      names = {"--type"},
+      description =
+          "interpret registers read or written as: int16, uint16, int32, uint32, int64, float32,"
+              + " float64, string (default: raw 16-bit registers)",
+      converter = RegisterCodec.DataTypeConverter.class)
+  @Nullable DataType type;
+
+  @Option(
+      names = {"--word-order"},
+      description = "order of the registers in a 32- or 64-bit value: big, little (default: big)",
+      converter = RegisterCodec.OrderConverter.class)
+  Order wordOrder = Order.BIG;
+
+  @Option(
+      names = {"--byte-order"},
+      description = "order of the bytes in each register: big, little (default: big)",
+      converter = RegisterCodec.OrderConverter.class)
+  Order byteOrder = Order.BIG;
+
+  @Spec(Spec.Target.MIXEE)
+  CommandSpec spec;
+
+  /**
+   * Returns the codec, or {@code null} if no {@code --type} was given.
+   *
+   * @return the codec, or {@code null} for raw registers.
+   */
+  @Nullable RegisterCodec codec() {
+    return type != null ? new RegisterCodec(type, wordOrder, byteOrder) : null;
+  }
+
+  /**
+   * Returns the codec for {@code quantity} registers, or {@code null} if no {@code --type} was
+   * given.
+   *
+   * @param quantity the number of registers.
+   * @return the codec, or {@code null} for raw registers.
+   * @throws IllegalArgumentException if {@code quantity} isn't a whole number of values.
+   */
+  @Nullable RegisterCodec codec(int quantity) {
+    checkWholeValues("quantity", quantity);
+    return codec();
+  }
+
+  /**
+   * Checks that {@code quantity} registers hold a whole number of values of the {@code --type}
+   * given, if any.
+   *
+   * @param name the quantity's name in the error message, e.g. {@code write quantity}.
+   * @param quantity the number of registers.
+   * @throws IllegalArgumentException if {@code quantity} isn't a whole number of values.
+   */
+  void checkWholeValues(String name, int quantity) {
+    if (type != null && quantity % type.registers() != 0) {
+      throw new IllegalArgumentException(
+          "%s (%d) is not a whole number of %s values (%d registers each)"
+              .formatted(name, quantity, type.cliName(), type.registers()));
+    }
+  }
+
+  /**
+   * Checks that the values can be compared for changes when polling with {@code --on-change}.
+   *
+   * @param onChange whether {@code --on-change} was given.
+   * @throws ParameterException if {@code --type string} was given with {@code --on-change}.
+   */
+  void checkOnChange(boolean onChange) {
+    if (onChange && type == DataType.STRING) {
+      throw new ParameterException(
+          spec.commandLine(), "--on-change can't compare string values; use a numeric --type");
+    }
+  }
+
+  /**
+   * Encodes a write command's values, given inline or in a value file as for {@link
+   * ChunkedWriter#valueText}, into register data.
+   *
+   * <p>Numeric values are split by {@link ChunkedWriter#valueStrings}. A string is the whole value
+   * text, with surrounding whitespace removed, and is padded with NULs to {@code quantity}
+   * registers if shorter.
+   *
+   * @param codec the codec to encode the values with.
+   * @param values the inline values, or {@code null}.
+   * @param file the value file, {@code -} for standard input, or {@code null}.
+   * @param quantity the number of registers the values must encode to, or {@code null} to accept
+   *     any number.
+   * @param stdin the standard input to read when {@code file} is {@code -}.
+   * @return the register data, 2 bytes per register in the order they are sent.
+   * @throws IllegalArgumentException if the values can't be encoded, or don't encode to {@code
+   *     quantity} registers.
+   */
+  static byte[] encode(
+      RegisterCodec codec,
+      @Nullable String values,
+      @Nullable String file,
+      @Nullable Integer quantity,
+      InputStream stdin) {
+
+    byte[] registers;
+    if (codec.type() == DataType.STRING) {
+      String text = ChunkedWriter.valueText(values, file, stdin).strip();
+      registers = codec.encode(List.of(text));
+      if (quantity != null && registers.length < quantity * 2) {
+        registers = Arrays.copyOf(registers, quantity * 2);
+      }
+    } else {
+      registers = codec.encode(ChunkedWriter.valueStrings(values, file, null, stdin));
+    }
+
+    if (quantity != null && registers.length != quantity * 2) {
+      throw new IllegalArgumentException(
+          "%s values encode to %d registers, but quantity is %d"
+              .formatted(codec.type().cliName(), registers.length / 2, quantity));
+    }
+    return registers;
+  }
+}
@@ -0,0 +1,232 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.digitalpetri.modbus.client.ModbusRtuClient;
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.exceptions.ModbusResponseException;
+import com.digitalpetri.modbus.exceptions.ModbusTimeoutException;
+import com.kevinherron.modbus.cli.client.ClientCommand.ConnectionTask;
+import com.kevinherron.modbus.cli.output.OutputContext;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import org.jspecify.annotations.Nullable;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * Discovers which unit IDs respond on an endpoint, e.g. the devices behind a TCP gateway or on an
+ * RS-485 bus.
+ *
+ * <p>Each unit ID in {@code --from}..{@code --to} is sent a probe request, a read of {@code
+ * --probe-quantity} values at {@code --probe-address} from {@code --probe-table}. A unit is
+ * reported as present if it answers, including with an exception response: a device that rejects
+ * the probe address still exists. Timeouts, and the gateway exception responses a gateway returns
+ * on behalf of a missing device, mean no device answered.
+ *
+ * <p>Probes use {@code --probe-timeout} instead of {@code --timeout}, so an absent unit costs a
+ * fraction of a second rather than the full request timeout. On TCP the unit IDs are spread
+ * round-robin across {@code --connections} connections probed concurrently, and within each
+ * connection up to {@code --pipeline} probes are in flight at once, so a full sweep of 247 units
+ * finishes in seconds. RTU endpoints probe one unit at a time on the single serial connection.
+ *
+ * <p>This command is invoked using {@code discover} (e.g., {@code modbus client gateway discover}).
+ */
+@Command(name = "discover", description = "discover which unit IDs respond")
+public class DiscoverCommand implements Runnable {
+
+  /** Exception code returned by a gateway that has no path to the target unit. */
+  static final int GATEWAY_PATH_UNAVAILABLE = 0x0A;
+
+  /** Exception code returned by a gateway whose target unit failed to respond. */
+  static final int GATEWAY_TARGET_FAILED_TO_RESPOND = 0x0B;
+
+  /** First unit ID to probe (inclusive). */
+  @Option(
+      names = "--from",
+      description = "first unit ID to probe, inclusive (default: 1)")
+  int from = 1;
+
+  /** Last unit ID to probe (inclusive). */
+  @Option(
+      names = "--to",
+      description = "last unit ID to probe, inclusive (default: 247)")
+  int to = 247;
+
+  /** The table the probe request reads from, by {@link ModbusTable#cliName() name}. */
+  @Option(
+      names = "--probe-table",
+      description = "table the probe reads: coils, discrete, holding, input (default: holding)")
+  String probeTable = ModbusTable.HOLDING_REGISTERS.cliName();
+
+  /** Address the probe request reads. */
+  @Option(
+      names = "--probe-address",
+      description = "address the probe reads (default: 0)")
+  int probeAddress = 0;
+
+  /** Number of values the probe request reads. */
+  @Option(
+      names = "--probe-quantity",
+      description = "number of registers or bits the probe reads (default: 1)")
+  int probeQuantity = 1;
+
+  /** Per-probe timeout, in milliseconds; replaces {@code --timeout} for this command. */
+  @Option(
+      names = "--probe-timeout",
+      description = "timeout in milliseconds for each probe (default: 250ms)")
+  int probeTimeout = 250;
+
+  /** Number of TCP connections to probe concurrently; RTU endpoints always use one. */
+  @Option(
+      names = "--connections",
+      description = "number of TCP connections to probe concurrently on (default: 8)")
+  int connections = 8;
+
+  @ParentCommand ClientCommand clientCommand;
+
+  @Override
+  public void run() {
+    // Every connection this command opens, including the primary, uses the probe timeout
+    clientCommand.runWithClient(
+        (ModbusClient client, int _, OutputContext output) -> {
+          if (from < 0 || to > 255 || from > to) {
+            throw new IllegalArgumentException(
+                "invalid unit ID range %d-%d (unit IDs are 0-255)".formatted(from, to));
+          }
+
+          ModbusTable table = ModbusTable.fromCliName(probeTable);
+
+          int unitCount = to - from + 1;
+          int connectionCount = Math.min(Math.max(1, connections), unitCount);
+          if (client instanceof ModbusRtuClient) {
+            connectionCount = 1;
+          }
+
+          // Spread unit IDs round-robin so each connection gets a similar mix of units
+          var unitsByConnection = new ArrayList<List<Integer>>();
+          for (int i = 0; i < connectionCount; i++) {
+            unitsByConnection.add(new ArrayList<>());
+          }
+          for (int unitId = from; unitId <= to; unitId++) {
+            unitsByConnection.get((unitId - from) % connectionCount).add(unitId);
+          }
+
+          List<ConnectionTask<List<DiscoveredUnit>>> tasks =
+              unitsByConnection.stream()
+                  .<ConnectionTask<List<DiscoveredUnit>>>map(
+                      units -> c -> probeUnits(c, table, units))
+                  .toList();
+
+          long started = System.nanoTime();
+          List<List<DiscoveredUnit>> results =
+              clientCommand.runOnConnections(client, tasks, probeTimeout);
+          Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+          List<DiscoveredUnit> discovered =
+              results.stream()
+                  .flatMap(List::stream)
+                  .sorted(Comparator.comparingInt(DiscoveredUnit::unitId))
+                  .toList();
+
+          output.info(
+              "Probed %d unit IDs in %d ms; %d responded",
+              unitCount, elapsed.toMillis(), discovered.size());
+
+          if (discovered.isEmpty()) {
+            output.warning("No units responded");
+          }
+          output.discovery().units(discovered).render();
+        },
+        probeTimeout);
+  }
+
+  /**
+   * Probes each unit ID on a single connection, pipelining probes per {@code --pipeline}.
+   *
+   * @param client the connected client.
+   * @param table the table the probe reads.
+   * @param unitIds the unit IDs to probe.
+   * @return the units that responded, in probe order.
+   * @throws ModbusException if a probe fails for a reason other than the unit not answering, e.g.
+   *     a lost connection.
+   */
+  private List<DiscoveredUnit> probeUnits(
+      ModbusClient client, ModbusTable table, List<Integer> unitIds) throws ModbusException {
+
+    var discovered = new ArrayList<DiscoveredUnit>();
+    RequestPipeline<Probe> pipeline = clientCommand.createPipeline(client);
+
+    for (int unitId : unitIds) {
+      pipeline.submit(
+          unitId,
+          () -> probe(client, table, unitId),
+          probe -> {
+            ModbusException failure = probe.failure();
+            if (failure == null) {
+              discovered.add(new DiscoveredUnit(unitId, probe.latency(), null));
+            } else if (failure instanceof ModbusResponseException e && !isGatewayFailure(e)) {
+              discovered.add(new DiscoveredUnit(unitId, probe.latency(), e.getMessage()));
+            } else if (!(failure instanceof ModbusTimeoutException)
+                && !(failure instanceof ModbusResponseException)) {
+              throw failure;
+            }
+          });
+    }
+
+    pipeline.drain();
+
+    return discovered;
+  }
+
+  /**
+   * Sends the probe request to one unit, timing the round trip whether or not it succeeds.
+   *
+   * @param client the connected client.
+   * @param table the table the probe reads.
+   * @param unitId the unit ID to probe.
+   * @return a stage that always completes normally with the outcome of the probe.
+   */
+  private CompletionStage<Probe> probe(ModbusClient client, ModbusTable table, int unitId) {
+    long sent = System.nanoTime();
+
+    return table
+        .readAsync(client, unitId, probeAddress, probeQuantity)
+        .handle(
+            (_, ex) ->
+                new Probe(
+                    Duration.ofNanos(System.nanoTime() - sent),
+                    ex == null ? null : RequestPipeline.unwrap(ex)));
+  }
+
+  /**
+   * Whether an exception response came from a gateway reporting that the unit is absent, rather
+   * than from the unit itself.
+   */
+  private static boolean isGatewayFailure(ModbusResponseException e) {
+    int exceptionCode = e.getExceptionCode();
+    return exceptionCode == GATEWAY_PATH_UNAVAILABLE
+        || exceptionCode == GATEWAY_TARGET_FAILED_TO_RESPOND;
+  }
+
+  /**
+   * The outcome of a single probe.
+   *
+   * @param latency the time from sending the probe to its response or failure.
+   * @param failure the exception the probe failed with, or {@code null} if it succeeded.
+   */
+  private record Probe(Duration latency, @Nullable ModbusException failure) {}
+
+  /**
+   * A unit that answered a probe.
+   *
+   * @param unitId the unit ID.
+   * @param latency the round-trip time of the probe.
+   * @param exception the exception response the unit answered with, or {@code null} if it answered
+   *     the probe normally.
+   */
+  public record DiscoveredUnit(int unitId, Duration latency, @Nullable String exception) {}
+}
@@ -3,6 +3,7 @@ package com.kevinherron.modbus.cli.client;
 import com.digitalpetri.modbus.client.ModbusClient;
 import com.digitalpetri.modbus.pdu.MaskWriteRegisterRequest;
 import com.digitalpetri.modbus.pdu.MaskWriteRegisterResponse;
+import com.kevinherron.modbus.cli.client.RequestLimiter.Lane;
 import com.kevinherron.modbus.cli.output.Direction;
 import com.kevinherron.modbus.cli.output.OutputContext;
 import com.kevinherron.modbus.cli.util.ValueParser;
@@ -73,7 +74,9 @@ class MaskWriteRegisterCommand implements Runnable {
 
           output.protocol(request, Direction.SENT, null);
 
-          MaskWriteRegisterResponse response = client.maskWriteRegister(unitId, request);
+          MaskWriteRegisterResponse response =
+              RequestLimiter.of(client)
+                  .run(unitId, Lane.FOREGROUND, () -> client.maskWriteRegister(unitId, request));
           Instant responseTime = Instant.now();
 
           output.protocol(response, Direction.RECEIVED, responseTime);
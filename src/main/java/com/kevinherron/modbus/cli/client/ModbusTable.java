@@ -0,0 +1,257 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.pdu.ReadCoilsRequest;
+import com.digitalpetri.modbus.pdu.ReadCoilsResponse;
+import com.digitalpetri.modbus.pdu.ReadDiscreteInputsRequest;
+import com.digitalpetri.modbus.pdu.ReadDiscreteInputsResponse;
+import com.digitalpetri.modbus.pdu.ReadHoldingRegistersRequest;
+import com.digitalpetri.modbus.pdu.ReadHoldingRegistersResponse;
+import com.digitalpetri.modbus.pdu.ReadInputRegistersRequest;
+import com.digitalpetri.modbus.pdu.ReadInputRegistersResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * The four Modbus data tables, with the read function and protocol limits for each.
+ *
+ * <p>Reads through this enum return the raw data bytes of the response: 2 bytes per register
+ * (big-endian) for register tables, or bits packed LSB-first for bit tables, exactly as returned by
+ * the corresponding response's {@code registers()}, {@code coils()} or {@code inputs()}.
+ */
+public enum ModbusTable {
+
+  /** Coils, read with function code 01. */
+  COILS("coils", 2000),
+
+  /** Discrete inputs, read with function code 02. */
+  DISCRETE_INPUTS("discrete", 2000),
+
+  /** Holding registers, read with function code 03. */
+  HOLDING_REGISTERS("holding", 125),
+
+  /** Input registers, read with function code 04. */
+  INPUT_REGISTERS("input", 125);
+
+  private final String cliName;
+  private final int maxReadQuantity;
+
+  ModbusTable(String cliName, int maxReadQuantity) {
+    this.cliName = cliName;
+    this.maxReadQuantity = maxReadQuantity;
+  }
+
+  /**
+   * Returns the name used for this table on the command line and in JSON output.
+   *
+   * @return the table name, e.g. {@code "holding"}.
+   */
+  public String cliName() {
+    return cliName;
+  }
+
+  /**
+   * Returns the largest quantity a single read request may ask for.
+   *
+   * @return 2000 for bit tables, 125 for register tables.
+   */
+  public int maxReadQuantity() {
+    return maxReadQuantity;
+  }
+
+  /**
+   * Returns whether this table holds single-bit values (coils and discrete inputs).
+   *
+   * @return {@code true} for bit tables, {@code false} for register tables.
+   */
+  public boolean isBit() {
+    return this == COILS || this == DISCRETE_INPUTS;
+  }
+
+  /**
+   * Returns the number of response data bytes holding {@code quantity} values from this table.
+   *
+   * @param quantity the number of bits or registers.
+   * @return the number of data bytes.
+   */
+  public int byteCount(int quantity) {
+    return isBit() ? (quantity + 7) / 8 : quantity * 2;
+  }
+
+  /**
+   * Splits raw response data bytes into one value per address.
+   *
+   * <p>Never trusts the device to have returned as much data as was asked for: if {@code data} is
+   * short, fewer than {@code quantity} values are returned.
+   *
+   * @param data the raw response data bytes, as returned by {@link #read}.
+   * @param quantity the number of bits or registers that were read.
+   * @return a 2-byte register value, or a 1-byte value of 0 or 1 for bit tables, per address.
+   */
+  public List<byte[]> values(byte[] data, int quantity) {
+    int count = Math.min(quantity, isBit() ? data.length * 8 : data.length / 2);
+
+    var values = new ArrayList<byte[]>(count);
+    for (int i = 0; i < count; i++) {
+      if (isBit()) {
+        values.add(new byte[] {(byte) ((data[i / 8] >> (i % 8)) & 1)});
+      } else {
+        values.add(new byte[] {data[i * 2], data[i * 2 + 1]});
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Extracts the data for {@code quantity} values starting {@code offset} values into {@code
+   * data}, in the same layout as {@link #read} would have returned had they been read alone.
+   *
+   * <p>Bits are re-packed LSB-first from the first extracted value. If {@code data} is short, the
+   * result holds only the values that are present.
+   *
+   * @param data the raw response data bytes of a larger read.
+   * @param offset the number of values between the start of {@code data} and the first value to
+   *     extract.
+   * @param quantity the number of bits or registers to extract.
+   * @return the raw data bytes for the extracted values.
+   */
+  public byte[] slice(byte[] data, int offset, int quantity) {
+    if (!isBit()) {
+      int end = Math.min(data.length, (offset + quantity) * 2);
+      int start = Math.min(offset * 2, end);
+      return Arrays.copyOfRange(data, start, end);
+    }
+
+    int count = Math.max(0, Math.min(quantity, data.length * 8 - offset));
+    var bits = new byte[byteCount(count)];
+    for (int i = 0; i < count; i++) {
+      int bit = offset + i;
+      if (((data[bit / 8] >> (bit % 8)) & 1) != 0) {
+        bits[i / 8] |= (byte) (1 << (i % 8));
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Reads {@code quantity} values starting at {@code address}, once the client's {@link
+   * RequestLimiter} allows another request in flight.
+   *
+   * @param client the connected client.
+   * @param unitId the target unit identifier.
+   * @param address the starting address.
+   * @param quantity the number of bits or registers to read.
+   * @return the raw response data bytes.
+   * @throws ModbusException if the read fails.
+   */
+  public byte[] read(ModbusClient client, int unitId, int address, int quantity)
+      throws ModbusException {
+
+    return read(client, unitId, address, quantity, RequestLimiter.Lane.FOREGROUND);
+  }
+
+  /**
+   * Reads {@code quantity} values starting at {@code address}, once the client's {@link
+   * RequestLimiter} allows another request in flight.
+   *
+   * @param client the connected client.
+   * @param unitId the target unit identifier.
+   * @param address the starting address.
+   * @param quantity the number of bits or registers to read.
+   * @param lane the lane the read waits in, e.g. {@link RequestLimiter.Lane#BACKGROUND} for
+   *     periodic polling.
+   * @return the raw response data bytes.
+   * @throws ModbusException if the read fails.
+   */
+  byte[] read(
+      ModbusClient client, int unitId, int address, int quantity, RequestLimiter.Lane lane)
+      throws ModbusException {
+
+    return RequestLimiter.of(client)
+        .run(
+            unitId,
+            lane,
+            () ->
+                switch (this) {
+                  case COILS ->
+                      client.readCoils(unitId, new ReadCoilsRequest(address, quantity)).coils();
+                  case DISCRETE_INPUTS ->
+                      client
+                          .readDiscreteInputs(
+                              unitId, new ReadDiscreteInputsRequest(address, quantity))
+                          .inputs();
+                  case HOLDING_REGISTERS ->
+                      client
+                          .readHoldingRegisters(
+                              unitId, new ReadHoldingRegistersRequest(address, quantity))
+                          .registers();
+                  case INPUT_REGISTERS ->
+                      client
+                          .readInputRegisters(
+                              unitId, new ReadInputRegistersRequest(address, quantity))
+                          .registers();
+                });
+  }
+
+  /**
+   * Reads {@code quantity} values starting at {@code address} without blocking. Unlike {@link
+   * #read}, this doesn't wait for the client's {@link RequestLimiter}; a {@link RequestPipeline}
+   * does that before issuing the request.
+   *
+   * @param client the connected client.
+   * @param unitId the target unit identifier.
+   * @param address the starting address.
+   * @param quantity the number of bits or registers to read.
+   * @return a stage completing with the raw response data bytes.
+   */
+  public CompletionStage<byte[]> readAsync(
+      ModbusClient client, int unitId, int address, int quantity) {
+
+    return switch (this) {
+      case COILS ->
+          client
+              .readCoilsAsync(unitId, new ReadCoilsRequest(address, quantity))
+              .thenApply(ReadCoilsResponse::coils);
+      case DISCRETE_INPUTS ->
+          client
+              .readDiscreteInputsAsync(unitId, new ReadDiscreteInputsRequest(address, quantity))
+              .thenApply(ReadDiscreteInputsResponse::inputs);
+      case HOLDING_REGISTERS ->
+          client
+              .readHoldingRegistersAsync(unitId, new ReadHoldingRegistersRequest(address, quantity))
+              .thenApply(ReadHoldingRegistersResponse::registers);
+      case INPUT_REGISTERS ->
+          client
+              .readInputRegistersAsync(unitId, new ReadInputRegistersRequest(address, quantity))
+              .thenApply(ReadInputRegistersResponse::registers);
+    };
+  }
+
+  /**
+   * Looks up a table by its {@link #cliName() command-line name}.
+   *
+   * @param name the table name, case-insensitive.
+   * @return the matching table.
+   * @throws IllegalArgumentException if no table has that name.
+   */
+  public static ModbusTable fromCliName(String name) {
+    String normalized = name.trim().toLowerCase(Locale.ROOT);
+    for (ModbusTable table : values()) {
+      if (table.cliName.equals(normalized)) {
+        return table;
+      }
+    }
+    throw new IllegalArgumentException(
+        "unknown table '%s' (expected %s)"
+            .formatted(
+                name,
+                Arrays.stream(values())
+                    .map(ModbusTable::cliName)
+                    .collect(Collectors.joining(", "))));
+  }
+}
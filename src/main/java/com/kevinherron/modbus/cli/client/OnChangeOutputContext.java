@@ -0,0 +1,231 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.pdu.ModbusPdu;
+import com.kevinherron.modbus.cli.client.ChangeDetector.ValueChange;
+import com.kevinherron.modbus.cli.output.Direction;
+import com.kevinherron.modbus.cli.output.OutputContext;
+import com.kevinherron.modbus.cli.util.RegisterCodec;
+import java.time.Instant;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Wraps the output of a polling loop so that register and coil tables are reported by exception
+ * ({@code --on-change}).
+ *
+ * <p>The first table rendered is output in full, as the baseline. After that, each table is
+ * compared against the values last reported by a {@link ChangeDetector}, and only the changed
+ * registers or coils are output, or nothing if none changed. Protocol messages, which would
+ * otherwise still be output on every poll, are only output in verbose mode. Everything else is
+ * passed through unchanged.
+ *
+ * <p>Registers decoded with {@code --type} are compared, and their changes output, as decoded
+ * values, one per value at the address of its first register.
+ */
+final class OnChangeOutputContext implements OutputContext {
+
+  private final OutputContext output;
+  private final ChangeDetector detector;
+  private final boolean showProtocol;
+
+  /**
+   * Creates a filtering output context.
+   *
+   * @param output the output context to write to.
+   * @param deadband the largest change in a register's or decoded value that isn't reported.
+   * @param showProtocol whether protocol messages are passed through.
+   */
+  OnChangeOutputContext(OutputContext output, double deadband, boolean showProtocol) {
+    this.output = output;
+    this.detector = new ChangeDetector(deadband);
+    this.showProtocol = showProtocol;
+  }
+
+  @Override
+  public void setIteration(Integer iteration) {
+    output.setIteration(iteration);
+  }
+
+  @Override
+  public void flush() {
+    output.flush();
+  }
+
+  @Override
+  public void protocol(ModbusPdu pdu, Direction direction, @Nullable Instant timestamp) {
+    if (showProtocol) {
+      output.protocol(pdu, direction, timestamp);
+    }
+  }
+
+  @Override
+  public void info(String format, Object... args) {
+    output.info(format, args);
+  }
+
+  @Override
+  public void success(String format, Object... args) {
+    output.success(format, args);
+  }
+
+  @Override
+  public void warning(String format, Object... args) {
+    output.warning(format, args);
+  }
+
+  @Override
+  public void error(String format, Object... args) {
+    output.error(format, args);
+  }
+
+  @Override
+  public RegisterTableBuilder registerTable() {
+    return new RegisterTableFilter();
+  }
+
+  @Override
+  public CoilTableBuilder coilTable() {
+    return new CoilTableFilter();
+  }
+
+  @Override
+  public ChangesBuilder registerChanges() {
+    return output.registerChanges();
+  }
+
+  @Override
+  public ChangesBuilder coilChanges() {
+    return output.coilChanges();
+  }
+
+  @Override
+  public ScanResultsBuilder scanResults() {
+    return output.scanResults();
+  }
+
+  @Override
+  public ScanWindowBuilder scanWindow() {
+    return output.scanWindow();
+  }
+
+  @Override
+  public ScanFailureBuilder scanFailure() {
+    return output.scanFailure();
+  }
+
+  @Override
+  public DiscoveryBuilder discovery() {
+    return output.discovery();
+  }
+
+  @Override
+  public SweepBuilder sweep() {
+    return output.sweep();
+  }
+
+  @Override
+  public PollSampleBuilder pollSample() {
+    return output.pollSample();
+  }
+
+  private class RegisterTableFilter implements RegisterTableBuilder {
+    private byte[] registers;
+    private int startAddress;
+    private @Nullable RegisterCodec codec;
+    private @Nullable Instant timestamp;
+
+    @Override
+    public RegisterTableBuilder data(byte[] registers) {
+      this.registers = registers;
+      return this;
+    }
+
+    @Override
+    public RegisterTableBuilder startAddress(int address) {
+      this.startAddress = address;
+      return this;
+    }
+
+    @Override
+    public RegisterTableBuilder codec(@Nullable RegisterCodec codec) {
+      this.codec = codec;
+      return this;
+    }
+
+    @Override
+    public RegisterTableBuilder timestamp(@Nullable Instant timestamp) {
+      this.timestamp = timestamp;
+      return this;
+    }
+
+    @Override
+    public void render() {
+      boolean baseline = detector.isEmpty();
+      List<ValueChange> changes =
+          codec != null
+              ? detector.values(startAddress, codec.decode(registers), codec.type().registers())
+              : detector.registers(startAddress, registers);
+
+      if (baseline) {
+        output
+            .registerTable()
+            .data(registers)
+            .startAddress(startAddress)
+            .codec(codec)
+            .timestamp(timestamp)
+            .render();
+      } else if (!changes.isEmpty()) {
+        output.registerChanges().changes(changes).codec(codec).timestamp(timestamp).render();
+      }
+    }
+  }
+
+  private class CoilTableFilter implements CoilTableBuilder {
+    private byte[] coilBytes;
+    private int startAddress;
+    private int quantity;
+    private @Nullable Instant timestamp;
+
+    @Override
+    public CoilTableBuilder data(byte[] coilBytes) {
+      this.coilBytes = coilBytes;
+      return this;
+    }
+
+    @Override
+    public CoilTableBuilder startAddress(int address) {
+      this.startAddress = address;
+      return this;
+    }
+
+    @Override
+    public CoilTableBuilder quantity(int quantity) {
+      this.quantity = quantity;
+      return this;
+    }
+
+    @Override
+    public CoilTableBuilder timestamp(@Nullable Instant timestamp) {
+      this.timestamp = timestamp;
+      return this;
+    }
+
+    @Override
+    public void render() {
+      boolean baseline = detector.isEmpty();
+      List<ValueChange> changes = detector.bits(startAddress, coilBytes, quantity);
+
+      if (baseline) {
+        output
+            .coilTable()
+            .data(coilBytes)
+            .startAddress(startAddress)
+            .quantity(quantity)
+            .timestamp(timestamp)
+            .render();
+      } else if (!changes.isEmpty()) {
+        output.coilChanges().changes(changes).timestamp(timestamp).render();
+      }
+    }
+  }
+}
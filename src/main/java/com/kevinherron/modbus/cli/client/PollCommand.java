@@ -0,0 +1,340 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.digitalpetri.modbus.client.ModbusRtuClient;
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.exceptions.ModbusExecutionException;
+import com.digitalpetri.modbus.exceptions.ModbusResponseException;
+import com.kevinherron.modbus.cli.client.ReadPlanner.ReadBlock;
+import com.kevinherron.modbus.cli.output.OutputContext;
+import com.kevinherron.modbus.cli.util.EndpointParser.Endpoint;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * Polls a list of tags, blocks of values on any number of endpoints, units and tables, each at its
+ * own rate, in a single process.
+ *
+ * <p>The tags are read from a CSV file described by {@link TagListParser}. Tags without an endpoint
+ * are polled on the command's own endpoint. Each distinct endpoint gets one shared connection, and
+ * the tags on it are polled in groups by interval, each group on its own virtual thread and {@link
+ * PollScheduler}. Up to {@code --pipeline} reads are in flight at once on a TCP connection; reads
+ * on an RTU connection are always made one at a time. Polling reads wait in the background lane of
+ * the endpoint's {@link RequestLimiter}, so writes sharing the endpoint go ahead of them.
+ *
+ * <p>Within a group, the reads for tags on the same unit and table are coalesced by {@link
+ * ReadPlanner} into as few requests as the protocol allows, bridging gaps of up to {@code
+ * --max-gap} unused addresses, and each response is sliced back into the individual tags. If the
+ * device rejects a coalesced read, e.g. because a gap contains an address it doesn't implement, the
+ * block's tags are read separately from then on.
+ *
+ * <p>A failed read is reported as an error and polling continues; an endpoint that can't be
+ * connected to is reported and its tags are skipped.
+ *
+ * <p>This command is invoked using {@code poll} (e.g., {@code modbus client plc1 poll tags.csv}).
+ */
+@Command(name = "poll", description = "poll the tags listed in a CSV file")
+public class PollCommand implements Runnable {
+
+  /** The tag list file. */
+  @Parameters(index = "0", paramLabel = "TAGS", description = "CSV tag list file")
+  Path tagFile;
+
+  /**
+   * Number of times to poll each tag. A value of 0 means indefinite polling until interrupted.
+   */
+  @Option(
+      names = {"-c", "--count"},
+      description = "number of times to poll each tag (default: 0 = indefinite)")
+  int count = 0;
+
+  /** Polling interval for tags that don't specify one, in milliseconds. */
+  @Option(
+      names = {"-i", "--interval"},
+      description = "interval in milliseconds for tags that don't specify one (default: 1000)")
+  int interval = 1000;
+
+  /**
+   * Largest number of unused addresses allowed between two tags coalesced into one read request.
+   */
+  @Option(
+      names = "--max-gap",
+      description =
+          "largest number of unused addresses between tags coalesced into one read (default: 0,"
+              + " only adjacent or overlapping tags)")
+  int maxGap = 0;
+
+  @ParentCommand ClientCommand clientCommand;
+
+  @Override
+  public void run() {
+    OutputContext output = clientCommand.parent.createOutputContext();
+
+    try {
+      List<Tag> tags =
+          TagListParser.read(
+              tagFile,
+              clientCommand.resolveEndpoint(),
+              clientCommand.unitId,
+              Duration.ofMillis(interval));
+
+      if (tags.isEmpty()) {
+        throw new IllegalArgumentException("tag list %s contains no tags".formatted(tagFile));
+      }
+
+      Map<Endpoint, List<Tag>> tagsByEndpoint =
+          tags.stream()
+              .collect(
+                  Collectors.groupingBy(Tag::endpoint, LinkedHashMap::new, Collectors.toList()));
+
+      output.info("Polling %d tag(s) on %d endpoint(s)", tags.size(), tagsByEndpoint.size());
+
+      poll(tagsByEndpoint, output);
+    } catch (Exception e) {
+      clientCommand.handleException(e, output);
+    }
+  }
+
+  /**
+   * Polls every endpoint concurrently, each on its own virtual thread in one {@link TaskScope}, so
+   * an unexpected failure on any endpoint stops polling on all of them.
+   *
+   * @param tagsByEndpoint the tags to poll, grouped by endpoint.
+   * @param output the output context.
+   * @throws ModbusException if interrupted, or if no endpoint could be connected to.
+   */
+  private void poll(Map<Endpoint, List<Tag>> tagsByEndpoint, OutputContext output)
+      throws ModbusException {
+
+    try (var scope = new TaskScope<Boolean>("modbus-poll")) {
+      tagsByEndpoint.forEach(
+          (endpoint, tags) -> scope.fork(() -> pollEndpoint(endpoint, tags, output)));
+
+      long connected = scope.join().stream().filter(Boolean::booleanValue).count();
+      if (connected == 0) {
+        throw new ModbusExecutionException("no endpoint could be connected to");
+      }
+    }
+  }
+
+  /**
+   * Connects to one endpoint and polls its tags, one interval group per virtual thread, until every
+   * group has finished.
+   *
+   * @param endpoint the endpoint.
+   * @param tags the tags on that endpoint.
+   * @param output the output context.
+   * @return {@code true} if the endpoint was connected to and polled, {@code false} if the
+   *     connection failed.
+   * @throws ModbusException if interrupted, or if polling a group fails unexpectedly.
+   */
+  private boolean pollEndpoint(Endpoint endpoint, List<Tag> tags, OutputContext output)
+      throws ModbusException {
+
+    ConnectionPool.Lease lease;
+    try {
+      lease = clientCommand.connect(endpoint);
+    } catch (ModbusExecutionException e) {
+      output.error(
+          "%s: connect failed, skipping %d tag(s): %s",
+          endpointName(endpoint),
+          tags.size(),
+          message(e));
+      return false;
+    }
+    ModbusClient client = lease.client();
+
+    // Interval groups share the connection, bounded like any other pipelined requests
+    int depth = client instanceof ModbusRtuClient ? 1 : Math.max(1, clientCommand.pipeline);
+    var permits = new Semaphore(depth, true);
+
+    Map<Duration, List<Tag>> tagsByInterval =
+        tags.stream()
+            .collect(
+                Collectors.groupingBy(Tag::interval, LinkedHashMap::new, Collectors.toList()));
+
+    try (var scope = new TaskScope<Void>("modbus-poll-" + endpointName(endpoint))) {
+      tagsByInterval.forEach(
+          (groupInterval, group) ->
+              scope.fork(
+                  () -> {
+                    pollGroup(client, permits, groupInterval, group, output);
+                    return null;
+                  }));
+
+      scope.join();
+    } finally {
+      lease.close();
+    }
+
+    return true;
+  }
+
+  /**
+   * Polls a group of tags sharing an interval on a fixed-rate schedule.
+   *
+   * @param client the connected client.
+   * @param permits bounds the reads in flight on the client.
+   * @param groupInterval the polling interval shared by the group.
+   * @param tags the tags in the group.
+   * @param output the output context.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  private void pollGroup(
+      ModbusClient client,
+      Semaphore permits,
+      Duration groupInterval,
+      List<Tag> tags,
+      OutputContext output)
+      throws InterruptedException {
+
+    var scheduler = new PollScheduler(groupInterval, clientCommand.overrun);
+
+    var blocks = new ArrayList<>(ReadPlanner.plan(tags, maxGap));
+    if (blocks.size() < tags.size()) {
+      output.info(
+          "%d tag(s) polled every %d ms on %s coalesced into %d read(s)",
+          tags.size(), groupInterval.toMillis(), tags.getFirst().endpointName(), blocks.size());
+    }
+
+    for (int iteration = 1; count == 0 || iteration <= count; iteration++) {
+      for (int i = 0; i < blocks.size(); i++) {
+        ReadBlock block = blocks.get(i);
+
+        permits.acquire();
+        try {
+          byte[] data =
+              block
+                  .table()
+                  .read(
+                      client,
+                      block.unitId(),
+                      block.address(),
+                      block.quantity(),
+                      RequestLimiter.Lane.BACKGROUND);
+          Instant timestamp = Instant.now();
+
+          for (Tag tag : block.tags()) {
+            output
+                .pollSample()
+                .sample(new PollSample(tag, block.slice(data, tag)))
+                .timestamp(timestamp)
+                .render();
+          }
+        } catch (ModbusResponseException e) {
+          if (block.tags().size() > 1) {
+            // The device rejected an address between the tags; stop coalescing them
+            output.warning(
+                "%s: coalesced read of %s %04X-%04X failed (%s), reading its %d tags separately",
+                tags.getFirst().endpointName(),
+                block.table().cliName(),
+                block.address(),
+                block.address() + block.quantity() - 1,
+                message(e),
+                block.tags().size());
+
+            blocks.remove(i);
+            blocks.addAll(i, block.split());
+            i--;
+          } else {
+            output.error("%s: %s", block.tags().getFirst().name(), message(e));
+          }
+        } catch (ModbusException e) {
+          for (Tag tag : block.tags()) {
+            output.error("%s: %s", tag.name(), message(e));
+          }
+        } finally {
+          permits.release();
+        }
+      }
+
+      // Wait for the next deadline, but not after the last iteration
+      if (count == 0 || iteration < count) {
+        output.flush();
+        long missed = scheduler.awaitNext();
+        if (missed > 0) {
+          output.warning(
+              "%d tag(s) polled every %d ms on %s missed %d deadline(s) (%s)",
+              tags.size(),
+              groupInterval.toMillis(),
+              tags.getFirst().endpointName(),
+              missed,
+              clientCommand.overrun.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+        }
+      }
+    }
+  }
+
+  private static String endpointName(Endpoint endpoint) {
+    return switch (endpoint) {
+      case Endpoint.Tcp tcp -> tcp.hostname() + ":" + tcp.port();
+      case Endpoint.Rtu rtu -> rtu.serialPort();
+    };
+  }
+
+  private static String message(Exception e) {
+    return Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName());
+  }
+
+  /**
+   * A named block of values to poll.
+   *
+   * @param name the tag name, unique within the tag list.
+   * @param endpoint the endpoint the tag is polled on.
+   * @param unitId the unit ID.
+   * @param table the table the values are read from.
+   * @param address the starting address.
+   * @param quantity the number of bits or registers.
+   * @param interval the polling interval.
+   */
+  public record Tag(
+      String name,
+      Endpoint endpoint,
+      int unitId,
+      ModbusTable table,
+      int address,
+      int quantity,
+      Duration interval) {
+
+    /**
+     * Returns the endpoint as shown in output, e.g. {@code plc1:502} or {@code /dev/ttyUSB0}.
+     *
+     * @return the endpoint name.
+     */
+    public String endpointName() {
+      return PollCommand.endpointName(endpoint);
+    }
+  }
+
+  /**
+   * The values read for a tag in one polling iteration.
+   *
+   * @param tag the tag.
+   * @param data the raw data read: 2 bytes per register (big-endian) for register tables, or bits
+   *     packed LSB-first for bit tables.
+   */
+  public record PollSample(Tag tag, byte[] data) {
+
+    /**
+     * Splits the sample's data into one value per address, starting at the tag's address.
+     *
+     * @return a 2-byte register value, or a 1-byte value of 0 or 1 for bit tables, per address.
+     */
+    public List<byte[]> values() {
+      return tag.table().values(data, tag.quantity());
+    }
+  }
+}
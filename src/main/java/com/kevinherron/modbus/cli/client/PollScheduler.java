@@ -0,0 +1,158 @@
+package com.kevinherron.modbus.cli.client;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+import picocli.CommandLine.ITypeConverter;
+
+/**
+ * Fixed-rate schedule for polling loops, anchored to absolute deadlines.
+ *
+ * <p>Deadline {@code k} is {@code origin + k * interval}, computed from {@link System#nanoTime()}
+ * when the scheduler is created. Waiting for the next deadline sleeps until that absolute time
+ * rather than for "interval minus elapsed", so time spent handling errors, sleep overshoot, and
+ * millisecond truncation never accumulate: a 100 ms poll stays on the same 100 ms grid for as long
+ * as it runs.
+ *
+ * <p>When an iteration runs past one or more deadlines, the {@link OverrunPolicy} decides what
+ * happens next, and the deadlines that weren't honored on time are counted so they can be reported.
+ *
+ * <p>This class is not thread-safe; it is intended to be driven from a single polling thread.
+ */
+final class PollScheduler {
+
+  private final long intervalNanos;
+  private final OverrunPolicy policy;
+  private final LongSupplier clock;
+  private final Sleeper sleeper;
+  private final long origin;
+
+  /** Index of the deadline the current iteration was scheduled for. */
+  private long slot = 0;
+
+  /** Highest deadline index already counted as missed, so catching up doesn't count it twice. */
+  private long countedThrough = 0;
+
+  private long missedDeadlines = 0;
+
+  /**
+   * Creates a new scheduler whose first deadline is now.
+   *
+   * @param interval the time between deadlines; zero or negative to run iterations back to back,
+   *     with no deadlines to miss.
+   * @param policy what to do when an iteration runs past the next deadline.
+   */
+  PollScheduler(Duration interval, OverrunPolicy policy) {
+    this(interval, policy, System::nanoTime, PollScheduler::sleepNanos);
+  }
+
+  PollScheduler(Duration interval, OverrunPolicy policy, LongSupplier clock, Sleeper sleeper) {
+    this.intervalNanos = Math.max(0, interval.toNanos());
+    this.policy = policy;
+    this.clock = clock;
+    this.sleeper = sleeper;
+    this.origin = clock.getAsLong();
+  }
+
+  /**
+   * Waits until the next iteration should start.
+   *
+   * <p>If the current iteration finished before the next deadline, this sleeps until that deadline.
+   * Otherwise the overrun policy applies:
+   *
+   * <ul>
+   *   <li>{@link OverrunPolicy#SKIP SKIP} drops every deadline that has already passed and sleeps
+   *       until the first one still in the future.
+   *   <li>{@link OverrunPolicy#CATCH_UP CATCH_UP} returns immediately, once per passed deadline,
+   *       until the schedule has caught up; every deadline gets an iteration, just late.
+   *   <li>{@link OverrunPolicy#COALESCE COALESCE} returns immediately, running a single iteration
+   *       for every deadline that has passed, then continues on the original grid.
+   * </ul>
+   *
+   * @return the number of deadlines newly missed since the last call, i.e. skipped, coalesced, or
+   *     run late; 0 if the iteration finished on time or the deadlines were already reported.
+   * @throws InterruptedException if interrupted while sleeping.
+   */
+  long awaitNext() throws InterruptedException {
+    if (intervalNanos == 0) {
+      return 0;
+    }
+
+    long now = clock.getAsLong();
+    long next = slot + 1;
+
+    if (now - deadline(next) <= 0) {
+      slot = next;
+      sleepUntil(deadline(slot));
+      return 0;
+    }
+
+    // Deadlines next..latest have all passed
+    long latest = (now - origin) / intervalNanos;
+    long missed = latest - Math.max(slot, countedThrough);
+    countedThrough = latest;
+    missedDeadlines += missed;
+
+    switch (policy) {
+      case SKIP -> {
+        slot = latest + 1;
+        sleepUntil(deadline(slot));
+      }
+      case CATCH_UP -> slot = next;
+      case COALESCE -> slot = latest;
+    }
+
+    return missed;
+  }
+
+  /**
+   * Returns the total number of deadlines missed since the scheduler was created.
+   *
+   * @return the number of missed deadlines.
+   */
+  long missedDeadlines() {
+    return missedDeadlines;
+  }
+
+  private long deadline(long index) {
+    return origin + index * intervalNanos;
+  }
+
+  private void sleepUntil(long deadline) throws InterruptedException {
+    long remaining;
+    while ((remaining = deadline - clock.getAsLong()) > 0) {
+      sleeper.sleep(remaining);
+    }
+  }
+
+  private static void sleepNanos(long nanos) throws InterruptedException {
+    Thread.sleep(Duration.ofNanos(nanos));
+  }
+
+  /** What a polling loop does when an iteration runs past the next deadline. */
+  enum OverrunPolicy {
+
+    /** Drop the missed deadlines and wait for the next one on the grid. */
+    SKIP,
+
+    /** Run one late iteration per missed deadline, back to back, until caught up. */
+    CATCH_UP,
+
+    /** Run one iteration immediately for all missed deadlines, then continue on the grid. */
+    COALESCE
+  }
+
+  /** Case-insensitive converter for {@link OverrunPolicy}, accepting e.g. {@code catch-up}. */
+  static final class OverrunPolicyConverter implements ITypeConverter<OverrunPolicy> {
+    @Override
+    public OverrunPolicy convert(String value) {
+      return OverrunPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+  }
+
+  /** Sleeps the polling thread; replaced in tests to drive a fake clock. */
+  interface Sleeper {
+
+    void sleep(long nanos) throws InterruptedException;
+  }
+}
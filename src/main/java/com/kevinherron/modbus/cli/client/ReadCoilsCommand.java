@@ -2,9 +2,6 @@ package com.kevinherron.modbus.cli.client;
 
 import com.digitalpetri.modbus.client.ModbusClient;
 import com.digitalpetri.modbus.exceptions.ModbusException;
-import com.digitalpetri.modbus.pdu.ReadCoilsRequest;
-import com.digitalpetri.modbus.pdu.ReadCoilsResponse;
-import com.kevinherron.modbus.cli.output.Direction;
 import com.kevinherron.modbus.cli.output.OutputContext;
 import java.time.Instant;
 import picocli.CommandLine.Command;
@@ -30,7 +27,10 @@ class ReadCoilsCommand implements Runnable {
   @Parameters(index = "0", description = "starting address")
   int address;
 
-  /** Number of coils to read, starting from the specified address. */
+  /**
+   * Number of coils to read, starting from the specified address. Quantities above the protocol
+   * maximum of 2000 are read in several requests and reassembled.
+   */
   @Parameters(index = "1", description = "quantity of coils")
   int quantity;
 
@@ -73,17 +73,18 @@ class ReadCoilsCommand implements Runnable {
   private void executeRead(ModbusClient client, int unitId, OutputContext output)
       throws ModbusException {
 
-    var request = new ReadCoilsRequest(address, quantity);
-
-    output.protocol(request, Direction.SENT, null);
-
-    ReadCoilsResponse response = client.readCoils(unitId, request);
+    // Reads beyond the protocol maximum are split into pipelined requests and reassembled
+    byte[] coils =
+        ChunkedReader.read(
+            client,
+            clientCommand.createPipeline(client),
+            ModbusTable.COILS,
+            unitId,
+            address,
+            quantity,
+            output);
     Instant responseTime = Instant.now();
 
-    output.protocol(response, Direction.RECEIVED, responseTime);
-
-    byte[] coils = response.coils();
-
     output
         .coilTable()
         .data(coils)
@@ -2,9 +2,6 @@ package com.kevinherron.modbus.cli.client;
 
 import com.digitalpetri.modbus.client.ModbusClient;
 import com.digitalpetri.modbus.exceptions.ModbusException;
-import com.digitalpetri.modbus.pdu.ReadDiscreteInputsRequest;
-import com.digitalpetri.modbus.pdu.ReadDiscreteInputsResponse;
-import com.kevinherron.modbus.cli.output.Direction;
 import com.kevinherron.modbus.cli.output.OutputContext;
 import java.time.Instant;
 import picocli.CommandLine.Command;
@@ -33,7 +30,10 @@ class ReadDiscreteInputsCommand implements Runnable {
   @Parameters(index = "0", description = "starting address")
   int address;
 
-  /** Number of discrete inputs to read, starting from the specified address. */
+  /**
+   * Number of discrete inputs to read, starting from the specified address. Quantities above the
+   * protocol maximum of 2000 are read in several requests and reassembled.
+   */
   @Parameters(index = "1", description = "quantity of discrete inputs")
   int quantity;
 
@@ -76,17 +76,18 @@ class ReadDiscreteInputsCommand implements Runnable {
   private void executeRead(ModbusClient client, int unitId, OutputContext output)
       throws ModbusException {
 
-    var request = new ReadDiscreteInputsRequest(address, quantity);
-
-    output.protocol(request, Direction.SENT, null);
-
-    ReadDiscreteInputsResponse response = client.readDiscreteInputs(unitId, request);
+    // Reads beyond the protocol maximum are split into pipelined requests and reassembled
+    byte[] discreteInputs =
+        ChunkedReader.read(
+            client,
+            clientCommand.createPipeline(client),
+            ModbusTable.DISCRETE_INPUTS,
+            unitId,
+            address,
+            quantity,
+            output);
     Instant responseTime = Instant.now();
 
-    output.protocol(response, Direction.RECEIVED, responseTime);
-
-    byte[] discreteInputs = response.inputs();
-
     output
         .coilTable()
         .data(discreteInputs)
@@ -2,12 +2,11 @@ package com.kevinherron.modbus.cli.client;
 
 import com.digitalpetri.modbus.client.ModbusClient;
 import com.digitalpetri.modbus.exceptions.ModbusException;
-import com.digitalpetri.modbus.pdu.ReadHoldingRegistersRequest;
-import com.digitalpetri.modbus.pdu.ReadHoldingRegistersResponse;
-import com.kevinherron.modbus.cli.output.Direction;
 import com.kevinherron.modbus.cli.output.OutputContext;
+import com.kevinherron.modbus.cli.util.RegisterCodec;
 import java.time.Instant;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 import picocli.CommandLine.ParentCommand;
@@ -31,7 +30,10 @@ class ReadHoldingRegistersCommand implements Runnable {
   @Parameters(index = "0", description = "starting address")
   int address;
 
-  /** Number of registers to read, starting from the specified address. */
+  /**
+   * Number of registers to read, starting from the specified address. Quantities above the protocol
+   * maximum of 125 are read in several requests and reassembled.
+   */
   @Parameters(index = "1", description = "quantity of registers")
   int quantity;
 
@@ -50,6 +52,9 @@ class ReadHoldingRegistersCommand implements Runnable {
       description = "interval between reads in milliseconds (default: 1000)")
   int interval = 1000;
 
+  /** How the registers are interpreted, e.g. {@code --type float32}. */
+  @Mixin DataTypeOptions dataTypeOptions;
+
   @ParentCommand ClientCommand clientCommand;
 
   @Override
@@ -59,6 +64,7 @@ class ReadHoldingRegistersCommand implements Runnable {
       clientCommand.runWithClient(this::executeRead);
     } else {
       // Polling mode
+      dataTypeOptions.checkOnChange(clientCommand.onChange);
       clientCommand.runWithClientPolling(this::executeRead, count, interval);
     }
   }
@@ -74,17 +80,26 @@ class ReadHoldingRegistersCommand implements Runnable {
   private void executeRead(ModbusClient client, int unitId, OutputContext output)
       throws ModbusException {
 
-    var request = new ReadHoldingRegistersRequest(address, quantity);
+    RegisterCodec codec = dataTypeOptions.codec(quantity);
 
-    output.protocol(request, Direction.SENT, null);
-
-    ReadHoldingRegistersResponse response = client.readHoldingRegisters(unitId, request);
+    // Reads beyond the protocol maximum are split into pipelined requests and reassembled
+    byte[] registers =
+        ChunkedReader.read(
+            client,
+            clientCommand.createPipeline(client),
+            ModbusTable.HOLDING_REGISTERS,
+            unitId,
+            address,
+            quantity,
+            output);
     Instant responseTime = Instant.now();
 
-    output.protocol(response, Direction.RECEIVED, responseTime);
-
-    byte[] registers = response.registers();
-
-    output.registerTable().data(registers).startAddress(address).timestamp(responseTime).render();
+    output
+        .registerTable()
+        .data(registers)
+        .startAddress(address)
+        .codec(codec)
+        .timestamp(responseTime)
+        .render();
   }
 }
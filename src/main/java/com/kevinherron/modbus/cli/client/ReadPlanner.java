@@ -0,0 +1,119 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.kevinherron.modbus.cli.client.PollCommand.Tag;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces the reads for a set of tags into the fewest protocol-legal requests.
+ *
+ * <p>Tags on the same unit and table are sorted by address and merged into one block while the gap
+ * between them is at most {@code maxGap} addresses and the block stays within the table's {@link
+ * ModbusTable#maxReadQuantity() maximum read quantity}. Overlapping and adjacent tags are always
+ * merged; a larger gap trades reading a few unused addresses for fewer round trips.
+ *
+ * <p>Each block is read once and {@link ReadBlock#slice sliced} back into the data for each of its
+ * tags.
+ */
+final class ReadPlanner {
+
+  private ReadPlanner() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Plans the reads for {@code tags}.
+   *
+   * @param tags the tags to read, all on the same endpoint.
+   * @param maxGap the largest number of unused addresses allowed between two tags in one block.
+   * @return the blocks to read, covering every tag exactly once.
+   */
+  static List<ReadBlock> plan(List<Tag> tags, int maxGap) {
+    record Key(int unitId, ModbusTable table) {}
+
+    Map<Key, List<Tag>> tagsByKey = new LinkedHashMap<>();
+    for (Tag tag : tags) {
+      tagsByKey
+          .computeIfAbsent(new Key(tag.unitId(), tag.table()), _ -> new ArrayList<>())
+          .add(tag);
+    }
+
+    var blocks = new ArrayList<ReadBlock>();
+
+    tagsByKey.forEach(
+        (key, keyTags) -> {
+          List<Tag> sorted =
+              keyTags.stream()
+                  .sorted(Comparator.comparingInt(Tag::address).thenComparingInt(Tag::quantity))
+                  .toList();
+
+          int start = -1;
+          int end = -1;
+          var blockTags = new ArrayList<Tag>();
+
+          for (Tag tag : sorted) {
+            int tagEnd = tag.address() + tag.quantity();
+            int mergedEnd = Math.max(end, tagEnd);
+
+            if (!blockTags.isEmpty()
+                && tag.address() - end <= Math.max(0, maxGap)
+                && mergedEnd - start <= key.table().maxReadQuantity()) {
+              end = mergedEnd;
+              blockTags.add(tag);
+              continue;
+            }
+
+            if (!blockTags.isEmpty()) {
+              blocks.add(new ReadBlock(key.unitId(), key.table(), start, end - start, blockTags));
+            }
+            start = tag.address();
+            end = tagEnd;
+            blockTags = new ArrayList<>();
+            blockTags.add(tag);
+          }
+
+          if (!blockTags.isEmpty()) {
+            blocks.add(new ReadBlock(key.unitId(), key.table(), start, end - start, blockTags));
+          }
+        });
+
+    return blocks;
+  }
+
+  /**
+   * A single read request covering one or more tags.
+   *
+   * @param unitId the unit ID.
+   * @param table the table to read.
+   * @param address the starting address.
+   * @param quantity the number of bits or registers to read.
+   * @param tags the tags covered by this read, in address order.
+   */
+  record ReadBlock(int unitId, ModbusTable table, int address, int quantity, List<Tag> tags) {
+
+    /**
+     * Extracts one tag's data from the data read for this block.
+     *
+     * @param data the raw data read for this block.
+     * @param tag a tag covered by this block.
+     * @return the raw data for the tag.
+     */
+    byte[] slice(byte[] data, Tag tag) {
+      return table.slice(data, tag.address() - address, tag.quantity());
+    }
+
+    /**
+     * Splits this block into one block per tag.
+     *
+     * @return a block for each tag, in address order.
+     */
+    List<ReadBlock> split() {
+      return tags.stream()
+          .map(t -> new ReadBlock(unitId, table, t.address(), t.quantity(), List.of(t)))
+          .toList();
+    }
+  }
+}
@@ -3,10 +3,13 @@ package com.kevinherron.modbus.cli.client;
 import com.digitalpetri.modbus.client.ModbusClient;
 import com.digitalpetri.modbus.pdu.ReadWriteMultipleRegistersRequest;
 import com.digitalpetri.modbus.pdu.ReadWriteMultipleRegistersResponse;
+import com.kevinherron.modbus.cli.client.RequestLimiter.Lane;
 import com.kevinherron.modbus.cli.output.Direction;
 import com.kevinherron.modbus.cli.output.OutputContext;
+import com.kevinherron.modbus.cli.util.RegisterCodec;
 import java.time.Instant;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Parameters;
 import picocli.CommandLine.ParentCommand;
 
@@ -26,6 +29,9 @@ import picocli.CommandLine.ParentCommand;
  * transmitted first, followed by the low byte. Each 16-bit register value is converted to 2 bytes
  * using {@code (value >> 8) & 0xFF} for the high byte and {@code value & 0xFF} for the low byte.
  *
+ * <p>With {@code --type}, both the values written and the registers read are typed values, e.g.
+ * {@code --type float32}, and the write quantity is the number of registers the values span.
+ *
  * @see ReadHoldingRegistersCommand for reading registers only (function code 03)
  * @see WriteMultipleRegistersCommand for writing registers only (function code 16)
  */
@@ -44,36 +50,55 @@ class ReadWriteMultipleRegistersCommand implements Runnable {
   @Parameters(index = "2", description = "write starting address")
   int writeAddress;
 
-  /** The number of consecutive registers to write. Must match the number of values provided. */
+  /**
+   * The number of consecutive registers to write. Without {@code --type}, must match the number of
+   * values provided; with it, must be a whole number of values, which must encode to exactly this
+   * many registers.
+   */
   @Parameters(index = "3", description = "write quantity")
   int writeQuantity;
 
   /**
-   * Comma-separated register values to write. Accepts decimal values (e.g., {@code 100,200,300}).
-   * The number of values must exactly match the {@code writeQuantity} parameter.
+   * Comma-separated register values to write. Accepts decimal values (e.g., {@code 100,200,300}),
+   * or values of the {@code --type} given. The values must exactly fill {@code writeQuantity}
+   * registers.
    */
   @Parameters(index = "4", description = "write values (comma-separated)")
   String writeValues;
 
+  /** How the registers read and written are interpreted, e.g. {@code --type float32}. */
+  @Mixin DataTypeOptions dataTypeOptions;
+
   @ParentCommand ClientCommand clientCommand;
 
   @Override
   public void run() {
     clientCommand.runWithClient(
         (ModbusClient client, int unitId, OutputContext output) -> {
-          String[] valueStrings = writeValues.split(",");
-          if (valueStrings.length != writeQuantity) {
-            throw new IllegalArgumentException(
-                "number of write values (%d) does not match write quantity (%d)"
-                    .formatted(valueStrings.length, writeQuantity));
-          }
-
-          // Convert register values to bytes (2 bytes per register, big-endian)
-          byte[] registerBytes = new byte[writeQuantity * 2];
-          for (int i = 0; i < writeQuantity; i++) {
-            int value = Integer.parseInt(valueStrings[i].trim());
-            registerBytes[i * 2] = (byte) ((value >> 8) & 0xFF);
-            registerBytes[i * 2 + 1] = (byte) (value & 0xFF);
+          dataTypeOptions.checkWholeValues("read quantity", readQuantity);
+          dataTypeOptions.checkWholeValues("write quantity", writeQuantity);
+          RegisterCodec codec = dataTypeOptions.codec();
+
+          byte[] registerBytes;
+          if (codec != null) {
+            registerBytes =
+                DataTypeOptions.encode(
+                    codec, writeValues, null, writeQuantity, clientCommand.parent.stdin());
+          } else {
+            String[] valueStrings = writeValues.split(",");
+            if (valueStrings.length != writeQuantity) {
+              throw new IllegalArgumentException(
+                  "number of write values (%d) does not match write quantity (%d)"
+                      .formatted(valueStrings.length, writeQuantity));
+            }
+
+            // Convert register values to bytes (2 bytes per register, big-endian)
+            registerBytes = new byte[writeQuantity * 2];
+            for (int i = 0; i < writeQuantity; i++) {
+              int value = Integer.parseInt(valueStrings[i].trim());
+              registerBytes[i * 2] = (byte) ((value >> 8) & 0xFF);
+              registerBytes[i * 2 + 1] = (byte) (value & 0xFF);
+            }
           }
 
           var request =
@@ -83,7 +108,11 @@ class ReadWriteMultipleRegistersCommand implements Runnable {
           output.protocol(request, Direction.SENT, null);
 
           ReadWriteMultipleRegistersResponse response =
-              client.readWriteMultipleRegisters(unitId, request);
+              RequestLimiter.of(client)
+                  .run(
+                      unitId,
+                      Lane.FOREGROUND,
+                      () -> client.readWriteMultipleRegisters(unitId, request));
           Instant responseTime = Instant.now();
 
           output.protocol(response, Direction.RECEIVED, responseTime);
@@ -94,6 +123,7 @@ class ReadWriteMultipleRegistersCommand implements Runnable {
               .registerTable()
               .data(registers)
               .startAddress(readAddress)
+              .codec(codec)
               .timestamp(responseTime)
               .render();
         });
@@ -0,0 +1,358 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.exceptions.ModbusExecutionException;
+import com.kevinherron.modbus.cli.util.EndpointParser.Endpoint;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Caps the number of requests in flight at once to one endpoint, across every connection and
+ * command in this process, and schedules the requests waiting beyond the cap.
+ *
+ * <p>Many Modbus TCP-to-RTU gateways forward one request at a time to their serial line and drop,
+ * or time out, any request that arrives while another is outstanding. Pipelining, multiple
+ * connections, concurrent polling, and the daemon all put several requests in flight at once, so
+ * {@code --max-in-flight} limits them per gateway: one limiter is shared by every client connected
+ * to the same TCP host and port. A serial port carries one request at a time regardless, so RTU
+ * clients always share a limit of 1 per port.
+ *
+ * <p>Waiting requests are scheduled in two {@link Lane lanes}. Writes and one-shot reads go in the
+ * {@link Lane#FOREGROUND foreground} lane and are always granted the next free permit ahead of
+ * periodic polling reads in the {@link Lane#BACKGROUND background} lane, so a control action waits
+ * for at most the requests already in flight, not for a backlog of polls. Within a lane, requests
+ * wait in a queue per unit ID and the units take turns, so a unit with a long backlog (e.g. a large
+ * scan) can't starve the others on the same gateway. Requests wait here before they are sent, so
+ * the time spent queued doesn't count toward the request timeout. Lanes order only the requests
+ * waiting beyond the cap: with no cap, nothing waits, and every request goes straight to the
+ * transport in the order it was issued, so priority needs {@code --max-in-flight} on TCP.
+ *
+ * <p>{@link ClientCommand#createClient} attaches the limiter to each client it creates, {@link #of}
+ * finds it again wherever the client's requests are issued, and disconnecting the client detaches
+ * it, so a gateway's limiter and limit last only while some client is connected to it. Clients
+ * with no limit attached never wait.
+ */
+final class RequestLimiter {
+
+  private static final RequestLimiter UNLIMITED = new RequestLimiter(Integer.MAX_VALUE);
+
+  /**
+   * Limiters by gateway, shared by every client attached to it and removed once the last one is
+   * detached; guarded by the class lock.
+   */
+  private static final Map<String, RequestLimiter> limitersByGateway = new HashMap<>();
+
+  /** The limiter attached to each client; guarded by the class lock. */
+  private static final Map<ModbusClient, RequestLimiter> limitersByClient = new WeakHashMap<>();
+
+  /** Waiting requests in each lane; guarded by this limiter's lock. */
+  private final Map<Lane, Queue> queues = new EnumMap<>(Lane.class);
+
+  private int maxInFlight;
+  private int inFlight = 0;
+
+  /** The number of clients attached to this limiter; guarded by the class lock. */
+  private int clients = 0;
+
+  /**
+   * Creates a limiter not shared with any client; clients share limiters through {@link #attach}.
+   *
+   * @param maxInFlight the most requests in flight at once.
+   */
+  RequestLimiter(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+
+    for (Lane lane : Lane.values()) {
+      queues.put(lane, new Queue());
+    }
+  }
+
+  /**
+   * Limits the requests issued on {@code client} to at most {@code maxInFlight} in flight at once
+   * to {@code endpoint}, shared with every other client attached to the same endpoint.
+   *
+   * <p>If a limiter for the endpoint already exists, e.g. for another command in the daemon or on
+   * a pooled connection, it keeps the lower of its limit and {@code maxInFlight}: a command can
+   * tighten the limit for a gateway that can't take more, but never loosen it for the others. The
+   * limiter lasts only while clients are attached to it; once the last is {@link #detach
+   * detached}, the next client attached to the endpoint starts with its own limit.
+   *
+   * @param client the client.
+   * @param endpoint the endpoint the client connects to.
+   * @param maxInFlight the most requests in flight at once; at least 1.
+   */
+  static void attach(ModbusClient client, Endpoint endpoint, int maxInFlight) {
+    String gateway =
+        switch (endpoint) {
+          case Endpoint.Tcp tcp -> tcp.hostname() + ":" + tcp.port();
+          case Endpoint.Rtu rtu -> rtu.serialPort();
+        };
+
+    RequestLimiter limiter;
+    synchronized (RequestLimiter.class) {
+      limiter = limitersByGateway.computeIfAbsent(gateway, _ -> new RequestLimiter(maxInFlight));
+      if (limitersByClient.put(client, limiter) == null) {
+        limiter.clients++;
+      }
+    }
+    limiter.lowerMaxInFlight(maxInFlight);
+  }
+
+  /**
+   * Detaches {@code client} from its limiter, discarding the limiter if no other client is attached
+   * to it. Requests already holding or waiting for one of its permits are unaffected.
+   *
+   * <p>{@link ClientCommand#disconnectQuietly} detaches every client it disconnects, so a gateway
+   * is limited only while some client connected to it is. Detaching a client that isn't attached
+   * has no effect.
+   *
+   * @param client the client.
+   */
+  static void detach(ModbusClient client) {
+    synchronized (RequestLimiter.class) {
+      RequestLimiter limiter = limitersByClient.remove(client);
+      if (limiter != null && --limiter.clients == 0) {
+        limitersByGateway.values().remove(limiter);
+      }
+    }
+  }
+
+  /**
+   * Returns the limiter attached to {@code client}, or one that never waits if none is.
+   *
+   * @param client the client.
+   * @return the client's limiter.
+   */
+  static RequestLimiter of(ModbusClient client) {
+    synchronized (RequestLimiter.class) {
+      return limitersByClient.getOrDefault(client, UNLIMITED);
+    }
+  }
+
+  /**
+   * Waits for a permit to issue a request to {@code unitId}.
+   *
+   * @param unitId the unit the request is for.
+   * @param lane the lane the request waits in.
+   * @return the permit; close it once the request has completed.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  Permit acquire(int unitId, Lane lane) throws InterruptedException {
+    if (this == UNLIMITED) {
+      return new Permit();
+    }
+
+    synchronized (this) {
+      if (inFlight < maxInFlight && !hasWaitingAhead(lane)) {
+        inFlight++;
+        return new Permit();
+      }
+
+      var waiter = new Waiter();
+      Queue queue = queues.get(lane);
+      queue.add(unitId, waiter);
+
+      try {
+        while (!waiter.granted) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        if (waiter.granted) {
+          inFlight--;
+        } else {
+          queue.remove(unitId, waiter);
+        }
+        grantWaiting();
+        throw e;
+      }
+
+      return new Permit();
+    }
+  }
+
+  /**
+   * Runs a blocking request once a permit is granted, releasing it when the request completes.
+   *
+   * @param unitId the unit the request is for.
+   * @param lane the lane the request waits in.
+   * @param request the request.
+   * @param <T> the response type.
+   * @return the response.
+   * @throws ModbusException if the request fails, or a {@link ModbusExecutionException} if
+   *     interrupted while waiting for a permit.
+   */
+  <T> T run(int unitId, Lane lane, BlockingRequest<T> request) throws ModbusException {
+    Permit permit;
+    try {
+      permit = acquire(unitId, lane);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ModbusExecutionException(e);
+    }
+
+    try (permit) {
+      return request.execute();
+    }
+  }
+
+  /**
+   * Returns the number of requests waiting for a permit.
+   *
+   * @return the number of waiting requests.
+   */
+  synchronized int waiting() {
+    return queues.values().stream().mapToInt(Queue::size).sum();
+  }
+
+  private synchronized void lowerMaxInFlight(int maxInFlight) {
+    this.maxInFlight = Math.min(this.maxInFlight, Math.max(1, maxInFlight));
+  }
+
+  private synchronized void release(Permit permit) {
+    if (!permit.released) {
+      permit.released = true;
+      inFlight--;
+      grantWaiting();
+    }
+  }
+
+  /**
+   * Returns whether a request in {@code lane}, or in a lane ahead of it, is already waiting; the
+   * caller holds the lock.
+   */
+  private boolean hasWaitingAhead(Lane lane) {
+    for (Lane other : Lane.values()) {
+      if (!queues.get(other).isEmpty()) {
+        return true;
+      }
+      if (other == lane) {
+        break;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Grants free permits to waiting requests, emptying each lane before the next; the caller holds
+   * the lock.
+   */
+  private void grantWaiting() {
+    boolean granted = false;
+
+    for (Lane lane : Lane.values()) {
+      Queue queue = queues.get(lane);
+
+      while (inFlight < maxInFlight && !queue.isEmpty()) {
+        queue.next().granted = true;
+        inFlight++;
+        granted = true;
+      }
+    }
+
+    if (granted) {
+      notifyAll();
+    }
+  }
+
+  /** The lanes waiting requests are scheduled in, highest priority first. */
+  enum Lane {
+
+    /** Writes and one-shot reads, e.g. a setpoint change that should take effect promptly. */
+    FOREGROUND,
+
+    /** Periodic polling reads, which yield to foreground requests. */
+    BACKGROUND
+  }
+
+  /**
+   * A request that blocks until its response arrives.
+   *
+   * @param <T> the response type.
+   */
+  interface BlockingRequest<T> {
+
+    /**
+     * Issues the request and waits for its response.
+     *
+     * @return the response.
+     * @throws ModbusException if the request fails.
+     */
+    T execute() throws ModbusException;
+  }
+
+  /** Permission to have one request in flight; closing it again has no further effect. */
+  final class Permit implements AutoCloseable {
+
+    /** Guarded by the limiter's lock. */
+    private boolean released = false;
+
+    private Permit() {}
+
+    @Override
+    public void close() {
+      if (RequestLimiter.this != UNLIMITED) {
+        release(this);
+      }
+    }
+  }
+
+  /**
+   * The requests waiting in one lane, queued per unit ID with the units taking turns; guarded by
+   * the limiter's lock.
+   */
+  private static final class Queue {
+
+    private final Map<Integer, ArrayDeque<Waiter>> waitingByUnit = new HashMap<>();
+
+    /** Units with waiting requests, in the order they take turns. */
+    private final ArrayDeque<Integer> turns = new ArrayDeque<>();
+
+    void add(int unitId, Waiter waiter) {
+      ArrayDeque<Waiter> waiting = waitingByUnit.computeIfAbsent(unitId, _ -> new ArrayDeque<>());
+      if (waiting.isEmpty()) {
+        turns.add(unitId);
+      }
+      waiting.add(waiter);
+    }
+
+    void remove(int unitId, Waiter waiter) {
+      ArrayDeque<Waiter> waiting = waitingByUnit.get(unitId);
+      waiting.remove(waiter);
+      if (waiting.isEmpty()) {
+        waitingByUnit.remove(unitId);
+        turns.remove(unitId);
+      }
+    }
+
+    /** Removes the next waiter, from the unit whose turn it is. */
+    Waiter next() {
+      int unitId = turns.remove();
+      ArrayDeque<Waiter> waiting = waitingByUnit.get(unitId);
+      Waiter waiter = waiting.remove();
+
+      if (waiting.isEmpty()) {
+        waitingByUnit.remove(unitId);
+      } else {
+        turns.add(unitId);
+      }
+      return waiter;
+    }
+
+    boolean isEmpty() {
+      return turns.isEmpty();
+    }
+
+    int size() {
+      return waitingByUnit.values().stream().mapToInt(ArrayDeque::size).sum();
+    }
+  }
+
+  /** A request waiting for a permit; guarded by the limiter's lock. */
+  private static final class Waiter {
+    boolean granted = false;
+  }
+}
@@ -0,0 +1,231 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.exceptions.ModbusExecutionException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keeps up to a fixed number of asynchronous requests outstanding on a single connection.
+ *
+ * <p>Modbus TCP transaction IDs allow several requests to be in flight at once, so a command that
+ * issues many independent requests doesn't need to wait a full round trip between each one. The
+ * pipeline behaves like a sliding window: {@link #submit} issues a request immediately unless the
+ * window is full, in which case it first waits for the oldest outstanding request to complete.
+ *
+ * <p>Responses are handed to their {@link ResponseHandler} in submission order, regardless of the
+ * order in which the device answers, so callers can treat the results exactly as if the requests
+ * had been issued one at a time. A depth of 1 degenerates to fully sequential request/response.
+ *
+ * <p>By default a failed request aborts the pipeline: outstanding requests are cancelled and the
+ * failure is thrown from {@link #submit} or {@link #drain}. Requests submitted with a {@link
+ * FailureHandler} instead hand their failure to it, in the same order, and the pipeline continues.
+ * A handler that throws aborts the pipeline the same way.
+ *
+ * <p>A pipeline created with a {@link RequestLimiter} also waits for the limiter's permit before
+ * issuing each request, in the pipeline's {@link RequestLimiter.Lane lane}, so a gateway's
+ * in-flight limit is respected even when the window is larger, and the permit is released as soon
+ * as the request completes.
+ *
+ * <p>This class is not thread-safe; it is intended to be driven from a single command thread.
+ *
+ * @param <T> the response type.
+ */
+final class RequestPipeline<T> {
+
+  private final ArrayDeque<InFlight<T>> inFlight = new ArrayDeque<>();
+
+  private final int depth;
+  private final @Nullable RequestLimiter limiter;
+  private final RequestLimiter.Lane lane;
+
+  /**
+   * Creates a new pipeline.
+   *
+   * @param depth the maximum number of requests outstanding at once; values below 1 are treated
+   *     as 1.
+   */
+  RequestPipeline(int depth) {
+    this(depth, null, RequestLimiter.Lane.FOREGROUND);
+  }
+
+  /**
+   * Creates a new pipeline whose requests also wait for permits from {@code limiter}.
+   *
+   * @param depth the maximum number of requests outstanding at once; values below 1 are treated
+   *     as 1.
+   * @param limiter the limiter of the endpoint the requests are issued to, or {@code null}.
+   * @param lane the lane the requests wait in for permits.
+   */
+  RequestPipeline(int depth, @Nullable RequestLimiter limiter, RequestLimiter.Lane lane) {
+    this.depth = Math.max(1, depth);
+    this.limiter = limiter;
+    this.lane = lane;
+  }
+
+  /**
+   * Issues a request, first waiting for the oldest outstanding request if the pipeline is full.
+   *
+   * @param unitId the unit the request is for.
+   * @param request supplies the asynchronous request, e.g. {@code () ->
+   *     client.readHoldingRegistersAsync(unitId, request)}.
+   * @param handler invoked with the response once it (and every earlier request) has completed.
+   * @throws ModbusException if an earlier request completed exceptionally, or its handler failed.
+   */
+  void submit(int unitId, Supplier<CompletionStage<T>> request, ResponseHandler<T> handler)
+      throws ModbusException {
+
+    submit(unitId, request, handler, null);
+  }
+
+  /**
+   * Issues a request, first waiting for the oldest outstanding request if the pipeline is full.
+   *
+   * @param unitId the unit the request is for.
+   * @param request supplies the asynchronous request.
+   * @param handler invoked with the response once it (and every earlier request) has completed.
+   * @param failureHandler invoked instead of aborting the pipeline if this request fails, or
+   *     {@code null} to abort.
+   * @throws ModbusException if an earlier request failed without a failure handler, or a handler
+   *     failed.
+   */
+  void submit(
+      int unitId,
+      Supplier<CompletionStage<T>> request,
+      ResponseHandler<T> handler,
+      @Nullable FailureHandler failureHandler)
+      throws ModbusException {
+
+    while (inFlight.size() >= depth) {
+      completeOldest();
+    }
+
+    CompletableFuture<T> future;
+    if (limiter == null) {
+      future = request.get().toCompletableFuture();
+    } else {
+      // Earlier requests release their permits as they complete, without this thread's help
+      RequestLimiter.Permit permit;
+      try {
+        permit = limiter.acquire(unitId, lane);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancel();
+        throw new ModbusExecutionException(e);
+      }
+      try {
+        future = request.get().toCompletableFuture();
+      } catch (RuntimeException e) {
+        permit.close();
+        throw e;
+      }
+      future.whenComplete((_, _) -> permit.close());
+    }
+    inFlight.add(new InFlight<>(future, handler, failureHandler));
+  }
+
+  /**
+   * Waits for every outstanding request to complete, invoking handlers in submission order.
+   *
+   * @throws ModbusException if a request completed exceptionally, or its handler failed.
+   */
+  void drain() throws ModbusException {
+    while (!inFlight.isEmpty()) {
+      completeOldest();
+    }
+  }
+
+  /** Cancels any requests still outstanding, e.g. after a failure aborts the command. */
+  void cancel() {
+    InFlight<T> next;
+    while ((next = inFlight.poll()) != null) {
+      next.future().cancel(false);
+    }
+  }
+
+  private void completeOldest() throws ModbusException {
+    InFlight<T> oldest = inFlight.remove();
+
+    T response;
+    try {
+      response = oldest.future().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel();
+      throw new ModbusExecutionException(e);
+    } catch (ExecutionException e) {
+      ModbusException failure = unwrap(e.getCause());
+      if (oldest.failureHandler() == null) {
+        cancel();
+        throw failure;
+      }
+      try {
+        oldest.failureHandler().handle(failure);
+      } catch (ModbusException | RuntimeException handlerFailure) {
+        cancel();
+        throw handlerFailure;
+      }
+      return;
+    }
+
+    try {
+      oldest.handler().handle(response);
+    } catch (ModbusException | RuntimeException handlerFailure) {
+      // A failed handler aborts the pipeline, like a failed request
+      cancel();
+      throw handlerFailure;
+    }
+  }
+
+  /**
+   * Unwraps the cause of a failed asynchronous request into the {@link ModbusException} the
+   * equivalent blocking call would have thrown.
+   */
+  static ModbusException unwrap(Throwable cause) {
+    while (cause instanceof CompletionException && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    if (cause instanceof ModbusException e) {
+      return e;
+    }
+    return new ModbusExecutionException(cause);
+  }
+
+  /**
+   * Callback for a completed pipelined request.
+   *
+   * @param <T> the response type.
+   */
+  interface ResponseHandler<T> {
+
+    /**
+     * Handles a response.
+     *
+     * @param response the response to the request.
+     * @throws ModbusException if handling the response fails.
+     */
+    void handle(T response) throws ModbusException;
+  }
+
+  /** Callback for a pipelined request that failed. */
+  interface FailureHandler {
+
+    /**
+     * Handles a failed request.
+     *
+     * @param failure the exception the request failed with.
+     * @throws ModbusException to abort the pipeline, e.g. if the failure is not recoverable.
+     */
+    void handle(ModbusException failure) throws ModbusException;
+  }
+
+  private record InFlight<T>(
+      CompletableFuture<T> future,
+      ResponseHandler<T> handler,
+      @Nullable FailureHandler failureHandler) {}
+}
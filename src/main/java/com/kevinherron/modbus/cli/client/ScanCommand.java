@@ -1,17 +1,27 @@
 package com.kevinherron.modbus.cli.client;
 
 import com.digitalpetri.modbus.client.ModbusClient;
-import com.digitalpetri.modbus.pdu.ReadHoldingRegistersRequest;
-import com.digitalpetri.modbus.pdu.ReadHoldingRegistersResponse;
+import com.digitalpetri.modbus.client.ModbusRtuClient;
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.exceptions.ModbusResponseException;
+import com.digitalpetri.modbus.exceptions.ModbusTimeoutException;
+import com.kevinherron.modbus.cli.client.ClientCommand.ConnectionTask;
 import com.kevinherron.modbus.cli.output.OutputContext;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import org.jspecify.annotations.Nullable;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.IExitCodeGenerator;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 import picocli.CommandLine.ParentCommand;
 
 /**
- * Scans a range of holding registers using a sliding window approach.
+ * Scans a range of addresses in one or more Modbus tables using a sliding window approach.
  *
  * <p>This command is useful for discovering active register ranges on unknown devices. It reads
  * registers in configurable windows, stepping through the specified address range and reporting
@@ -28,12 +38,52 @@ import picocli.CommandLine.ParentCommand;
  *       size}
  * </ul>
  *
+ * <p>{@code --table} selects the table to scan: {@code holding} (the default), {@code input},
+ * {@code coils}, {@code discrete}, or {@code all}. Bit tables pack 8 addresses per response byte,
+ * so their windows default to the protocol maximum of 2000 bits rather than 10; {@code --size} is
+ * capped at the protocol maximum for each table. With {@code all}, the four tables are scanned
+ * concurrently, each on its own TCP connection, and rendered one table after another.
+ *
+ * <p>Windows are independent reads, so they are issued through a {@link RequestPipeline}; with
+ * {@code --pipeline N} on the client command, up to N windows are in flight at once and the scan is
+ * no longer bounded by the round-trip time of each read.
+ *
+ * <p>With {@code --connections N}, the windows are split into N contiguous shards, each scanned on
+ * its own TCP connection on its own virtual thread. Shards cover ascending address ranges, so their
+ * results are merged back in address order by simple concatenation.
+ *
+ * <p>By default every window is held in memory and rendered as one table once the scan finishes.
+ * With {@code --stream}, each window is rendered as soon as it has been read ({@code scan_window}
+ * lines in JSON mode) and nothing is retained, so memory stays bounded regardless of the range and
+ * downstream consumers see data immediately. Streamed windows from different connections may
+ * arrive out of address order; each line carries its own address.
+ *
+ * <p>A window that fails with an exception response (e.g. Illegal Data Address) or a timeout does
+ * not abort the scan. The window is bisected, recursively, until every readable sub-range has been
+ * read and every unreadable address has been isolated; unreadable ranges are reported as scan
+ * failures alongside the results. Connection-level failures still abort the scan, unless {@code
+ * --persistent} re-establishes the connection, after which the failed window is read again. Any
+ * failure aborts the scan when {@code --fail-fast} is set; an aborted scan exits with a non-zero
+ * exit code.
+ *
+ * <p>With {@code --adaptive}, fixed windows are replaced by an {@link AdaptiveWindow}: each region
+ * of the range is read with the largest window the device accepts, starting at the protocol
+ * maximum (or {@code --size}, if given), shrinking when the device rejects a window and growing
+ * again after successful reads. Adaptive scans read non-overlapping windows, so {@code --step} and
+ * {@code --partial} don't apply.
+ *
  * <p>This command is invoked using {@code scan} (e.g., {@code modbus client scan 0 100 --size 10}).
  *
  * @see ReadHoldingRegistersCommand for reading a specific range of holding registers
  */
-@Command(name = "scan", description = "scan a range of registers using a sliding window")
-public class ScanCommand implements Runnable {
+@Command(name = "scan", description = "scan a range of addresses using a sliding window")
+public class ScanCommand implements Runnable, IExitCodeGenerator {
+
+  /** Default window size for register tables when {@code --size} is not given. */
+  static final int DEFAULT_REGISTER_WINDOW = 10;
+
+  /** Value of {@code --table} that scans every table. */
+  static final String ALL_TABLES = "all";
 
   /** Starting address (inclusive) for the scan range. */
   @Parameters(index = "0", description = "start address (inclusive)")
@@ -46,10 +96,24 @@ public class ScanCommand implements Runnable {
   @Parameters(index = "1", description = "end address (exclusive)")
   int end;
 
-  /** Window size specifying the number of registers to read in each scan iteration. */
+  /**
+   * The table to scan, by {@link ModbusTable#cliName() name}, or {@value #ALL_TABLES} to scan every
+   * table concurrently.
+   */
+  @Option(
+      names = "--table",
+      description = "table to scan: coils, discrete, holding, input, or all (default: holding)")
+  String table = ModbusTable.HOLDING_REGISTERS.cliName();
+
+  /**
+   * Window size specifying the number of registers or bits to read in each scan iteration. Defaults
+   * to 10 registers, or 2000 bits for bit tables, and is capped at the protocol maximum.
+   */
   @Option(
       names = "--size",
-      description = "window size, i.e. number of registers to read in each window")
+      description =
+          "window size, i.e. number of registers or bits to read in each window"
+              + " (default: 10 registers, 2000 bits)")
   Integer size;
 
   /**
@@ -74,51 +138,637 @@ public class ScanCommand implements Runnable {
       description = "read partial windows if the last window is smaller than the window size")
   boolean partial;
 
+  /**
+   * Number of TCP connections to split the scan range across. Each connection scans a contiguous
+   * shard of the windows; RTU endpoints always use a single connection.
+   */
+  @Option(
+      names = "--connections",
+      description = "number of TCP connections to split the scan range across (default: 1)")
+  int connections = 1;
+
+  /**
+   * Whether to render each window as soon as it is read instead of collecting all windows and
+   * rendering them together at the end.
+   */
+  @Option(
+      names = "--stream",
+      description = "output each window as soon as it is read instead of at the end of the scan")
+  boolean stream = false;
+
+  /**
+   * Whether to abort the scan on the first failed window instead of bisecting it and continuing.
+   */
+  @Option(
+      names = "--fail-fast",
+      description =
+          "abort the scan, with exit code 1, on the first failed window instead of bisecting and"
+              + " continuing")
+  boolean failFast = false;
+
+  /**
+   * Whether to size windows adaptively instead of using a fixed {@code --size}. In adaptive mode
+   * {@code --size} is the largest window tried, defaulting to the protocol maximum.
+   */
+  @Option(
+      names = "--adaptive",
+      description =
+          "size windows adaptively, starting at the protocol maximum (or --size) and shrinking"
+              + " or growing based on what the device accepts")
+  boolean adaptive = false;
+
   @ParentCommand ClientCommand clientCommand;
 
+  /** Whether the scan was aborted by a failure rather than running to the end of the range. */
+  private boolean aborted = false;
+
   @Override
   public void run() {
-    if (size == null) {
-      size = 10;
+    aborted = false;
+
+    clientCommand.runWithClient(
+        (ModbusClient client, int unitId, OutputContext output) -> {
+          try {
+            scanTables(client, unitId, output);
+          } catch (ModbusException | RuntimeException e) {
+            aborted = true;
+            throw e;
+          }
+        });
+  }
+
+  /**
+   * Returns the exit code of the last scan.
+   *
+   * @return 0 if the scan ran to the end of the range, or 1 if it was aborted.
+   */
+  @Override
+  public int getExitCode() {
+    return aborted ? 1 : 0;
+  }
+
+  /**
+   * Scans every table selected by {@code --table} and, unless streaming, renders the results.
+   *
+   * @param client the connected client.
+   * @param unitId the target unit identifier.
+   * @param output the output context.
+   * @throws ModbusException if the scan is aborted.
+   */
+  private void scanTables(ModbusClient client, int unitId, OutputContext output)
+      throws ModbusException {
+
+    List<ModbusTable> tables = tables();
+
+    List<ConnectionTask<List<ScanSink>>> tasks =
+        tables.stream()
+            .<ConnectionTask<List<ScanSink>>>map(
+                t ->
+                    c ->
+                        adaptive
+                            ? scanAdaptive(c, unitId, output, t)
+                            : scan(c, unitId, output, t, windows(t)))
+            .toList();
+
+    List<List<ScanSink>> sinksByTable = clientCommand.runOnConnections(client, tasks);
+
+    if (!stream) {
+      for (List<ScanSink> sinks : sinksByTable) {
+        var results = new ArrayList<ScanResult>();
+        var failures = new ArrayList<ScanFailure>();
+        for (ScanSink sink : sinks) {
+          if (sink instanceof CollectingSink collected) {
+            results.addAll(collected.results());
+            failures.addAll(collected.failures());
+          }
+        }
+
+        output.scanResults().results(results).render();
+        failures.forEach(failure -> output.scanFailure().failure(failure).render());
+      }
     }
-    if (step == null) {
-      step = size;
+  }
+
+  /**
+   * Resolves {@code --table} to the tables to scan.
+   *
+   * @return the tables to scan, in {@link ModbusTable} order.
+   * @throws IllegalArgumentException if {@code --table} doesn't name a table.
+   */
+  private List<ModbusTable> tables() {
+    if (table.trim().toLowerCase(Locale.ROOT).equals(ALL_TABLES)) {
+      return Arrays.asList(ModbusTable.values());
+    }
+    return List.of(ModbusTable.fromCliName(table));
+  }
+
+  /**
+   * Returns the window size to use for {@code table}: {@code --size} if given, capped at the
+   * protocol maximum, otherwise the maximum for bit tables and adaptive scans, or {@value
+   * #DEFAULT_REGISTER_WINDOW} registers.
+   *
+   * @param table the table being scanned.
+   * @return the window size, at least 1.
+   */
+  private int windowSize(ModbusTable table) {
+    if (size != null) {
+      return Math.max(1, Math.min(size, table.maxReadQuantity()));
     }
+    return adaptive || table.isBit() ? table.maxReadQuantity() : DEFAULT_REGISTER_WINDOW;
+  }
 
+  /**
+   * Computes the windows to read, honoring {@code --size}, {@code --step} and {@code --partial}.
+   *
+   * @param table the table being scanned.
+   * @return the windows in ascending address order.
+   */
+  private List<Window> windows(ModbusTable table) {
+    int windowSize = windowSize(table);
+    int windowStep = step != null ? Math.max(1, step) : windowSize;
     int quantity = end - start;
 
-    var results = new ArrayList<ScanResult>();
+    var windows = new ArrayList<Window>();
+    for (int i = start; i < start + quantity; i += windowStep) {
+      int length = Math.min(windowSize, start + quantity - i);
+      if (length <= 0) {
+        break;
+      }
 
-    clientCommand.runWithClient(
-        (ModbusClient client, int unitId, OutputContext output) -> {
-          for (int i = start; i < start + quantity; i += step) {
-            int windowSize = Math.min(size, start + quantity - i);
-            if (windowSize <= 0) {
-              break;
-            }
+      // Skip partial windows if partial is false
+      if (!partial && length < windowSize) {
+        continue;
+      }
+
+      windows.add(new Window(i, length));
+    }
+    return windows;
+  }
+
+  /**
+   * Scans the windows, sharding them across {@code --connections} connections if requested.
+   *
+   * @param client the primary connected client, which scans the first shard.
+   * @param unitId the target unit identifier.
+   * @param output the output context.
+   * @param table the table to scan.
+   * @param windows the windows to scan.
+   * @return one sink per shard, in ascending address order.
+   * @throws ModbusException if the scan is aborted.
+   */
+  private List<ScanSink> scan(
+      ModbusClient client,
+      int unitId,
+      OutputContext output,
+      ModbusTable table,
+      List<Window> windows)
+      throws ModbusException {
 
-            // Skip partial windows if partial is false
-            if (!partial && windowSize < size) {
-              continue;
-            }
+    int shardCount = shardCount(client, output, windows.size());
 
-            var request = new ReadHoldingRegistersRequest(i, windowSize);
+    List<ShardTask> tasks =
+        partition(windows, shardCount).stream()
+            .<ShardTask>map(
+                shard -> (c, sink) -> scanWindows(c, unitId, output, table, shard, sink))
+            .toList();
 
-            ReadHoldingRegistersResponse response = client.readHoldingRegisters(unitId, request);
+    return runShards(client, output, tasks);
+  }
 
-            results.add(new ScanResult(i, response.registers()));
-          }
+  /**
+   * Scans the range with adaptively sized windows, sharding the range across {@code
+   * --connections} connections if requested.
+   *
+   * @param client the primary connected client, which scans the first shard.
+   * @param unitId the target unit identifier.
+   * @param output the output context.
+   * @param table the table to scan.
+   * @return one sink per shard, in ascending address order.
+   * @throws ModbusException if the scan is aborted.
+   */
+  private List<ScanSink> scanAdaptive(
+      ModbusClient client, int unitId, OutputContext output, ModbusTable table)
+      throws ModbusException {
 
-          output.scanResults().results(results).render();
-        });
+    int quantity = Math.max(0, end - start);
+    int shardCount = shardCount(client, output, quantity);
+
+    var adaptiveWindows = new ArrayList<AdaptiveWindow>();
+    var tasks = new ArrayList<ShardTask>();
+
+    int from = start;
+    for (int i = 0; i < shardCount; i++) {
+      int to = from + quantity / shardCount + (i < quantity % shardCount ? 1 : 0);
+      var adaptiveWindow = new AdaptiveWindow(windowSize(table));
+      int shardStart = from;
+      int shardEnd = to;
+
+      adaptiveWindows.add(adaptiveWindow);
+      tasks.add(
+          (c, sink) ->
+              scanAdaptive(
+                  c, unitId, output, table, shardStart, shardEnd, adaptiveWindow, sink));
+      from = to;
+    }
+
+    List<ScanSink> sinks = runShards(client, output, tasks);
+
+    int requests = adaptiveWindows.stream().mapToInt(AdaptiveWindow::requests).sum();
+    output.info(
+        "Adaptive scan of %d %s addresses completed in %d requests",
+        quantity, table.cliName(), requests);
+
+    if (clientCommand.parent.verbose) {
+      for (AdaptiveWindow adaptiveWindow : adaptiveWindows) {
+        adaptiveWindow
+            .acceptedByRegion()
+            .forEach(
+                (address, windowSize) ->
+                    output.info(
+                        "Region %04X-%04X: largest accepted window %d",
+                        address,
+                        address + AdaptiveWindow.REGION_SIZE - 1,
+                        windowSize));
+      }
+    }
+
+    return sinks;
+  }
+
+  /**
+   * Determines how many shards to split a scan into, based on {@code --connections}.
+   *
+   * @param client the primary connected client.
+   * @param output the output context.
+   * @param units the number of windows or addresses that will be split between shards.
+   * @return the number of shards, at least 1.
+   */
+  private int shardCount(ModbusClient client, OutputContext output, int units) {
+    int shardCount = Math.min(Math.max(1, connections), Math.max(1, units));
+    if (shardCount > 1 && client instanceof ModbusRtuClient) {
+      output.warning("--connections is only supported for TCP endpoints; using 1 connection");
+      shardCount = 1;
+    }
+    return shardCount;
+  }
+
+  /**
+   * Runs each shard task with its own sink, the first on the primary client and the rest
+   * concurrently on their own connections.
+   *
+   * @param client the primary connected client.
+   * @param output the output context.
+   * @param tasks the shard tasks, in ascending address order.
+   * @return one sink per shard, in the same order as the tasks.
+   * @throws ModbusException if any shard is aborted.
+   */
+  private List<ScanSink> runShards(ModbusClient client, OutputContext output, List<ShardTask> tasks)
+      throws ModbusException {
+
+    List<ConnectionTask<ScanSink>> connectionTasks =
+        tasks.stream()
+            .<ConnectionTask<ScanSink>>map(
+                task ->
+                    c -> {
+                      ScanSink sink = stream ? new StreamingSink(output) : new CollectingSink();
+                      task.scan(c, sink);
+                      return sink;
+                    })
+            .toList();
+
+    return clientCommand.runOnConnections(client, connectionTasks);
+  }
+
+  /**
+   * Reads each window on a single connection, pipelining requests per {@code --pipeline}.
+   *
+   * @param client the connected client.
+   * @param unitId the target unit identifier.
+   * @param output the output context, for reporting reconnects.
+   * @param table the table to read.
+   * @param windows the windows to read.
+   * @param sink receives each result and failure, in window order.
+   * @throws ModbusException if the scan is aborted.
+   */
+  private void scanWindows(
+      ModbusClient client,
+      int unitId,
+      OutputContext output,
+      ModbusTable table,
+      List<Window> windows,
+      ScanSink sink)
+      throws ModbusException {
+
+    RequestPipeline<byte[]> pipeline = clientCommand.createPipeline(client);
+
+    for (Window window : windows) {
+      pipeline.submit(
+          unitId,
+          () -> table.readAsync(client, unitId, window.address(), window.size()),
+          data -> sink.result(new ScanResult(table, window.address(), window.size(), data)),
+          failure -> bisect(client, unitId, output, table, window, failure, sink));
+    }
+
+    pipeline.drain();
+  }
+
+  /**
+   * Reads {@code [from, to)} on a single connection, sizing each window with {@code
+   * adaptiveWindow}. A window the device rejects is retried at the same address with a smaller
+   * window; an address that can't be read even on its own is reported as a failure and skipped.
+   *
+   * @param client the connected client.
+   * @param unitId the target unit identifier.
+   * @param output the output context, for reporting reconnects.
+   * @param table the table to read.
+   * @param from the first address to read (inclusive).
+   * @param to the last address to read (exclusive).
+   * @param adaptiveWindow the sizing policy for this shard.
+   * @param sink receives each result and failure, in address order.
+   * @throws ModbusException if the scan is aborted.
+   */
+  private void scanAdaptive(
+      ModbusClient client,
+      int unitId,
+      OutputContext output,
+      ModbusTable table,
+      int from,
+      int to,
+      AdaptiveWindow adaptiveWindow,
+      ScanSink sink)
+      throws ModbusException {
+
+    var failures = new ArrayList<ScanFailure>();
+
+    int address = from;
+    while (address < to) {
+      int windowSize = adaptiveWindow.next(address, to - address);
+
+      try {
+        byte[] data = table.read(client, unitId, address, windowSize);
+
+        adaptiveWindow.success(address, windowSize);
+
+        failures.forEach(sink::failure);
+        failures.clear();
+        sink.result(new ScanResult(table, address, windowSize, data));
+
+        address += windowSize;
+      } catch (ModbusResponseException | ModbusTimeoutException e) {
+        if (failFast) {
+          throw e;
+        }
+
+        adaptiveWindow.failure(windowSize);
+
+        if (windowSize == 1) {
+          appendFailure(failures, table, address, e.getMessage());
+          address++;
+        }
+      } catch (ModbusException e) {
+        // A lost connection aborts the scan, unless --persistent re-establishes it
+        if (failFast || !reconnect(client, output)) {
+          throw e;
+        }
+      }
+    }
+
+    failures.forEach(sink::failure);
+  }
+
+  /**
+   * Handles a failed window by splitting it in half and reading each half, recursively, until every
+   * readable sub-range has been read and every unreadable address has been isolated.
+   *
+   * <p>Adjacent unreadable addresses that failed for the same reason are reported as one failure.
+   *
+   * <p>A window that failed because the connection was lost is read again once {@code
+   * --persistent} has re-established the connection.
+   *
+   * @param client the connected client.
+   * @param unitId the target unit identifier.
+   * @param output the output context, for reporting reconnects.
+   * @param table the table being read.
+   * @param window the window that failed.
+   * @param failure the exception the window failed with.
+   * @param sink receives results for readable sub-ranges and failures for unreadable ones.
+   * @throws ModbusException if the failure is not recoverable or {@code --fail-fast} is set.
+   */
+  private void bisect(
+      ModbusClient client,
+      int unitId,
+      OutputContext output,
+      ModbusTable table,
+      Window window,
+      ModbusException failure,
+      ScanSink sink)
+      throws ModbusException {
+
+    if (failFast) {
+      throw failure;
+    }
+
+    if (!isRecoverable(failure)) {
+      // A lost connection aborts the scan, unless --persistent re-establishes it
+      if (!reconnect(client, output)) {
+        throw failure;
+      }
+      try {
+        byte[] data = table.read(client, unitId, window.address(), window.size());
+
+        sink.result(new ScanResult(table, window.address(), window.size(), data));
+      } catch (ModbusException e) {
+        bisect(client, unitId, output, table, window, e, sink);
+      }
+      return;
+    }
+
+    var failures = new ArrayList<ScanFailure>();
+    bisect(client, unitId, table, window, failure, sink, failures);
+    failures.forEach(sink::failure);
+  }
+
+  private void bisect(
+      ModbusClient client,
+      int unitId,
+      ModbusTable table,
+      Window window,
+      ModbusException failure,
+      ScanSink sink,
+      List<ScanFailure> failures)
+      throws ModbusException {
+
+    if (window.size() == 1) {
+      appendFailure(failures, table, window.address(), failure.getMessage());
+      return;
+    }
+
+    int half = window.size() / 2;
+    for (Window part :
+        List.of(
+            new Window(window.address(), half),
+            new Window(window.address() + half, window.size() - half))) {
+
+      try {
+        byte[] data = table.read(client, unitId, part.address(), part.size());
+
+        sink.result(new ScanResult(table, part.address(), part.size(), data));
+      } catch (ModbusResponseException | ModbusTimeoutException e) {
+        bisect(client, unitId, table, part, e, sink, failures);
+      }
+    }
+  }
+
+  /**
+   * Records an unreadable address, extending the last failure instead if it ends immediately
+   * before {@code address} and failed for the same reason.
+   *
+   * @param failures the failures recorded so far, in address order.
+   * @param table the table being read.
+   * @param address the unreadable address.
+   * @param reason why the address could not be read.
+   */
+  private static void appendFailure(
+      List<ScanFailure> failures, ModbusTable table, int address, @Nullable String reason) {
+
+    @Nullable ScanFailure last = failures.isEmpty() ? null : failures.getLast();
+    if (last != null
+        && last.address() + last.quantity() == address
+        && Objects.equals(last.reason(), reason)) {
+      failures.set(
+          failures.size() - 1,
+          new ScanFailure(table, last.address(), last.quantity() + 1, reason));
+    } else {
+      failures.add(new ScanFailure(table, address, 1, reason));
+    }
+  }
+
+  /**
+   * Re-establishes the connection after a failed read, if it was lost and {@code --persistent} is
+   * set.
+   *
+   * @param client the client whose read failed.
+   * @param output the output context, for reporting reconnects.
+   * @return {@code true} if the connection was lost and has been re-established.
+   */
+  private boolean reconnect(ModbusClient client, OutputContext output) {
+    return clientCommand.shouldReconnect(client) && clientCommand.reconnect(client, output, null);
+  }
+
+  /**
+   * Whether a failed window should be bisected rather than aborting the scan. Exception responses
+   * and timeouts are specific to the addresses requested; anything else, such as a lost
+   * connection, would fail every subsequent window too.
+   */
+  private static boolean isRecoverable(ModbusException failure) {
+    return failure instanceof ModbusResponseException || failure instanceof ModbusTimeoutException;
+  }
+
+  /**
+   * Splits windows into {@code count} contiguous, nearly equal shards.
+   *
+   * @param windows the windows to split.
+   * @param count the number of shards.
+   * @return the shards, in order.
+   */
+  private static List<List<Window>> partition(List<Window> windows, int count) {
+    var shards = new ArrayList<List<Window>>(count);
+    int base = windows.size() / count;
+    int remainder = windows.size() % count;
+
+    int from = 0;
+    for (int i = 0; i < count; i++) {
+      int to = from + base + (i < remainder ? 1 : 0);
+      shards.add(windows.subList(from, to));
+      from = to;
+    }
+    return shards;
+  }
+
+  /**
+   * A single read window.
+   *
+   * @param address the starting address of the window.
+   * @param size the number of registers or bits in the window.
+   */
+  private record Window(int address, int size) {}
+
+  /** Scans one shard of the range on the given connection. */
+  private interface ShardTask {
+
+    void scan(ModbusClient client, ScanSink sink) throws ModbusException;
+  }
+
+  /** Receives the outcome of each window as a shard is scanned. */
+  private interface ScanSink {
+
+    void result(ScanResult result);
+
+    void failure(ScanFailure failure);
+  }
+
+  /** Collects a shard's results and failures for rendering once the scan finishes. */
+  private record CollectingSink(List<ScanResult> results, List<ScanFailure> failures)
+      implements ScanSink {
+
+    CollectingSink() {
+      this(new ArrayList<>(), new ArrayList<>());
+    }
+
+    @Override
+    public void result(ScanResult result) {
+      results.add(result);
+    }
+
+    @Override
+    public void failure(ScanFailure failure) {
+      failures.add(failure);
+    }
+  }
+
+  /** Renders results and failures as soon as they are available, retaining nothing. */
+  private record StreamingSink(OutputContext output) implements ScanSink {
+
+    @Override
+    public void result(ScanResult result) {
+      output.scanWindow().result(result).timestamp(Instant.now()).render();
+    }
+
+    @Override
+    public void failure(ScanFailure failure) {
+      output.scanFailure().failure(failure).render();
+    }
   }
 
   /**
-   * Container for scan results, holding the starting address and register data for a single window.
+   * Container for scan results, holding the starting address and raw data for a single window.
    *
+   * @param table the table the window was read from.
    * @param address the starting address of this scan window.
-   * @param registers the raw register data read from this window (2 bytes per register,
-   *     big-endian).
+   * @param quantity the number of registers or bits in this window.
+   * @param data the raw data read from this window: 2 bytes per register (big-endian) for register
+   *     tables, or bits packed LSB-first for bit tables.
+   */
+  public record ScanResult(ModbusTable table, int address, int quantity, byte[] data) {
+
+    /**
+     * Splits the window's data into one value per address, starting at {@link #address()}.
+     *
+     * @return a 2-byte register value, or a 1-byte value of 0 or 1 for bit tables, per address.
+     */
+    public List<byte[]> values() {
+      return table.values(data, quantity);
+    }
+  }
+
+  /**
+   * A contiguous range of addresses that could not be read during a scan.
+   *
+   * @param table the table the range belongs to.
+   * @param address the first unreadable address.
+   * @param quantity the number of consecutive unreadable addresses.
+   * @param reason why the range could not be read, e.g. the exception response.
    */
-  public record ScanResult(int address, byte[] registers) {}
+  public record ScanFailure(
+      ModbusTable table, int address, int quantity, @Nullable String reason) {}
 }
@@ -0,0 +1,166 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.exceptions.ModbusExecutionException;
+import com.digitalpetri.modbus.exceptions.ModbusResponseException;
+import com.kevinherron.modbus.cli.output.OutputContext;
+import com.kevinherron.modbus.cli.util.EndpointParser;
+import com.kevinherron.modbus.cli.util.EndpointParser.Endpoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import org.jspecify.annotations.Nullable;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * Sweeps a range of TCP hosts for reachable Modbus servers.
+ *
+ * <p>The client endpoint is parsed as a host range by {@link EndpointParser#parseHosts}, e.g.
+ * {@code tcp:10.1.0.0/22} or {@code tcp:plc1,plc2:1502}. Every host is probed on its own virtual
+ * thread, with at most {@code --concurrency} probes outstanding at once so a large range doesn't
+ * exhaust file descriptors or flood the network.
+ *
+ * <p>Each probe connects to the host and, if the connection is accepted, sends a Read Holding
+ * Registers request for address 0 to {@code --unit-id}. A host that accepts the connection is
+ * reachable; it is a Modbus server if it answers the request, even with an exception response.
+ * Both the connect and the request are bounded by {@code --probe-timeout}, which replaces {@code
+ * --timeout} for this command.
+ *
+ * <p>This command is invoked using {@code sweep} (e.g., {@code modbus client tcp:10.1.0.0/22
+ * sweep}).
+ */
+@Command(name = "sweep", description = "sweep a range of TCP hosts for Modbus servers")
+public class SweepCommand implements Runnable {
+
+  /** Maximum number of hosts probed at once. */
+  @Option(
+      names = "--concurrency",
+      description = "maximum number of hosts to probe at once (default: 256)")
+  int concurrency = 256;
+
+  /** Timeout for each host's connect and probe request, in milliseconds. */
+  @Option(
+      names = "--probe-timeout",
+      description = "timeout in milliseconds to connect to and probe each host (default: 1000ms)")
+  int probeTimeout = 1000;
+
+  @ParentCommand ClientCommand clientCommand;
+
+  @Override
+  public void run() {
+    OutputContext output = clientCommand.parent.createOutputContext();
+
+    try {
+      List<Endpoint.Tcp> hosts =
+          EndpointParser.parseHosts(clientCommand.endpoint, clientCommand.port);
+
+      output.info("Sweeping %d host(s), %d at a time", hosts.size(), Math.max(1, concurrency));
+
+      long started = System.nanoTime();
+      List<SweepResult> reachable = sweep(hosts);
+      Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+      long servers = reachable.stream().filter(SweepResult::modbus).count();
+      output.info(
+          "Swept %d host(s) in %d ms; %d reachable, %d Modbus server(s)",
+          hosts.size(), elapsed.toMillis(), reachable.size(), servers);
+
+      if (reachable.isEmpty()) {
+        output.warning("No hosts reachable");
+      }
+      output.sweep().results(reachable).render();
+    } catch (Exception e) {
+      clientCommand.handleException(e, output);
+    }
+  }
+
+  /**
+   * Probes every host concurrently, each on its own virtual thread in one {@link TaskScope}, with
+   * at most {@code --concurrency} probes in flight.
+   *
+   * @param hosts the hosts to probe.
+   * @return the reachable hosts, in the same order as {@code hosts}.
+   * @throws ModbusException if interrupted while waiting for the probes.
+   */
+  private List<SweepResult> sweep(List<Endpoint.Tcp> hosts) throws ModbusException {
+    var permits = new Semaphore(Math.max(1, concurrency));
+
+    try (var scope = new TaskScope<@Nullable SweepResult>("modbus-sweep")) {
+      for (Endpoint.Tcp host : hosts) {
+        scope.fork(
+            () -> {
+              permits.acquire();
+              try {
+                return probe(host);
+              } finally {
+                permits.release();
+              }
+            });
+      }
+
+      var reachable = new ArrayList<SweepResult>();
+      for (SweepResult result : scope.join()) {
+        if (result != null) {
+          reachable.add(result);
+        }
+      }
+      return reachable;
+    }
+  }
+
+  /**
+   * Connects to a host and sends the probe request.
+   *
+   * @param host the host to probe.
+   * @return the probe result, or {@code null} if the host did not accept the connection.
+   */
+  private @Nullable SweepResult probe(Endpoint.Tcp host) {
+    // Every connection this command opens uses the probe timeout
+    ModbusClient client =
+        clientCommand.createTcpClient(host.hostname(), host.port(), probeTimeout);
+
+    long started = System.nanoTime();
+    try {
+      client.connect();
+    } catch (ModbusExecutionException e) {
+      ClientCommand.disconnectQuietly(client);
+      return null;
+    }
+    Duration latency = Duration.ofNanos(System.nanoTime() - started);
+
+    try {
+      ModbusTable.HOLDING_REGISTERS.read(client, clientCommand.unitId, 0, 1);
+      return new SweepResult(host.hostname(), host.port(), latency, true, null);
+    } catch (ModbusResponseException e) {
+      return new SweepResult(host.hostname(), host.port(), latency, true, e.getMessage());
+    } catch (ModbusException e) {
+      return new SweepResult(
+          host.hostname(),
+          host.port(),
+          latency,
+          false,
+          Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()));
+    } finally {
+      ClientCommand.disconnectQuietly(client);
+    }
+  }
+
+  /**
+   * A host that accepted a connection during a sweep.
+   *
+   * @param hostname the host address.
+   * @param port the TCP port.
+   * @param latency the time taken to establish the connection.
+   * @param modbus whether the host answered the Modbus probe request, normally or with an exception
+   *     response.
+   * @param detail the exception response the host answered with, or why it didn't answer; {@code
+   *     null} if it answered normally.
+   */
+  public record SweepResult(
+      String hostname, int port, Duration latency, boolean modbus, @Nullable String detail) {}
+}
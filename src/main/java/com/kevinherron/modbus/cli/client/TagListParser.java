@@ -0,0 +1,186 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.kevinherron.modbus.cli.client.PollCommand.Tag;
+import com.kevinherron.modbus.cli.util.EndpointParser;
+import com.kevinherron.modbus.cli.util.EndpointParser.Endpoint;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Parses a CSV tag list for the {@link PollCommand poll} command.
+ *
+ * <p>Each line describes one tag, a contiguous block of values to poll:
+ *
+ * <pre>
+ * # name, endpoint, unit, table, address, quantity, interval
+ * flow,       ,              1, holding,  0, 2, 500
+ * alarms,     tcp:plc2:1502, 3, coils,   16, 8
+ * temperature,rtu:/dev/ttyUSB0, 7, input, 100
+ * </pre>
+ *
+ * <ul>
+ *   <li>{@code name} — a unique name identifying the tag in the output.
+ *   <li>{@code endpoint} — the endpoint to poll, in any form accepted by {@link
+ *       EndpointParser#parse}; empty for the command's own endpoint.
+ *   <li>{@code unit} — the unit ID; empty for {@code --unit-id}.
+ *   <li>{@code table} — {@code coils}, {@code discrete}, {@code holding} or {@code input}.
+ *   <li>{@code address} — the starting address.
+ *   <li>{@code quantity} — optional number of bits or registers, default 1.
+ *   <li>{@code interval} — optional polling interval in milliseconds, default {@code --interval}.
+ * </ul>
+ *
+ * <p>Blank lines and lines starting with {@code #} are ignored, as is a header line whose first
+ * column is {@code name}.
+ */
+final class TagListParser {
+
+  private static final int REQUIRED_COLUMNS = 5;
+  private static final int MAX_COLUMNS = 7;
+
+  private TagListParser() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Reads and parses a tag list file.
+   *
+   * @param path the tag list file.
+   * @param defaultEndpoint the endpoint for tags that don't name one.
+   * @param defaultUnitId the unit ID for tags that don't give one.
+   * @param defaultInterval the polling interval for tags that don't give one.
+   * @return the tags, in file order.
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalArgumentException if the tag list is invalid.
+   */
+  static List<Tag> read(
+      Path path, Endpoint defaultEndpoint, int defaultUnitId, Duration defaultInterval)
+      throws IOException {
+
+    try (BufferedReader reader = Files.newBufferedReader(path)) {
+      return parse(reader, defaultEndpoint, defaultUnitId, defaultInterval);
+    }
+  }
+
+  /**
+   * Parses a tag list.
+   *
+   * @param reader the tag list contents.
+   * @param defaultEndpoint the endpoint for tags that don't name one.
+   * @param defaultUnitId the unit ID for tags that don't give one.
+   * @param defaultInterval the polling interval for tags that don't give one.
+   * @return the tags, in the order they were listed.
+   * @throws IOException if the tag list cannot be read.
+   * @throws IllegalArgumentException if the tag list is invalid.
+   */
+  static List<Tag> parse(
+      Reader reader, Endpoint defaultEndpoint, int defaultUnitId, Duration defaultInterval)
+      throws IOException {
+
+    var tags = new ArrayList<Tag>();
+    var names = new HashSet<String>();
+
+    var lines = new BufferedReader(reader);
+    String line;
+    int lineNumber = 0;
+
+    while ((line = lines.readLine()) != null) {
+      lineNumber++;
+
+      String trimmed = line.strip();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+
+      String[] columns = trimmed.split(",", -1);
+      for (int i = 0; i < columns.length; i++) {
+        columns[i] = columns[i].strip();
+      }
+
+      if (tags.isEmpty() && columns[0].equalsIgnoreCase("name")) {
+        continue;
+      }
+
+      try {
+        Tag tag = parseTag(columns, defaultEndpoint, defaultUnitId, defaultInterval);
+        if (!names.add(tag.name())) {
+          throw new IllegalArgumentException("duplicate tag name '%s'".formatted(tag.name()));
+        }
+        tags.add(tag);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(
+            "tag list line %d: %s".formatted(lineNumber, e.getMessage()), e);
+      }
+    }
+
+    return tags;
+  }
+
+  private static Tag parseTag(
+      String[] columns, Endpoint defaultEndpoint, int defaultUnitId, Duration defaultInterval) {
+
+    if (columns.length < REQUIRED_COLUMNS || columns.length > MAX_COLUMNS) {
+      throw new IllegalArgumentException(
+          ("expected %d to %d columns (name, endpoint, unit, table, address[, quantity[,"
+                  + " interval]]), got %d")
+              .formatted(REQUIRED_COLUMNS, MAX_COLUMNS, columns.length));
+    }
+
+    String name = columns[0];
+    if (name.isEmpty()) {
+      throw new IllegalArgumentException("tag name must not be empty");
+    }
+
+    // Tag endpoints carry their own port; --port only applies to the command's endpoint
+    Endpoint endpoint =
+        columns[1].isEmpty() ? defaultEndpoint : EndpointParser.parse(columns[1], null);
+
+    int unitId = columns[2].isEmpty() ? defaultUnitId : parseInt(columns[2], "unit");
+    ModbusTable table = ModbusTable.fromCliName(columns[3]);
+    int address = parseInt(columns[4], "address");
+    int quantity = optionalColumn(columns, 5).isEmpty() ? 1 : parseInt(columns[5], "quantity");
+    Duration interval =
+        optionalColumn(columns, 6).isEmpty()
+            ? defaultInterval
+            : Duration.ofMillis(parseInt(columns[6], "interval"));
+
+    if (unitId < 0 || unitId > 255) {
+      throw new IllegalArgumentException("unit ID %d out of range 0-255".formatted(unitId));
+    }
+    if (address < 0 || address > 0xFFFF) {
+      throw new IllegalArgumentException("address %d out of range 0-65535".formatted(address));
+    }
+    if (quantity < 1 || quantity > table.maxReadQuantity()) {
+      throw new IllegalArgumentException(
+          "quantity %d out of range 1-%d for %s"
+              .formatted(quantity, table.maxReadQuantity(), table.cliName()));
+    }
+    if (address + quantity > 0x10000) {
+      throw new IllegalArgumentException(
+          "address %d + quantity %d exceeds the address space".formatted(address, quantity));
+    }
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException("interval must be positive");
+    }
+
+    return new Tag(name, endpoint, unitId, table, address, quantity, interval);
+  }
+
+  private static String optionalColumn(String[] columns, int index) {
+    return index < columns.length ? columns[index] : "";
+  }
+
+  private static int parseInt(String value, String column) {
+    try {
+      return Integer.decode(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("invalid %s '%s'".formatted(column, value), e);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.kevinherron.modbus.cli.client;
+
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.exceptions.ModbusExecutionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a group of concurrent tasks, each on its own virtual thread, as one unit of work.
+ *
+ * <p>Tasks are {@link #fork forked} into the scope and {@link #join joined} together. The first
+ * task to fail cancels every other task in the scope, interrupting its thread, and its failure is
+ * thrown from {@code join}, whichever order the tasks were forked in. If the thread calling {@code
+ * join} is interrupted, the tasks are cancelled too. Closing the scope cancels anything still
+ * running and waits for every task's thread to finish, so no task outlives the scope.
+ *
+ * <p>This follows {@code StructuredTaskScope} with a shut-down-on-failure policy, which is still a
+ * preview API in Java 25 and so built here on a virtual-thread-per-task executor instead.
+ *
+ * @param <T> the result type of each task.
+ */
+final class TaskScope<T> implements AutoCloseable {
+
+  private final List<Future<T>> futures = new ArrayList<>();
+
+  private final ExecutorService executor;
+  private final CompletionService<T> completion;
+
+  /**
+   * Creates a scope whose task threads are named {@code name-0}, {@code name-1}, and so on.
+   *
+   * @param name the thread name prefix, e.g. the command or device the tasks belong to.
+   */
+  TaskScope(String name) {
+    this.executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    this.completion = new ExecutorCompletionService<>(executor);
+  }
+
+  /**
+   * Starts a task on its own virtual thread.
+   *
+   * @param task the task.
+   */
+  void fork(Callable<T> task) {
+    futures.add(completion.submit(task));
+  }
+
+  /**
+   * Waits for every forked task to complete.
+   *
+   * @return each task's result, in the order the tasks were forked.
+   * @throws ModbusException the first task failure, unwrapped as by {@link RequestPipeline#unwrap},
+   *     or a {@link ModbusExecutionException} if interrupted while waiting.
+   * @throws RuntimeException the first task failure, if it was unchecked.
+   */
+  List<T> join() throws ModbusException {
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        Future<T> done = completion.take();
+        try {
+          done.get();
+        } catch (ExecutionException e) {
+          cancel();
+          if (e.getCause() instanceof RuntimeException re) {
+            throw re;
+          }
+          throw RequestPipeline.unwrap(e.getCause());
+        }
+      }
+
+      var results = new ArrayList<T>(futures.size());
+      for (Future<T> future : futures) {
+        results.add(future.resultNow());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel();
+      throw new ModbusExecutionException(e);
+    }
+  }
+
+  /** Cancels every task that hasn't completed, interrupting its thread. */
+  void cancel() {
+    futures.forEach(f -> f.cancel(true));
+  }
+
+  /** Cancels every task that hasn't completed and waits for all task threads to finish. */
+  @Override
+  public void close() {
+    cancel();
+    executor.close();
+  }
+}
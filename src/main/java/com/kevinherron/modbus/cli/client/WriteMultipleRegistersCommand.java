@@ -1,29 +1,35 @@
 package com.kevinherron.modbus.cli.client;
 
 import com.digitalpetri.modbus.client.ModbusClient;
-import com.digitalpetri.modbus.pdu.WriteMultipleRegistersRequest;
-import com.digitalpetri.modbus.pdu.WriteMultipleRegistersResponse;
-import com.kevinherron.modbus.cli.output.Direction;
 import com.kevinherron.modbus.cli.output.OutputContext;
+import com.kevinherron.modbus.cli.util.RegisterCodec;
 import com.kevinherron.modbus.cli.util.ValueParser;
-import java.time.Instant;
+import java.util.List;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 import picocli.CommandLine.ParentCommand;
 
 /**
  * Implements the Modbus function code 16 (Write Multiple Registers) operation.
  *
- * <p>This command writes multiple consecutive holding registers in a single transaction. Holding
- * registers are 16-bit read/write values commonly used for configuration settings, setpoints, and
- * other numeric data.
+ * <p>This command writes multiple consecutive holding registers. Holding registers are 16-bit
+ * read/write values commonly used for configuration settings, setpoints, and other numeric data.
  *
- * <p>This command is invoked using {@code wmr} (e.g., {@code modbus client wmr 0 3 100,0x64,200}).
+ * <p>This command is invoked using {@code wmr} (e.g., {@code modbus client wmr 0 3 100,0x64,200}),
+ * or with the values read from a file or standard input (e.g., {@code modbus client wmr 0 -f
+ * recipe.txt}). Up to 123 values are written in a single transaction; longer lists are split into
+ * consecutive requests by {@link ChunkedWriter}, pipelined per {@code --pipeline}.
  *
  * <p>Register values are encoded in big-endian byte order per the Modbus protocol: the high byte is
  * transmitted first, followed by the low byte. Each 16-bit register value is converted to 2 bytes
  * using {@code (value >> 8) & 0xFF} for the high byte and {@code value & 0xFF} for the low byte.
  *
+ * <p>With {@code --type}, the values are typed values instead, e.g. {@code --type float32} writes
+ * each value to a pair of registers in the word order given by {@code --word-order}. The quantity
+ * is then the number of registers the values span.
+ *
  * @see WriteSingleRegisterCommand for writing a single register (function code 06)
  * @see ReadHoldingRegistersCommand for reading holding registers (function code 03)
  */
@@ -34,9 +40,12 @@ class WriteMultipleRegistersCommand implements Runnable {
   @Parameters(index = "0", description = "starting address")
   int address;
 
-  /** The number of consecutive registers to write. Must match the number of values provided. */
-  @Parameters(index = "1", description = "quantity of registers")
-  int quantity;
+  /**
+   * The number of consecutive registers to write. Must match the number of values provided.
+   * Optional when the values are read from a file.
+   */
+  @Parameters(index = "1", arity = "0..1", description = "quantity of registers")
+  Integer quantity;
 
   /**
    * Comma-separated register values to write. Accepts decimal (e.g., {@code 1234}) or hexadecimal
@@ -45,37 +54,51 @@ class WriteMultipleRegistersCommand implements Runnable {
    */
   @Parameters(
       index = "2",
+      arity = "0..1",
       description = "register values (comma-separated, decimal or hex, e.g., 100,0x64,200)")
   String values;
 
+  /**
+   * A file of register values to write instead of {@link #values}, or {@code -} for standard
+   * input. Values may be separated by commas, whitespace, or newlines, and {@code #} starts a
+   * comment.
+   */
+  @Option(
+      names = {"-f", "--file"},
+      description = "read register values from a file, or - for stdin")
+  String file;
+
+  /** How the values are encoded into registers, e.g. {@code --type float32}. */
+  @Mixin DataTypeOptions dataTypeOptions;
+
   @ParentCommand ClientCommand clientCommand;
 
   @Override
   public void run() {
     clientCommand.runWithClient(
         (ModbusClient client, int unitId, OutputContext output) -> {
-          String[] valueStrings = values.split(",");
-          if (valueStrings.length != quantity) {
-            throw new IllegalArgumentException(
-                "number of values (%d) does not match quantity (%d)"
-                    .formatted(valueStrings.length, quantity));
-          }
-
-          byte[] registerValues = new byte[quantity * 2];
-          for (int i = 0; i < quantity; i++) {
-            int value = ValueParser.parseRegisterValue(valueStrings[i].trim());
-            registerValues[i * 2] = (byte) ((value >> 8) & 0xFF);
-            registerValues[i * 2 + 1] = (byte) (value & 0xFF);
-          }
-
-          var request = new WriteMultipleRegistersRequest(address, quantity, registerValues);
+          RegisterCodec codec = dataTypeOptions.codec();
 
-          output.protocol(request, Direction.SENT, null);
+          byte[] registers;
+          if (codec != null) {
+            registers =
+                DataTypeOptions.encode(
+                    codec, values, file, quantity, clientCommand.parent.stdin());
+          } else {
+            List<String> valueStrings =
+                ChunkedWriter.valueStrings(values, file, quantity, clientCommand.parent.stdin());
 
-          WriteMultipleRegistersResponse response = client.writeMultipleRegisters(unitId, request);
-          Instant responseTime = Instant.now();
+            // Only the low 16 bits of each value are written
+            registers = new byte[valueStrings.size() * 2];
+            for (int i = 0; i < valueStrings.size(); i++) {
+              int value = ValueParser.parseRegisterValue(valueStrings.get(i));
+              registers[i * 2] = (byte) ((value >> 8) & 0xFF);
+              registers[i * 2 + 1] = (byte) (value & 0xFF);
+            }
+          }
 
-          output.protocol(response, Direction.RECEIVED, responseTime);
+          ChunkedWriter.writeRegisters(
+              client, clientCommand.createPipeline(client), unitId, address, registers, output);
         });
   }
 }
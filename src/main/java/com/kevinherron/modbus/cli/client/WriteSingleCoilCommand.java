@@ -3,6 +3,7 @@ package com.kevinherron.modbus.cli.client;
 import com.digitalpetri.modbus.client.ModbusClient;
 import com.digitalpetri.modbus.pdu.WriteSingleCoilRequest;
 import com.digitalpetri.modbus.pdu.WriteSingleCoilResponse;
+import com.kevinherron.modbus.cli.client.RequestLimiter.Lane;
 import com.kevinherron.modbus.cli.output.Direction;
 import com.kevinherron.modbus.cli.output.OutputContext;
 import com.kevinherron.modbus.cli.util.ValueParser;
@@ -49,7 +50,9 @@ class WriteSingleCoilCommand implements Runnable {
 
           output.protocol(request, Direction.SENT, null);
 
-          WriteSingleCoilResponse response = client.writeSingleCoil(unitId, request);
+          WriteSingleCoilResponse response =
+              RequestLimiter.of(client)
+                  .run(unitId, Lane.FOREGROUND, () -> client.writeSingleCoil(unitId, request));
           Instant responseTime = Instant.now();
 
           output.protocol(response, Direction.RECEIVED, responseTime);
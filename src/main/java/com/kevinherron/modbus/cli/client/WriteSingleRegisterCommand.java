@@ -3,6 +3,7 @@ package com.kevinherron.modbus.cli.client;
 import com.digitalpetri.modbus.client.ModbusClient;
 import com.digitalpetri.modbus.pdu.WriteSingleRegisterRequest;
 import com.digitalpetri.modbus.pdu.WriteSingleRegisterResponse;
+import com.kevinherron.modbus.cli.client.RequestLimiter.Lane;
 import com.kevinherron.modbus.cli.output.Direction;
 import com.kevinherron.modbus.cli.output.OutputContext;
 import com.kevinherron.modbus.cli.util.ValueParser;
@@ -48,7 +49,9 @@ class WriteSingleRegisterCommand implements Runnable {
 
           output.protocol(request, Direction.SENT, null);
 
-          WriteSingleRegisterResponse response = client.writeSingleRegister(unitId, request);
+          WriteSingleRegisterResponse response =
+              RequestLimiter.of(client)
+                  .run(unitId, Lane.FOREGROUND, () -> client.writeSingleRegister(unitId, request));
           Instant responseTime = Instant.now();
 
           output.protocol(response, Direction.RECEIVED, responseTime);
@@ -0,0 +1,146 @@
+package com.kevinherron.modbus.cli.daemon;
+
+import com.kevinherron.modbus.cli.daemon.DaemonProtocol.Frame;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.OptionalInt;
+
+/**
+ * The thin client that forwards a command line to a running {@link DaemonServer} instead of
+ * executing it in this JVM.
+ *
+ * <p>{@code Modbus.main} calls {@link #forwardIfConfigured} before any other setup. When the
+ * {@code MODBUS_DAEMON_SOCKET} environment variable is set (to a socket path, or empty for the
+ * default path) and a daemon is listening on it, the arguments and standard input are forwarded
+ * and the daemon's output is copied to this process's standard output and error as it arrives.
+ * Otherwise the command runs locally as usual.
+ */
+public final class DaemonClient {
+
+  private DaemonClient() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Forwards a command line to the daemon named by {@code MODBUS_DAEMON_SOCKET}, if it is set and
+   * the daemon is reachable.
+   *
+   * @param args the command line.
+   * @return the command's exit code, or empty if the command wasn't forwarded and should run
+   *     locally.
+   */
+  public static OptionalInt forwardIfConfigured(String[] args) {
+    String socketEnv = System.getenv(DaemonProtocol.SOCKET_ENV);
+    if (socketEnv == null || (args.length > 0 && args[0].equals("daemon"))) {
+      return OptionalInt.empty();
+    }
+
+    Path socket = socketEnv.isBlank() ? DaemonProtocol.defaultSocket() : Path.of(socketEnv);
+
+    SocketChannel channel;
+    try {
+      channel = SocketChannel.open(UnixDomainSocketAddress.of(socket));
+    } catch (IOException e) {
+      // No daemon running; run the command locally
+      return OptionalInt.empty();
+    }
+
+    try {
+      return OptionalInt.of(forward(channel, args, System.in, System.out, System.err));
+    } catch (IOException e) {
+      System.err.println("Lost connection to the daemon on %s: %s".formatted(socket, e));
+      return OptionalInt.of(1);
+    }
+  }
+
+  /**
+   * Forwards a command line to the daemon listening on {@code socket}.
+   *
+   * @param socket the daemon's socket path.
+   * @param args the command line.
+   * @param stdin the input forwarded as the command's standard input.
+   * @param stdout where the command's standard output is copied.
+   * @param stderr where the command's standard error is copied.
+   * @return the command's exit code.
+   * @throws IOException if the daemon can't be reached, or the connection fails.
+   */
+  public static int forward(
+      Path socket, String[] args, InputStream stdin, PrintStream stdout, PrintStream stderr)
+      throws IOException {
+
+    return forward(
+        SocketChannel.open(UnixDomainSocketAddress.of(socket)), args, stdin, stdout, stderr);
+  }
+
+  private static int forward(
+      SocketChannel channel,
+      String[] args,
+      InputStream stdin,
+      PrintStream stdout,
+      PrintStream stderr)
+      throws IOException {
+
+    try (channel) {
+      var in = new DataInputStream(new BufferedInputStream(DaemonProtocol.inputStream(channel)));
+      var out =
+          new DataOutputStream(new BufferedOutputStream(DaemonProtocol.outputStream(channel)));
+
+      synchronized (out) {
+        out.writeInt(args.length);
+        for (String arg : args) {
+          out.writeUTF(arg);
+        }
+        out.flush();
+      }
+
+      // Standard input is pumped on a daemon thread, since it may never be read or closed
+      Thread.ofPlatform().daemon().name("modbus-daemon-stdin").start(() -> pump(stdin, out));
+
+      Frame frame;
+      while ((frame = DaemonProtocol.readFrame(in)) != null) {
+        switch (frame.type()) {
+          case DaemonProtocol.STDOUT -> {
+            stdout.write(frame.payload());
+            stdout.flush();
+          }
+          case DaemonProtocol.STDERR -> {
+            stderr.write(frame.payload());
+            stderr.flush();
+          }
+          case DaemonProtocol.EXIT -> {
+            return ByteBuffer.wrap(frame.payload()).getInt();
+          }
+          default -> {}
+        }
+      }
+
+      throw new EOFException("the daemon closed the connection without an exit code");
+    }
+  }
+
+  /** Copies standard input to the daemon until it ends or the connection closes. */
+  private static void pump(InputStream stdin, DataOutputStream out) {
+    var buffer = new byte[8192];
+    try {
+      int n;
+      while ((n = stdin.read(buffer)) >= 0) {
+        if (n > 0) {
+          DaemonProtocol.writeFrame(out, DaemonProtocol.STDIN, buffer, 0, n);
+        }
+      }
+      DaemonProtocol.writeFrame(out, DaemonProtocol.STDIN_EOF, buffer, 0, 0);
+    } catch (IOException ignored) {
+      // The command finished and the connection closed
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.kevinherron.modbus.cli.daemon;
+
+import com.kevinherron.modbus.cli.ModbusCommand;
+import com.kevinherron.modbus.cli.client.ConnectionPool;
+import com.kevinherron.modbus.cli.output.OutputContext;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.Duration;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * Runs a long-lived daemon that executes commands forwarded over a Unix domain socket, so repeated
+ * invocations skip JVM startup and command setup.
+ *
+ * <p>While the daemon runs, any {@code modbus} invocation with the {@code MODBUS_DAEMON_SOCKET}
+ * environment variable set to its socket path (or empty, for the default path) forwards its
+ * arguments and standard input to the daemon through {@link DaemonClient} and streams the output
+ * back. The daemon runs until interrupted, removing its socket file on shutdown.
+ *
+ * <p>Client connections are held in a {@link ConnectionPool} shared by every forwarded command, so
+ * commands to the same endpoint with the same settings reuse a connection instead of opening one
+ * each. Idle connections are closed after {@code --idle-timeout}, and at most {@code
+ * --max-connections-per-host} are open to one host at once, and one to a serial port.
+ *
+ * <p>This command is invoked using {@code daemon} (e.g., {@code modbus daemon --socket
+ * /tmp/modbus.sock}).
+ */
+@Command(name = "daemon", description = "run commands forwarded over a local socket")
+public class DaemonCommand implements Runnable {
+
+  @ParentCommand ModbusCommand parent;
+
+  /** The Unix domain socket to listen on. */
+  @Option(
+      names = {"--socket"},
+      description = "Unix domain socket path (default: modbus-<user>.sock in the temp directory)")
+  Path socket;
+
+  /** How long a pooled connection may sit unused before it is closed, in milliseconds. */
+  @Option(
+      names = {"--idle-timeout"},
+      description = "close pooled connections unused for this many milliseconds (default: 60000)")
+  int idleTimeout = 60_000;
+
+  /** The most pooled connections open at once to one host. */
+  @Option(
+      names = {"--max-connections-per-host"},
+      description = "most pooled connections open at once to one TCP host (default: 4)")
+  int maxConnectionsPerHost = 4;
+
+  @Override
+  public void run() {
+    OutputContext output = parent.createOutputContext();
+
+    Path resolvedSocket = socket != null ? socket : DaemonProtocol.defaultSocket();
+
+    var pool = new ConnectionPool(Duration.ofMillis(idleTimeout), maxConnectionsPerHost);
+    ConnectionPool.setShared(pool);
+
+    try {
+      DaemonServer server = DaemonServer.start(resolvedSocket);
+
+      Runtime.getRuntime()
+          .addShutdownHook(
+              new Thread(
+                  () -> {
+                    try {
+                      server.close();
+                    } catch (IOException ignored) {
+                    } finally {
+                      pool.close();
+                    }
+                  }));
+
+      output.success("Modbus daemon listening on %s", resolvedSocket);
+      output.info("Forward commands with %s=%s", DaemonProtocol.SOCKET_ENV, resolvedSocket);
+
+      Thread.sleep(Long.MAX_VALUE);
+    } catch (IOException | InterruptedException e) {
+      ConnectionPool.setShared(null);
+      pool.close();
+
+      if (parent.verbose) {
+        var sw = new StringWriter();
+        e.printStackTrace(new PrintWriter(sw));
+        output.error("%s", sw.toString());
+      } else {
+        output.error("%s", e.getMessage());
+      }
+    }
+  }
+}
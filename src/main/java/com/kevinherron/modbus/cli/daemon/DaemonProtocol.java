@@ -0,0 +1,182 @@
+package com.kevinherron.modbus.cli.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * The wire protocol between {@link DaemonClient} and {@link DaemonServer}.
+ *
+ * <p>A request starts with the argument count followed by each argument in {@link
+ * DataOutputStream#writeUTF modified UTF-8}. After that, both sides exchange frames: a 1-byte frame
+ * type, a 4-byte payload length, and the payload. The client sends {@link #STDIN} frames carrying
+ * its standard input, ended by a {@link #STDIN_EOF} frame. The daemon sends {@link #STDOUT} and
+ * {@link #STDERR} frames as the command writes output, and a final {@link #EXIT} frame whose
+ * payload is the 4-byte exit code.
+ */
+final class DaemonProtocol {
+
+  /** Environment variable naming the socket through which commands are forwarded to a daemon. */
+  static final String SOCKET_ENV = "MODBUS_DAEMON_SOCKET";
+
+  static final byte STDOUT = 1;
+  static final byte STDERR = 2;
+  static final byte EXIT = 3;
+  static final byte STDIN = 4;
+  static final byte STDIN_EOF = 5;
+
+  private DaemonProtocol() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Returns the socket path used when none is given: {@code modbus-<user>.sock} in the temporary
+   * directory.
+   *
+   * @return the default socket path.
+   */
+  static Path defaultSocket() {
+    return Path.of(
+        System.getProperty("java.io.tmpdir"),
+        "modbus-%s.sock".formatted(System.getProperty("user.name")));
+  }
+
+  /**
+   * Returns an unbuffered stream reading from a socket channel.
+   *
+   * <p>Unlike {@link java.nio.channels.Channels#newInputStream}, reads don't hold the channel's
+   * blocking lock, so one thread can block reading while another writes.
+   *
+   * @param channel the connected channel.
+   * @return the stream.
+   */
+  static InputStream inputStream(SocketChannel channel) {
+    return new InputStream() {
+      @Override
+      public int read() throws IOException {
+        var b = new byte[1];
+        int n = read(b, 0, 1);
+        return n < 0 ? -1 : b[0] & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        int n;
+        do {
+          n = channel.read(ByteBuffer.wrap(b, off, len));
+        } while (n == 0);
+        return n;
+      }
+    };
+  }
+
+  /**
+   * Returns an unbuffered stream writing to a socket channel.
+   *
+   * @param channel the connected channel.
+   * @return the stream.
+   * @see #inputStream(SocketChannel)
+   */
+  static OutputStream outputStream(SocketChannel channel) {
+    return new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        var buffer = ByteBuffer.wrap(b, off, len);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+    };
+  }
+
+  /**
+   * Writes one frame and flushes it.
+   *
+   * @param out the stream to write to.
+   * @param type the frame type.
+   * @param payload the buffer holding the payload.
+   * @param offset the payload's offset in {@code payload}.
+   * @param length the payload's length.
+   * @throws IOException if the frame cannot be written.
+   */
+  static void writeFrame(DataOutputStream out, byte type, byte[] payload, int offset, int length)
+      throws IOException {
+
+    synchronized (out) {
+      out.writeByte(type);
+      out.writeInt(length);
+      out.write(payload, offset, length);
+      out.flush();
+    }
+  }
+
+  /**
+   * Reads one frame.
+   *
+   * @param in the stream to read from.
+   * @return the frame, or {@code null} if the stream ended between frames.
+   * @throws IOException if the frame cannot be read.
+   */
+  static Frame readFrame(DataInputStream in) throws IOException {
+    int type = in.read();
+    if (type < 0) {
+      return null;
+    }
+
+    int length = in.readInt();
+    if (length < 0) {
+      throw new EOFException("invalid frame length: " + length);
+    }
+
+    var payload = new byte[length];
+    in.readFully(payload);
+
+    return new Frame((byte) type, payload);
+  }
+
+  /**
+   * A frame read from the other side.
+   *
+   * @param type the frame type.
+   * @param payload the payload.
+   */
+  record Frame(byte type, byte[] payload) {}
+
+  /** An {@link OutputStream} that sends everything written to it as frames of one type. */
+  static final class FrameOutputStream extends OutputStream {
+
+    private final DataOutputStream out;
+    private final byte type;
+
+    FrameOutputStream(DataOutputStream out, byte type) {
+      this.out = out;
+      this.type = type;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (len > 0) {
+        writeFrame(out, type, b, off, len);
+      }
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package com.kevinherron.modbus.cli.daemon;
+
+import com.kevinherron.modbus.cli.ModbusCommand;
+import com.kevinherron.modbus.cli.daemon.DaemonProtocol.Frame;
+import com.kevinherron.modbus.cli.daemon.DaemonProtocol.FrameOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import picocli.CommandLine;
+
+/**
+ * Accepts commands forwarded by {@link DaemonClient} over a Unix domain socket and runs them in
+ * this JVM.
+ *
+ * <p>Each connection is one request, handled on its own virtual thread: the arguments are parsed
+ * and executed by a fresh {@link ModbusCommand} exactly as {@code Modbus.main} would, except that
+ * the command reads the forwarded standard input and its output is streamed back as it is written
+ * (see {@link DaemonProtocol}). Requests run concurrently and share nothing but the warm JVM. If
+ * the client disconnects before its command finishes, the command's thread is interrupted.
+ */
+public final class DaemonServer implements AutoCloseable {
+
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  private final Path socket;
+  private final ServerSocketChannel channel;
+
+  private DaemonServer(Path socket, ServerSocketChannel channel) {
+    this.socket = socket;
+    this.channel = channel;
+  }
+
+  /**
+   * Binds the socket and starts accepting requests.
+   *
+   * <p>A stale socket file left by a daemon that didn't shut down cleanly is replaced.
+   *
+   * @param socket the socket path.
+   * @return the running server.
+   * @throws IOException if the socket can't be bound, or another daemon is listening on it.
+   */
+  public static DaemonServer start(Path socket) throws IOException {
+    if (Files.exists(socket)) {
+      boolean listening;
+      try (var _ = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+        listening = true;
+      } catch (IOException e) {
+        listening = false;
+      }
+
+      if (listening) {
+        throw new IOException("a daemon is already listening on %s".formatted(socket));
+      }
+      Files.delete(socket);
+    }
+
+    var channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    channel.bind(UnixDomainSocketAddress.of(socket));
+
+    var server = new DaemonServer(socket, channel);
+    Thread.ofVirtual().name("modbus-daemon-accept").start(server::accept);
+
+    return server;
+  }
+
+  /** Returns the socket path the server is listening on. */
+  public Path socket() {
+    return socket;
+  }
+
+  /** Stops accepting requests, interrupts those running, and removes the socket file. */
+  @Override
+  public void close() throws IOException {
+    try {
+      channel.close();
+      executor.shutdownNow();
+    } finally {
+      Files.deleteIfExists(socket);
+    }
+  }
+
+  private void accept() {
+    while (channel.isOpen()) {
+      try {
+        SocketChannel client = channel.accept();
+        executor.execute(() -> handle(client));
+      } catch (ClosedChannelException e) {
+        return;
+      } catch (IOException e) {
+        if (!channel.isOpen()) {
+          return;
+        }
+      }
+    }
+  }
+
+  /** Runs one forwarded command and streams its output back. */
+  private void handle(SocketChannel client) {
+    try (client) {
+      var in = new DataInputStream(new BufferedInputStream(DaemonProtocol.inputStream(client)));
+      var out = new DataOutputStream(new BufferedOutputStream(DaemonProtocol.outputStream(client)));
+
+      var args = new String[in.readInt()];
+      for (int i = 0; i < args.length; i++) {
+        args[i] = in.readUTF();
+      }
+
+      var stdin = new ForwardedInputStream();
+      var finished = new AtomicBoolean(false);
+      Thread worker = Thread.currentThread();
+
+      Thread.ofVirtual()
+          .start(
+              () -> {
+                try {
+                  Frame frame;
+                  while ((frame = DaemonProtocol.readFrame(in)) != null) {
+                    switch (frame.type()) {
+                      case DaemonProtocol.STDIN -> stdin.offer(frame.payload());
+                      case DaemonProtocol.STDIN_EOF -> stdin.offer(new byte[0]);
+                      default -> {}
+                    }
+                  }
+                } catch (IOException ignored) {
+                  // The client went away
+                } finally {
+                  stdin.offer(new byte[0]);
+                  if (!finished.get()) {
+                    worker.interrupt();
+                  }
+                }
+              });
+
+      var stdout = frameStream(out, DaemonProtocol.STDOUT);
+      var stderr = frameStream(out, DaemonProtocol.STDERR);
+
+      int exitCode;
+      try {
+        exitCode = execute(args, stdin, stdout, stderr);
+      } finally {
+        finished.set(true);
+        stdout.flush();
+        stderr.flush();
+      }
+
+      byte[] code = ByteBuffer.allocate(4).putInt(exitCode).array();
+      DaemonProtocol.writeFrame(out, DaemonProtocol.EXIT, code, 0, code.length);
+    } catch (IOException ignored) {
+      // The client went away; there's no one left to report to
+    }
+  }
+
+  private static int execute(
+      String[] args, InputStream stdin, PrintStream stdout, PrintStream stderr) {
+
+    var command = new ModbusCommand(stdin, stdout, stderr);
+    var cmd = new CommandLine(command);
+    cmd.setOut(new PrintWriter(stdout, true));
+    cmd.setErr(new PrintWriter(stderr, true));
+
+    if (args.length == 0) {
+      cmd.usage(stdout);
+      return 0;
+    }
+
+    int exitCode = cmd.execute(args);
+    command.flushOutput();
+    return exitCode;
+  }
+
+  private static PrintStream frameStream(DataOutputStream out, byte type) {
+    return new PrintStream(
+        new BufferedOutputStream(new FrameOutputStream(out, type), 8192),
+        true,
+        StandardCharsets.UTF_8);
+  }
+
+  /** Standard input forwarded by the client, fed by the thread reading its frames. */
+  private static final class ForwardedInputStream extends InputStream {
+
+    /** Forwarded chunks in order; an empty chunk marks the end of input. */
+    private final LinkedBlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+
+    private byte[] current = new byte[0];
+    private int position = 0;
+    private boolean ended = false;
+
+    void offer(byte[] chunk) {
+      chunks.add(chunk);
+    }
+
+    @Override
+    public int read() throws IOException {
+      var b = new byte[1];
+      int n = read(b, 0, 1);
+      return n < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+
+      while (!ended && position == current.length) {
+        try {
+          current = chunks.take();
+          position = 0;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException();
+        }
+        if (current.length == 0) {
+          ended = true;
+        }
+      }
+
+      if (ended) {
+        return -1;
+      }
+
+      int n = Math.min(len, current.length - position);
+      System.arraycopy(current, position, b, off, n);
+      position += n;
+      return n;
+    }
+  }
+}
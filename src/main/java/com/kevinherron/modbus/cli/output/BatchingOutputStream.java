@@ -0,0 +1,129 @@
+package com.kevinherron.modbus.cli.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects output in a large buffer and writes it to the underlying stream in batches, so that
+ * high-rate output, e.g. polling every few milliseconds, isn't bound by a write system call per
+ * line or table cell.
+ *
+ * <p>The buffer is written out when it fills, when {@link #flush} is called, e.g. by {@link
+ * OutputContext#flush} at the end of each polling iteration, and at the latest {@code maxDelay}
+ * after the oldest output in it was written, by a shared background thread. Output is therefore
+ * never held back for long, even when nothing else is written after it.
+ */
+public final class BatchingOutputStream extends OutputStream {
+
+  /** The default buffer size: large enough for a full-size table, or many polling samples. */
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  /** The default longest time output waits in the buffer. */
+  public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(100);
+
+  /** Writes out buffers whose oldest output has waited {@code maxDelay}. */
+  private static final ScheduledExecutorService FLUSHER =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("modbus-output-flusher").daemon().factory());
+
+  private final OutputStream out;
+  private final byte[] buffer;
+  private final long maxDelayNanos;
+
+  private int count = 0;
+
+  /** Whether a delayed flush is pending for the output in the buffer. */
+  private boolean flushScheduled = false;
+
+  /**
+   * Creates a stream that batches writes to {@code out}.
+   *
+   * @param out the stream to write batches to.
+   * @param bufferSize the buffer size in bytes; output is written when it fills.
+   * @param maxDelay the longest time output waits in the buffer.
+   */
+  public BatchingOutputStream(OutputStream out, int bufferSize, Duration maxDelay) {
+    this.out = out;
+    this.buffer = new byte[bufferSize];
+    this.maxDelayNanos = maxDelay.toNanos();
+  }
+
+  /**
+   * Wraps {@code out} in a print stream that batches its output with the default buffer size and
+   * delay, in the same character set.
+   *
+   * @param out the stream to write batches to.
+   * @return the batching print stream.
+   */
+  public static PrintStream batching(PrintStream out) {
+    return new PrintStream(
+        new BatchingOutputStream(out, DEFAULT_BUFFER_SIZE, DEFAULT_MAX_DELAY),
+        false,
+        out.charset());
+  }
+
+  @Override
+  public synchronized void write(int b) throws IOException {
+    if (count == buffer.length) {
+      flushBuffer();
+    }
+    buffer[count++] = (byte) b;
+    scheduleFlush();
+  }
+
+  @Override
+  public synchronized void write(byte[] b, int off, int len) throws IOException {
+    if (len >= buffer.length) {
+      // Larger than the buffer: write it through after whatever is already buffered
+      flushBuffer();
+      out.write(b, off, len);
+      return;
+    }
+    if (len > buffer.length - count) {
+      flushBuffer();
+    }
+    System.arraycopy(b, off, buffer, count, len);
+    count += len;
+    scheduleFlush();
+  }
+
+  @Override
+  public synchronized void flush() throws IOException {
+    flushBuffer();
+    out.flush();
+  }
+
+  /** Flushes the buffer, but leaves the underlying stream, e.g. {@code System.out}, open. */
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+
+  private void flushBuffer() throws IOException {
+    if (count > 0) {
+      out.write(buffer, 0, count);
+      count = 0;
+    }
+  }
+
+  private void scheduleFlush() {
+    if (!flushScheduled && count > 0) {
+      flushScheduled = true;
+      FLUSHER.schedule(this::delayedFlush, maxDelayNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private synchronized void delayedFlush() {
+    flushScheduled = false;
+    try {
+      flush();
+    } catch (IOException ignored) {
+      // The next write reports the failure
+    }
+  }
+}
@@ -1,7 +1,13 @@
 package com.kevinherron.modbus.cli.output;
 
 import com.digitalpetri.modbus.pdu.ModbusPdu;
+import com.kevinherron.modbus.cli.client.ChangeDetector.ValueChange;
+import com.kevinherron.modbus.cli.client.DiscoverCommand.DiscoveredUnit;
+import com.kevinherron.modbus.cli.client.PollCommand.PollSample;
+import com.kevinherron.modbus.cli.client.ScanCommand.ScanFailure;
 import com.kevinherron.modbus.cli.client.ScanCommand.ScanResult;
+import com.kevinherron.modbus.cli.client.SweepCommand.SweepResult;
+import com.kevinherron.modbus.cli.util.RegisterCodec;
 import java.io.PrintStream;
 import java.time.Instant;
 import java.util.List;
@@ -21,6 +27,12 @@ public record DefaultOutputContext(
     formatter.setIteration(iteration);
   }
 
+  @Override
+  public void flush() {
+    stdout.flush();
+    stderr.flush();
+  }
+
   @Override
   public void protocol(ModbusPdu pdu, Direction direction, @Nullable Instant timestamp) {
     formatter.formatProtocol(stdout, pdu, direction, timestamp, options);
@@ -41,12 +53,15 @@ public record DefaultOutputContext(
   @Override
   public void warning(String format, Object... args) {
     String message = String.format(format, args);
+    // Write out buffered results first, so they stay ahead of it on a shared terminal
+    stdout.flush();
     formatter.formatMessage(stderr, OutputType.WARNING, message, options);
   }
 
   @Override
   public void error(String format, Object... args) {
     String message = String.format(format, args);
+    stdout.flush();
     formatter.formatMessage(stderr, OutputType.ERROR, message, options);
   }
 
@@ -60,14 +75,50 @@ public record DefaultOutputContext(
     return new CoilTableBuilderImpl();
   }
 
+  @Override
+  public ChangesBuilder registerChanges() {
+    return new ChangesBuilderImpl(false);
+  }
+
+  @Override
+  public ChangesBuilder coilChanges() {
+    return new ChangesBuilderImpl(true);
+  }
+
   @Override
   public ScanResultsBuilder scanResults() {
     return new ScanResultsBuilderImpl();
   }
 
+  @Override
+  public ScanWindowBuilder scanWindow() {
+    return new ScanWindowBuilderImpl();
+  }
+
+  @Override
+  public ScanFailureBuilder scanFailure() {
+    return new ScanFailureBuilderImpl();
+  }
+
+  @Override
+  public DiscoveryBuilder discovery() {
+    return new DiscoveryBuilderImpl();
+  }
+
+  @Override
+  public SweepBuilder sweep() {
+    return new SweepBuilderImpl();
+  }
+
+  @Override
+  public PollSampleBuilder pollSample() {
+    return new PollSampleBuilderImpl();
+  }
+
   private class RegisterTableBuilderImpl implements RegisterTableBuilder {
     private byte[] registers;
     private int startAddress;
+    private @Nullable RegisterCodec codec;
     private @Nullable Instant timestamp;
 
     @Override
@@ -82,6 +133,12 @@ public record DefaultOutputContext(
       return this;
     }
 
+    @Override
+    public RegisterTableBuilder codec(@Nullable RegisterCodec codec) {
+      this.codec = codec;
+      return this;
+    }
+
     @Override
     public RegisterTableBuilder timestamp(@Nullable Instant timestamp) {
       this.timestamp = timestamp;
@@ -90,7 +147,7 @@ public record DefaultOutputContext(
 
     @Override
     public void render() {
-      formatter.formatRegisterTable(stdout, registers, startAddress, timestamp, options);
+      formatter.formatRegisterTable(stdout, registers, startAddress, codec, timestamp, options);
     }
   }
 
@@ -130,6 +187,44 @@ public record DefaultOutputContext(
     }
   }
 
+  private class ChangesBuilderImpl implements ChangesBuilder {
+    private final boolean coils;
+    private List<ValueChange> changes;
+    private @Nullable RegisterCodec codec;
+    private @Nullable Instant timestamp;
+
+    ChangesBuilderImpl(boolean coils) {
+      this.coils = coils;
+    }
+
+    @Override
+    public ChangesBuilder changes(List<ValueChange> changes) {
+      this.changes = changes;
+      return this;
+    }
+
+    @Override
+    public ChangesBuilder codec(@Nullable RegisterCodec codec) {
+      this.codec = codec;
+      return this;
+    }
+
+    @Override
+    public ChangesBuilder timestamp(@Nullable Instant timestamp) {
+      this.timestamp = timestamp;
+      return this;
+    }
+
+    @Override
+    public void render() {
+      if (coils) {
+        formatter.formatCoilChanges(stdout, changes, timestamp, options);
+      } else {
+        formatter.formatRegisterChanges(stdout, changes, codec, timestamp, options);
+      }
+    }
+  }
+
   private class ScanResultsBuilderImpl implements ScanResultsBuilder {
     private List<ScanResult> results;
 
@@ -144,4 +239,93 @@ public record DefaultOutputContext(
       formatter.formatScanResults(stdout, results, options);
     }
   }
+
+  private class ScanWindowBuilderImpl implements ScanWindowBuilder {
+    private ScanResult result;
+    private @Nullable Instant timestamp;
+
+    @Override
+    public ScanWindowBuilder result(ScanResult result) {
+      this.result = result;
+      return this;
+    }
+
+    @Override
+    public ScanWindowBuilder timestamp(@Nullable Instant timestamp) {
+      this.timestamp = timestamp;
+      return this;
+    }
+
+    @Override
+    public void render() {
+      formatter.formatScanWindow(stdout, result, timestamp, options);
+    }
+  }
+
+  private class ScanFailureBuilderImpl implements ScanFailureBuilder {
+    private ScanFailure failure;
+
+    @Override
+    public ScanFailureBuilder failure(ScanFailure failure) {
+      this.failure = failure;
+      return this;
+    }
+
+    @Override
+    public void render() {
+      formatter.formatScanFailure(stdout, failure, options);
+    }
+  }
+
+  private class DiscoveryBuilderImpl implements DiscoveryBuilder {
+    private List<DiscoveredUnit> units;
+
+    @Override
+    public DiscoveryBuilder units(List<DiscoveredUnit> units) {
+      this.units = units;
+      return this;
+    }
+
+    @Override
+    public void render() {
+      formatter.formatDiscovery(stdout, units, options);
+    }
+  }
+
+  private class SweepBuilderImpl implements SweepBuilder {
+    private List<SweepResult> results;
+
+    @Override
+    public SweepBuilder results(List<SweepResult> results) {
+      this.results = results;
+      return this;
+    }
+
+    @Override
+    public void render() {
+      formatter.formatSweep(stdout, results, options);
+    }
+  }
+
+  private class PollSampleBuilderImpl implements PollSampleBuilder {
+    private PollSample sample;
+    private @Nullable Instant timestamp;
+
+    @Override
+    public PollSampleBuilder sample(PollSample sample) {
+      this.sample = sample;
+      return this;
+    }
+
+    @Override
+    public PollSampleBuilder timestamp(@Nullable Instant timestamp) {
+      this.timestamp = timestamp;
+      return this;
+    }
+
+    @Override
+    public void render() {
+      formatter.formatPollSample(stdout, sample, timestamp, options);
+    }
+  }
 }
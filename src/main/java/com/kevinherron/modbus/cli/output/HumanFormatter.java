@@ -1,7 +1,15 @@
 package com.kevinherron.modbus.cli.output;
 
 import com.digitalpetri.modbus.pdu.ModbusPdu;
+import com.kevinherron.modbus.cli.client.ChangeDetector.ValueChange;
+import com.kevinherron.modbus.cli.client.DiscoverCommand.DiscoveredUnit;
+import com.kevinherron.modbus.cli.client.ModbusTable;
+import com.kevinherron.modbus.cli.client.PollCommand.PollSample;
+import com.kevinherron.modbus.cli.client.PollCommand.Tag;
+import com.kevinherron.modbus.cli.client.ScanCommand.ScanFailure;
 import com.kevinherron.modbus.cli.client.ScanCommand.ScanResult;
+import com.kevinherron.modbus.cli.client.SweepCommand.SweepResult;
+import com.kevinherron.modbus.cli.util.RegisterCodec;
 import java.io.PrintStream;
 import java.time.Instant;
 import java.time.ZoneId;
@@ -10,7 +18,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import org.fusesource.jansi.Ansi;
 import org.fusesource.jansi.Ansi.Color;
@@ -22,6 +32,8 @@ public class HumanFormatter implements OutputFormatter {
   private static final DateTimeFormatter TIMESTAMP_FORMATTER =
       DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
 
+  private static final HexFormat HEX = HexFormat.of().withUpperCase();
+
   private Integer currentIteration = null;
 
   @Override
@@ -85,8 +97,14 @@ public class HumanFormatter implements OutputFormatter {
       PrintStream out,
       byte[] registers,
       int startAddress,
+      @Nullable RegisterCodec codec,
       @Nullable Instant timestamp,
       OutputOptions options) {
+    if (codec != null) {
+      formatDecodedRegisters(out, registers, startAddress, codec, options);
+      return;
+    }
+
     // Convert register address to byte offset
     int startByteOffset = startAddress * 2;
     int endByteOffset = startByteOffset + registers.length - 1;
@@ -95,47 +113,81 @@ public class HumanFormatter implements OutputFormatter {
     int firstRowOffset = (startByteOffset / 16) * 16;
     int lastRowOffset = (endByteOffset / 16) * 16;
 
+    // Build the whole table and print it in one write, rather than a write per cell
+    var table = new StringBuilder(((lastRowOffset - firstRowOffset) / 16 + 3) * 64);
+
     // Print header with color
     String headerText = String.format("%-8s\t%s%n", "Offset (hex)", "Bytes (hex)");
     if (options.colorsEnabled()) {
-      out.print(Ansi.ansi().fg(Color.BLUE).a(headerText).reset());
-      out.print(Ansi.ansi().fg(Color.BLUE).a("-".repeat(headerText.length())).reset().a("\n"));
+      table.append(Ansi.ansi().fg(Color.BLUE).a(headerText).reset());
+      table.append(Ansi.ansi().fg(Color.BLUE).a("-".repeat(headerText.length())).reset().a("\n"));
     } else {
-      out.print(headerText);
-      out.print("-".repeat(headerText.length()) + "\n");
+      table.append(headerText);
+      table.append("-".repeat(headerText.length())).append('\n');
     }
 
     for (int rowOffset = firstRowOffset; rowOffset <= lastRowOffset; rowOffset += 16) {
       // Print row offset with color
       if (options.colorsEnabled()) {
-        out.print(Ansi.ansi().fg(Color.CYAN).a(String.format("%08X", rowOffset)).reset());
-        out.print("\t");
+        table.append(Ansi.ansi().fg(Color.CYAN).a(HEX.toHexDigits(rowOffset)).reset());
       } else {
-        out.printf("%08X\t", rowOffset);
+        table.append(HEX.toHexDigits(rowOffset));
       }
+      table.append('\t');
 
       for (int position = 0; position < 16; position++) {
         int absoluteByteOffset = rowOffset + position;
         if (absoluteByteOffset < startByteOffset || absoluteByteOffset > endByteOffset) {
           if (options.colorsEnabled()) {
-            out.print(Ansi.ansi().fgBright(Color.BLACK).a(".. ").reset());
+            table.append(Ansi.ansi().fgBright(Color.BLACK).a(".. ").reset());
           } else {
-            out.print(".. ");
+            table.append(".. ");
           }
         } else {
-          int arrayIndex = absoluteByteOffset - startByteOffset;
+          byte value = registers[absoluteByteOffset - startByteOffset];
           if (options.colorsEnabled()) {
-            out.print(
-                Ansi.ansi()
-                    .fg(Color.GREEN)
-                    .a(String.format("%02X ", registers[arrayIndex] & 0xFF))
-                    .reset());
+            table.append(Ansi.ansi().fg(Color.GREEN).a(HEX.toHexDigits(value) + " ").reset());
           } else {
-            out.printf("%02X ", registers[arrayIndex] & 0xFF);
+            HEX.toHexDigits(table, value);
+            table.append(' ');
           }
         }
       }
-      out.println();
+      table.append(System.lineSeparator());
+    }
+
+    out.print(table);
+  }
+
+  /** Formats registers decoded by {@code codec} as one row per value, at its first register. */
+  private void formatDecodedRegisters(
+      PrintStream out,
+      byte[] registers,
+      int startAddress,
+      RegisterCodec codec,
+      OutputOptions options) {
+
+    RegisterCodec.Values values = codec.decode(registers);
+    int width = codec.type().registers();
+
+    String headerText =
+        String.format("%-10s %s (%s)%n", "Address", "Value", codec.type().cliName());
+    if (options.colorsEnabled()) {
+      out.print(Ansi.ansi().fg(Color.BLUE).a(headerText).reset());
+      out.print(Ansi.ansi().fg(Color.BLUE).a("-".repeat(10) + " " + "-".repeat(15) + "\n").reset());
+    } else {
+      out.print(headerText);
+      out.print("-".repeat(10) + " " + "-".repeat(15) + "\n");
+    }
+
+    for (int i = 0; i < values.size(); i++) {
+      String addressText = String.format("0x%04X     ", startAddress + i * width);
+      if (options.colorsEnabled()) {
+        out.print(Ansi.ansi().fg(Color.CYAN).a(addressText).reset());
+        out.println(Ansi.ansi().fg(Color.GREEN).a(values.text(i)).reset());
+      } else {
+        out.println(addressText + values.text(i));
+      }
     }
   }
 
@@ -160,46 +212,53 @@ public class HumanFormatter implements OutputFormatter {
     int firstRowAddress = (startAddress / 8) * 8;
     int lastRowAddress = (endAddress / 8) * 8;
 
+    // Build the whole table and print it in one write, rather than a write per cell
+    var table = new StringBuilder(((lastRowAddress - firstRowAddress) / 8 + 3) * 48);
+
     // Print header with color
     String headerText = String.format("%-10s %s%n", "Address", "Bits");
     if (options.colorsEnabled()) {
-      out.print(Ansi.ansi().fg(Color.BLUE).a(headerText).reset());
-      out.print(Ansi.ansi().fg(Color.BLUE).a("-".repeat(10) + " " + "-".repeat(15) + "\n").reset());
+      table.append(Ansi.ansi().fg(Color.BLUE).a(headerText).reset());
+      table.append(
+          Ansi.ansi().fg(Color.BLUE).a("-".repeat(10) + " " + "-".repeat(15) + "\n").reset());
     } else {
-      out.print(headerText);
-      out.print("-".repeat(10) + " " + "-".repeat(15) + "\n");
+      table.append(headerText);
+      table.append("-".repeat(10)).append(' ').append("-".repeat(15)).append('\n');
     }
 
     // Print bits, 8 per row, aligned to multiples of 8
     for (int rowAddress = firstRowAddress; rowAddress <= lastRowAddress; rowAddress += 8) {
       // Print row address with color
+      String rowAddressText = String.format("0x%04X     ", rowAddress);
       if (options.colorsEnabled()) {
-        out.print(Ansi.ansi().fg(Color.CYAN).a(String.format("0x%04X     ", rowAddress)).reset());
+        table.append(Ansi.ansi().fg(Color.CYAN).a(rowAddressText).reset());
       } else {
-        out.printf("0x%04X     ", rowAddress);
+        table.append(rowAddressText);
       }
 
       for (int position = 0; position < 8; position++) {
         int absoluteAddress = rowAddress + position;
         if (absoluteAddress < startAddress || absoluteAddress > endAddress) {
           if (options.colorsEnabled()) {
-            out.print(Ansi.ansi().fgBright(Color.BLACK).a(". ").reset());
+            table.append(Ansi.ansi().fgBright(Color.BLACK).a(". ").reset());
           } else {
-            out.print(". ");
+            table.append(". ");
           }
         } else {
           int bitIndex = absoluteAddress - startAddress;
           if (options.colorsEnabled()) {
             String bitValue = bits[bitIndex] ? "1 " : "0 ";
             Color bitColor = bits[bitIndex] ? Color.GREEN : Color.YELLOW;
-            out.print(Ansi.ansi().fg(bitColor).a(bitValue).reset());
+            table.append(Ansi.ansi().fg(bitColor).a(bitValue).reset());
           } else {
-            out.print(bits[bitIndex] ? "1 " : "0 ");
+            table.append(bits[bitIndex] ? "1 " : "0 ");
           }
         }
       }
-      out.println();
+      table.append(System.lineSeparator());
     }
+
+    out.print(table);
   }
 
   @Override
@@ -209,18 +268,18 @@ public class HumanFormatter implements OutputFormatter {
       return;
     }
 
-    // map of register address to one or more 2-byte register values from a ScanResult
+    ModbusTable table = results.getFirst().table();
+
+    // map of address to one or more values (2-byte register or 1-byte bit) from a ScanResult
     Map<Integer, List<byte[]>> scanResultMap = new HashMap<>();
 
     for (ScanResult result : results) {
-      int address = result.address();
-      byte[] registers = result.registers();
+      List<byte[]> values = result.values();
 
-      for (int i = 0; i < registers.length; i += 2) {
-        int currentAddress = address + (i / 2);
-        byte[] registerValue = new byte[] {registers[i], registers[i + 1]};
+      for (int i = 0; i < values.size(); i++) {
+        int currentAddress = result.address() + i;
 
-        scanResultMap.computeIfAbsent(currentAddress, _ -> new ArrayList<>()).add(registerValue);
+        scanResultMap.computeIfAbsent(currentAddress, _ -> new ArrayList<>()).add(values.get(i));
       }
     }
 
@@ -228,12 +287,15 @@ public class HumanFormatter implements OutputFormatter {
       return;
     }
 
-    // Get all unique register addresses and sort them
+    // Get all unique addresses and sort them
     List<Integer> sortedAddresses = new ArrayList<>(scanResultMap.keySet());
     Collections.sort(sortedAddresses);
 
     // Print table header with color
-    String headerText = String.format("%-8s\t%s%n", "Address", "Values (hex, 2 bytes each)");
+    String headerText =
+        String.format(
+            "%-8s\t%s (%s)%n",
+            "Address", tableName(table), table.isBit() ? "bits" : "hex, 2 bytes each");
     if (options.colorsEnabled()) {
       out.print(Ansi.ansi().fg(Color.BLUE).a(headerText).reset());
       out.println(Ansi.ansi().fg(Color.BLUE).a("-".repeat(55)).reset());
@@ -242,8 +304,9 @@ public class HumanFormatter implements OutputFormatter {
       out.println("-".repeat(55));
     }
 
-    // Define the number of 2-byte pairs to print per line
-    int pairsPerLine = 8;
+    // Define the number of values to print per line
+    int pairsPerLine = table.isBit() ? 16 : 8;
+    String placeholder = table.isBit() ? ". " : ".... ";
     int currentAddressIndex = 0;
 
     while (currentAddressIndex < sortedAddresses.size()) {
@@ -270,8 +333,11 @@ public class HumanFormatter implements OutputFormatter {
           List<byte[]> entries = scanResultMap.get(targetAddress);
           byte[] valueToPrint = entries.getFirst();
 
-          // Format the value as a 4-digit hex string
-          String text = String.format("%02X%02X", valueToPrint[0] & 0xFF, valueToPrint[1] & 0xFF);
+          // Format the value as a 4-digit hex string, or a single digit for bits
+          String text =
+              table.isBit()
+                  ? String.valueOf(valueToPrint[0])
+                  : String.format("%02X%02X", valueToPrint[0] & 0xFF, valueToPrint[1] & 0xFF);
 
           // Determine color based on whether all values are equal
           if (entries.size() > 1) {
@@ -301,9 +367,9 @@ public class HumanFormatter implements OutputFormatter {
         } else {
           // Print placeholder for empty slot
           if (options.colorsEnabled()) {
-            out.print(Ansi.ansi().fgBright(Color.BLACK).a(".... ").reset());
+            out.print(Ansi.ansi().fgBright(Color.BLACK).a(placeholder).reset());
           } else {
-            out.print(".... ");
+            out.print(placeholder);
           }
         }
       }
@@ -313,6 +379,221 @@ public class HumanFormatter implements OutputFormatter {
     }
   }
 
+  @Override
+  public void formatScanWindow(
+      PrintStream out, ScanResult result, @Nullable Instant timestamp, OutputOptions options) {
+
+    // Build the whole line first so concurrent windows don't interleave
+    var line = new StringBuilder(getTimestampPrefix(timestamp));
+    String addressText = String.format("%04X    \t", result.address());
+    if (options.colorsEnabled()) {
+      line.append(Ansi.ansi().fg(Color.CYAN).a(addressText).reset());
+    } else {
+      line.append(addressText);
+    }
+
+    for (byte[] value : result.values()) {
+      String text =
+          result.table().isBit()
+              ? value[0] + " "
+              : String.format("%02X%02X ", value[0] & 0xFF, value[1] & 0xFF);
+      if (options.colorsEnabled()) {
+        line.append(Ansi.ansi().fg(Color.GREEN).a(text).reset());
+      } else {
+        line.append(text);
+      }
+    }
+
+    out.println(line);
+  }
+
+  @Override
+  public void formatScanFailure(PrintStream out, ScanFailure failure, OutputOptions options) {
+    int lastAddress = failure.address() + failure.quantity() - 1;
+    String formatted =
+        getTimestampPrefix(null)
+            + String.format(
+                "%04X-%04X\tunreadable %s (%d): %s",
+                failure.address(),
+                lastAddress,
+                tableName(failure.table()).toLowerCase(Locale.ROOT),
+                failure.quantity(),
+                failure.reason());
+
+    if (options.colorsEnabled()) {
+      out.println(Ansi.ansi().fg(Color.RED).a(formatted).reset());
+    } else {
+      out.println(formatted);
+    }
+  }
+
+  @Override
+  public void formatDiscovery(PrintStream out, List<DiscoveredUnit> units, OutputOptions options) {
+    if (units == null || units.isEmpty()) {
+      return;
+    }
+
+    String headerText = String.format("%-8s\t%-12s\t%s%n", "Unit ID", "Latency", "Response");
+    if (options.colorsEnabled()) {
+      out.print(Ansi.ansi().fg(Color.BLUE).a(headerText).reset());
+      out.println(Ansi.ansi().fg(Color.BLUE).a("-".repeat(55)).reset());
+    } else {
+      out.print(headerText);
+      out.println("-".repeat(55));
+    }
+
+    for (DiscoveredUnit unit : units) {
+      String latency = String.format("%.1f ms", unit.latency().toNanos() / 1_000_000.0);
+      String response = unit.exception() == null ? "ok" : "exception: " + unit.exception();
+      String line = String.format("%-8d\t%-12s\t%s", unit.unitId(), latency, response);
+
+      if (options.colorsEnabled()) {
+        Color color = unit.exception() == null ? Color.GREEN : Color.YELLOW;
+        out.println(Ansi.ansi().fg(color).a(line).reset());
+      } else {
+        out.println(line);
+      }
+    }
+  }
+
+  @Override
+  public void formatSweep(PrintStream out, List<SweepResult> results, OutputOptions options) {
+    if (results == null || results.isEmpty()) {
+      return;
+    }
+
+    String headerText = String.format("%-24s\t%-12s\t%s%n", "Host", "Latency", "Modbus");
+    if (options.colorsEnabled()) {
+      out.print(Ansi.ansi().fg(Color.BLUE).a(headerText).reset());
+      out.println(Ansi.ansi().fg(Color.BLUE).a("-".repeat(55)).reset());
+    } else {
+      out.print(headerText);
+      out.println("-".repeat(55));
+    }
+
+    for (SweepResult result : results) {
+      String host = result.hostname() + ":" + result.port();
+      String latency = String.format("%.1f ms", result.latency().toNanos() / 1_000_000.0);
+      String modbus = result.modbus() ? "yes" : "no";
+      if (result.detail() != null) {
+        modbus += " (" + result.detail() + ")";
+      }
+      String line = String.format("%-24s\t%-12s\t%s", host, latency, modbus);
+
+      if (options.colorsEnabled()) {
+        Color color = result.modbus() ? Color.GREEN : Color.YELLOW;
+        out.println(Ansi.ansi().fg(color).a(line).reset());
+      } else {
+        out.println(line);
+      }
+    }
+  }
+
+  @Override
+  public void formatPollSample(
+      PrintStream out, PollSample sample, @Nullable Instant timestamp, OutputOptions options) {
+
+    Tag tag = sample.tag();
+
+    // Build the whole line first so samples from concurrent groups don't interleave
+    var line = new StringBuilder(getTimestampPrefix(timestamp));
+    String tagText =
+        String.format(
+            "%-16s\t%s unit %d %s %04X\t",
+            tag.name(), tag.endpointName(), tag.unitId(), tag.table().cliName(), tag.address());
+    if (options.colorsEnabled()) {
+      line.append(Ansi.ansi().fg(Color.CYAN).a(tagText).reset());
+    } else {
+      line.append(tagText);
+    }
+
+    for (byte[] value : sample.values()) {
+      String text =
+          tag.table().isBit()
+              ? value[0] + " "
+              : String.format("%02X%02X ", value[0] & 0xFF, value[1] & 0xFF);
+      if (options.colorsEnabled()) {
+        line.append(Ansi.ansi().fg(Color.GREEN).a(text).reset());
+      } else {
+        line.append(text);
+      }
+    }
+
+    out.println(line);
+  }
+
+  @Override
+  public void formatRegisterChanges(
+      PrintStream out,
+      List<ValueChange> changes,
+      @Nullable RegisterCodec codec,
+      @Nullable Instant timestamp,
+      OutputOptions options) {
+
+    // Raw registers in hex, as in the register table; decoded values as they are decoded
+    formatChanges(out, changes, codec != null ? "%s" : "%04X", timestamp, options);
+  }
+
+  @Override
+  public void formatCoilChanges(
+      PrintStream out,
+      List<ValueChange> changes,
+      @Nullable Instant timestamp,
+      OutputOptions options) {
+
+    formatChanges(out, changes, "%d", timestamp, options);
+  }
+
+  private void formatChanges(
+      PrintStream out,
+      List<ValueChange> changes,
+      String valueFormat,
+      @Nullable Instant timestamp,
+      OutputOptions options) {
+
+    // Build every line first so changes from concurrent polls don't interleave
+    String prefix = getTimestampPrefix(timestamp);
+    var lines = new StringBuilder();
+
+    for (ValueChange change : changes) {
+      String addressText = String.format("0x%04X     ", change.address());
+      String previousText = change.hasPrevious() ? formatChange(valueFormat, change, true) : "-";
+      String valueText = formatChange(valueFormat, change, false);
+
+      lines.append(prefix);
+      if (options.colorsEnabled()) {
+        lines.append(Ansi.ansi().fg(Color.CYAN).a(addressText).reset());
+        lines.append(Ansi.ansi().fgBright(Color.BLACK).a(previousText + " -> ").reset());
+        lines.append(Ansi.ansi().fg(Color.GREEN).a(valueText).reset());
+      } else {
+        lines.append(addressText).append(previousText).append(" -> ").append(valueText);
+      }
+      lines.append(System.lineSeparator());
+    }
+
+    out.print(lines);
+  }
+
+  private static String formatChange(String valueFormat, ValueChange change, boolean previous) {
+    return switch (change) {
+      case ValueChange.IntegerChange c ->
+          String.format(valueFormat, previous ? c.previous() : c.value());
+      case ValueChange.FloatChange c ->
+          String.format(valueFormat, previous ? c.previous() : c.value());
+      case ValueChange.DoubleChange c ->
+          String.format(valueFormat, previous ? c.previous() : c.value());
+    };
+  }
+
+  private static String tableName(ModbusTable table) {
+    return switch (table) {
+      case COILS -> "Coils";
+      case DISCRETE_INPUTS -> "Discrete inputs";
+      case HOLDING_REGISTERS -> "Holding registers";
+      case INPUT_REGISTERS -> "Input registers";
+    };
+  }
+
   private Color getColorForType(OutputType type) {
     return switch (type) {
       case ERROR -> Color.RED;
@@ -6,25 +6,36 @@ import com.digitalpetri.modbus.exceptions.ModbusException;
 import com.digitalpetri.modbus.pdu.ModbusPdu;
 import com.digitalpetri.modbus.pdu.ModbusRequestPdu;
 import com.digitalpetri.modbus.pdu.ModbusResponsePdu;
+import com.kevinherron.modbus.cli.client.ChangeDetector.ValueChange;
+import com.kevinherron.modbus.cli.client.DiscoverCommand.DiscoveredUnit;
+import com.kevinherron.modbus.cli.client.ModbusTable;
+import com.kevinherron.modbus.cli.client.PollCommand.PollSample;
+import com.kevinherron.modbus.cli.client.PollCommand.Tag;
+import com.kevinherron.modbus.cli.client.ScanCommand.ScanFailure;
 import com.kevinherron.modbus.cli.client.ScanCommand.ScanResult;
+import com.kevinherron.modbus.cli.client.SweepCommand.SweepResult;
+import com.kevinherron.modbus.cli.util.RegisterCodec;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import java.io.PrintStream;
 import java.nio.ByteBuffer;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import org.jspecify.annotations.Nullable;
 
-/** Formats output as JSON for machine parsing. */
+/**
+ * Formats output as JSON for machine parsing.
+ *
+ * <p>Each output is one line of JSON, written field by field by a {@link JsonWriter} that the
+ * formatter reuses for every line. The formatting methods are synchronized, since polling and
+ * scanning format output from several threads at once.
+ */
 public class JsonFormatter implements OutputFormatter {
 
+  private final JsonWriter json = new JsonWriter();
+
   private Integer currentIteration = null;
 
   @Override
@@ -33,7 +44,7 @@ public class JsonFormatter implements OutputFormatter {
   }
 
   @Override
-  public void formatProtocol(
+  public synchronized void formatProtocol(
       PrintStream out,
       ModbusPdu pdu,
       Direction direction,
@@ -48,19 +59,13 @@ public class JsonFormatter implements OutputFormatter {
     String pduHex = encodePduToHex(pdu);
     int functionCode = pdu.getFunctionCode();
 
-    Map<String, Object> json = new LinkedHashMap<>();
-    json.put("timestamp", (timestamp != null ? timestamp : Instant.now()).toString());
-    if (currentIteration != null) {
-      json.put("iteration", currentIteration);
-    }
-    json.put("type", "protocol");
-    json.put("direction", direction.name().toLowerCase());
+    begin(timestamp, "protocol");
+    json.field("direction", direction.name().toLowerCase());
     if (functionCode != -1) {
-      json.put("function_code", functionCode);
+      json.field("function_code", functionCode);
     }
-    json.put("pdu", pduHex);
-
-    out.println(toJson(json));
+    json.field("pdu", pduHex);
+    end(out);
   }
 
   private String encodePduToHex(ModbusPdu pdu) {
@@ -86,177 +91,390 @@ public class JsonFormatter implements OutputFormatter {
   }
 
   @Override
-  public void formatMessage(
+  public synchronized void formatMessage(
       PrintStream out, OutputType type, String message, OutputOptions options) {
 
     if (options.quiet() && type == OutputType.INFO) {
       return;
     }
 
-    Map<String, Object> json = new LinkedHashMap<>();
-    json.put("timestamp", Instant.now().toString());
-    if (currentIteration != null) {
-      json.put("iteration", currentIteration);
-    }
-    json.put("type", type.name().toLowerCase());
-    json.put("message", message);
-    out.println(toJson(json));
+    begin(null, type.name().toLowerCase());
+    json.field("message", message);
+    end(out);
   }
 
   @Override
-  public void formatRegisterTable(
+  public synchronized void formatRegisterTable(
       PrintStream out,
       byte[] registers,
       int startAddress,
+      @Nullable RegisterCodec codec,
       @Nullable Instant timestamp,
       OutputOptions options) {
 
-    // Convert byte array to a list of integers
-    List<Integer> bytes = new ArrayList<>();
+    begin(timestamp, "register_table");
+    json.field("start_address", startAddress);
+    json.field("quantity", registers.length / 2);
+
+    json.name("data").beginArray();
     for (byte b : registers) {
-      bytes.add(b & 0xFF);
+      json.value(b & 0xFF);
     }
+    json.endArray();
 
-    int quantity = registers.length / 2;
+    if (codec != null) {
+      json.field("data_type", codec.type().cliName());
+      json.name("values");
+      writeDecodedValues(codec.decode(registers));
+    }
+    end(out);
+  }
 
-    Map<String, Object> json = new LinkedHashMap<>();
-    json.put("timestamp", (timestamp != null ? timestamp : Instant.now()).toString());
-    if (currentIteration != null) {
-      json.put("iteration", currentIteration);
+  /**
+   * Writes decoded register values as an array of numbers, with NaN and infinities as null since
+   * JSON can't represent them, or of a single string.
+   */
+  private void writeDecodedValues(RegisterCodec.Values values) {
+    json.beginArray();
+
+    switch (values) {
+      case RegisterCodec.Values.Integers(long[] longs) -> {
+        for (long value : longs) {
+          json.value(value);
+        }
+      }
+      case RegisterCodec.Values.Floats(float[] floats) -> {
+        for (float value : floats) {
+          json.value(value);
+        }
+      }
+      case RegisterCodec.Values.Doubles(double[] doubles) -> {
+        for (double value : doubles) {
+          json.value(value);
+        }
+      }
+      case RegisterCodec.Values.Text(String text) -> json.value(text);
     }
-    json.put("type", "register_table");
-    json.put("start_address", startAddress);
-    json.put("quantity", quantity);
-    json.put("data", bytes);
-    out.println(toJson(json));
+
+    json.endArray();
   }
 
   @Override
-  public void formatCoilTable(
+  public synchronized void formatCoilTable(
       PrintStream out,
       byte[] coilBytes,
       int startAddress,
       int quantity,
       @Nullable Instant timestamp,
       OutputOptions options) {
-    // Convert bytes to bits (LSB first per Modbus protocol)
-    List<Boolean> bits = new ArrayList<>();
+
+    begin(timestamp, "coil_table");
+    json.field("start_address", startAddress);
+    json.field("quantity", quantity);
+
+    // Bits are packed LSB first per Modbus protocol
+    json.name("data").beginArray();
     for (int i = 0; i < quantity; i++) {
       int byteIndex = i / 8;
       int bitIndex = i % 8;
-      bits.add((coilBytes[byteIndex] & (1 << bitIndex)) != 0);
-    }
-
-    Map<String, Object> json = new LinkedHashMap<>();
-    json.put("timestamp", (timestamp != null ? timestamp : Instant.now()).toString());
-    if (currentIteration != null) {
-      json.put("iteration", currentIteration);
+      json.value((coilBytes[byteIndex] & (1 << bitIndex)) != 0);
     }
-    json.put("type", "coil_table");
-    json.put("start_address", startAddress);
-    json.put("quantity", quantity);
-    json.put("data", bits);
-    out.println(toJson(json));
+    json.endArray();
+    end(out);
   }
 
   @Override
-  public void formatScanResults(PrintStream out, List<ScanResult> results, OutputOptions options) {
+  public synchronized void formatScanResults(
+      PrintStream out, List<ScanResult> results, OutputOptions options) {
+
     if (results == null || results.isEmpty()) {
       return;
     }
 
-    // map of register address to one or more 2-byte register values
-    Map<Integer, List<byte[]>> scanResultMap = new HashMap<>();
+    ModbusTable table = results.getFirst().table();
+
+    // Walk the addresses in order, reading each value straight from the windows that cover it
+    ScanResult[] windows = results.toArray(ScanResult[]::new);
+    Arrays.sort(windows, Comparator.comparingInt(ScanResult::address));
+
+    int end = Integer.MIN_VALUE;
+    for (ScanResult window : windows) {
+      end = Math.max(end, endOf(window));
+    }
 
-    for (ScanResult result : results) {
-      int address = result.address();
-      byte[] registers = result.registers();
+    boolean any = false;
+    int first = 0;
+    for (int address = windows[0].address(); address < end; address++) {
+      // Windows are sorted by start, so those ending before this address are behind first
+      while (first < windows.length && endOf(windows[first]) <= address) {
+        first++;
+      }
 
-      for (int i = 0; i < registers.length; i += 2) {
-        int currentAddress = address + (i / 2);
-        byte[] registerValue = new byte[] {registers[i], registers[i + 1]};
-        scanResultMap.computeIfAbsent(currentAddress, _ -> new ArrayList<>()).add(registerValue);
+      ScanResult covering = null;
+      boolean identical = true;
+      for (int i = first; i < windows.length && windows[i].address() <= address; i++) {
+        ScanResult window = windows[i];
+        if (address >= endOf(window)) {
+          continue;
+        }
+
+        if (covering == null) {
+          if (!any) {
+            begin(null, "scan_results");
+            json.field("table", table.cliName());
+            json.name("results").beginArray();
+            any = true;
+          }
+          covering = window;
+          json.beginObject();
+          json.field("address", address);
+          json.name("values").beginArray();
+        } else if (identical) {
+          identical = sameValue(covering, window, address);
+        }
+
+        // Registers as pairs of bytes, bits as booleans
+        int offset = address - window.address();
+        byte[] data = window.data();
+        if (table.isBit()) {
+          json.value(((data[offset / 8] >> (offset % 8)) & 1) != 0);
+        } else {
+          json.beginArray().value(data[offset * 2] & 0xFF).value(data[offset * 2 + 1] & 0xFF);
+          json.endArray();
+        }
+      }
+
+      if (covering != null) {
+        json.endArray();
+        json.field("identical", identical);
+        json.endObject();
       }
     }
 
-    if (scanResultMap.isEmpty()) {
-      return;
+    if (any) {
+      json.endArray();
+      end(out);
     }
+  }
 
-    // Get all unique register addresses and sort them
-    List<Integer> sortedAddresses = new ArrayList<>(scanResultMap.keySet());
-    Collections.sort(sortedAddresses);
+  @Override
+  public synchronized void formatScanWindow(
+      PrintStream out, ScanResult result, @Nullable Instant timestamp, OutputOptions options) {
+
+    begin(timestamp, "scan_window");
+    json.field("table", result.table().cliName());
+    json.field("address", result.address());
+    json.field("quantity", result.quantity());
+
+    // Register windows carry raw bytes, bit windows one boolean per address
+    json.name("data").beginArray();
+    if (result.table().isBit()) {
+      byte[] data = result.data();
+      for (int i = 0; i < valueCount(result); i++) {
+        json.value(((data[i / 8] >> (i % 8)) & 1) != 0);
+      }
+    } else {
+      for (byte b : result.data()) {
+        json.value(b & 0xFF);
+      }
+    }
+    json.endArray();
+    end(out);
+  }
 
-    // Build JSON structure
-    List<Map<String, Object>> resultsList = new ArrayList<>();
-    for (int address : sortedAddresses) {
-      List<byte[]> entries = scanResultMap.get(address);
+  @Override
+  public synchronized void formatScanFailure(
+      PrintStream out, ScanFailure failure, OutputOptions options) {
+
+    begin(null, "scan_failure");
+    json.field("table", failure.table().cliName());
+    json.field("address", failure.address());
+    json.field("quantity", failure.quantity());
+    json.field("error", failure.reason());
+    end(out);
+  }
 
-      // Convert byte arrays to lists of integers
-      List<List<Integer>> values =
-          entries.stream().map(bytes -> List.of(bytes[0] & 0xFF, bytes[1] & 0xFF)).toList();
+  @Override
+  public synchronized void formatDiscovery(
+      PrintStream out, List<DiscoveredUnit> units, OutputOptions options) {
+
+    begin(null, "discovery");
+    json.name("units").beginArray();
+    for (DiscoveredUnit unit : units) {
+      json.beginObject();
+      json.field("unit_id", unit.unitId());
+      json.field("latency_ms", unit.latency().toNanos() / 1_000_000.0);
+      json.field("exception", unit.exception());
+      json.endObject();
+    }
+    json.endArray();
+    end(out);
+  }
 
-      boolean identical = areAllEqual(entries);
+  @Override
+  public synchronized void formatSweep(
+      PrintStream out, List<SweepResult> results, OutputOptions options) {
+
+    begin(null, "sweep");
+    json.name("hosts").beginArray();
+    for (SweepResult result : results) {
+      json.beginObject();
+      json.field("hostname", result.hostname());
+      json.field("port", result.port());
+      json.field("latency_ms", result.latency().toNanos() / 1_000_000.0);
+      json.field("modbus", result.modbus());
+      json.field("detail", result.detail());
+      json.endObject();
+    }
+    json.endArray();
+    end(out);
+  }
 
-      Map<String, Object> resultEntry = new LinkedHashMap<>();
-      resultEntry.put("address", address);
-      resultEntry.put("values", values);
-      resultEntry.put("identical", identical);
-      resultsList.add(resultEntry);
+  @Override
+  public synchronized void formatPollSample(
+      PrintStream out, PollSample sample, @Nullable Instant timestamp, OutputOptions options) {
+
+    Tag tag = sample.tag();
+
+    begin(timestamp, "poll_sample");
+    json.field("name", tag.name());
+    json.field("endpoint", tag.endpointName());
+    json.field("unit_id", tag.unitId());
+    json.field("table", tag.table().cliName());
+    json.field("address", tag.address());
+    json.field("quantity", tag.quantity());
+
+    // Register values as unsigned 16-bit integers, bit values as booleans
+    byte[] data = sample.data();
+    boolean bits = tag.table().isBit();
+    int count = Math.min(tag.quantity(), bits ? data.length * 8 : data.length / 2);
+
+    json.name("values").beginArray();
+    for (int i = 0; i < count; i++) {
+      if (bits) {
+        json.value(((data[i / 8] >> (i % 8)) & 1) != 0);
+      } else {
+        json.value(((data[i * 2] & 0xFF) << 8) | (data[i * 2 + 1] & 0xFF));
+      }
     }
+    json.endArray();
+    end(out);
+  }
 
-    Map<String, Object> json = new LinkedHashMap<>();
-    json.put("timestamp", Instant.now().toString());
-    if (currentIteration != null) {
-      json.put("iteration", currentIteration);
+  @Override
+  public synchronized void formatRegisterChanges(
+      PrintStream out,
+      List<ValueChange> changes,
+      @Nullable RegisterCodec codec,
+      @Nullable Instant timestamp,
+      OutputOptions options) {
+
+    formatChanges(out, "register_changes", changes, false, codec, timestamp);
+  }
+
+  @Override
+  public synchronized void formatCoilChanges(
+      PrintStream out,
+      List<ValueChange> changes,
+      @Nullable Instant timestamp,
+      OutputOptions options) {
+
+    formatChanges(out, "coil_changes", changes, true, null, timestamp);
+  }
+
+  private void formatChanges(
+      PrintStream out,
+      String type,
+      List<ValueChange> changes,
+      boolean bits,
+      @Nullable RegisterCodec codec,
+      @Nullable Instant timestamp) {
+
+    begin(timestamp, type);
+    if (codec != null) {
+      json.field("data_type", codec.type().cliName());
+    }
+
+    // Raw register values as unsigned 16-bit integers, bit values as booleans
+    json.name("changes").beginArray();
+    for (ValueChange change : changes) {
+      json.beginObject();
+      json.field("address", change.address());
+      json.name("previous");
+      writeChangeValue(change, true, bits);
+      json.name("value");
+      writeChangeValue(change, false, bits);
+      json.endObject();
+    }
+    json.endArray();
+    end(out);
+  }
+
+  private void writeChangeValue(ValueChange change, boolean previous, boolean bits) {
+    if (previous && !change.hasPrevious()) {
+      json.nullValue();
+      return;
+    }
+
+    switch (change) {
+      case ValueChange.IntegerChange c -> {
+        long value = previous ? c.previous() : c.value();
+        if (bits) {
+          json.value(value != 0);
+        } else {
+          json.value(value);
+        }
+      }
+      case ValueChange.FloatChange c -> json.value(previous ? c.previous() : c.value());
+      case ValueChange.DoubleChange c -> json.value(previous ? c.previous() : c.value());
     }
-    json.put("type", "scan_results");
-    json.put("results", resultsList);
-    out.println(toJson(json));
   }
 
   /**
-   * Simple JSON serialization for basic Java objects. Handles Map, List, String, Number, Boolean,
-   * null.
+   * Starts a line with the fields every output has: the timestamp, the iteration when polling, and
+   * the output type.
+   *
+   * @param timestamp the timestamp, or null to use current time.
+   * @param type the output type.
    */
-  private String toJson(Object obj) {
-    if (obj == null) {
-      return "null";
-    } else if (obj instanceof String s) {
-      return "\"" + escapeJson(s) + "\"";
-    } else if (obj instanceof Number || obj instanceof Boolean) {
-      return obj.toString();
-    } else if (obj instanceof Map<?, ?> map) {
-      return map.entrySet().stream()
-          .map(e -> "\"" + e.getKey() + "\":" + toJson(e.getValue()))
-          .collect(Collectors.joining(",", "{", "}"));
-    } else if (obj instanceof List<?> list) {
-      return list.stream().map(this::toJson).collect(Collectors.joining(",", "[", "]"));
-    } else {
-      return "\"" + escapeJson(obj.toString()) + "\"";
+  private void begin(@Nullable Instant timestamp, String type) {
+    json.reset().beginObject();
+    json.name("timestamp").value(timestamp != null ? timestamp : Instant.now());
+    if (currentIteration != null) {
+      json.field("iteration", currentIteration);
     }
+    json.field("type", type);
   }
 
-  private String escapeJson(String s) {
-    return s.replace("\\", "\\\\")
-        .replace("\"", "\\\"")
-        .replace("\n", "\\n")
-        .replace("\r", "\\r")
-        .replace("\t", "\\t");
+  /** Ends the line started by {@link #begin} and writes it to {@code out}. */
+  private void end(PrintStream out) {
+    json.endObject().println(out);
   }
 
-  private static boolean areAllEqual(List<byte[]> list) {
-    if (list == null || list.size() <= 1) {
-      return true;
-    }
+  /**
+   * Returns the number of values a scan window holds, which is fewer than its quantity if the
+   * device returned short data.
+   */
+  private static int valueCount(ScanResult result) {
+    int length = result.data().length;
+    return Math.min(result.quantity(), result.table().isBit() ? length * 8 : length / 2);
+  }
 
-    byte[] first = list.getFirst();
-    for (int i = 1; i < list.size(); i++) {
-      if (!Arrays.equals(first, list.get(i))) {
-        return false;
-      }
-    }
+  /** Returns the address after the last value a scan window holds. */
+  private static int endOf(ScanResult result) {
+    return result.address() + valueCount(result);
+  }
 
-    return true;
+  /** Returns whether two scan windows covering {@code address} hold the same value there. */
+  private static boolean sameValue(ScanResult a, ScanResult b, int address) {
+    int offsetA = address - a.address();
+    int offsetB = address - b.address();
+
+    if (a.table().isBit()) {
+      return ((a.data()[offsetA / 8] >> (offsetA % 8)) & 1)
+          == ((b.data()[offsetB / 8] >> (offsetB % 8)) & 1);
+    }
+    return a.data()[offsetA * 2] == b.data()[offsetB * 2]
+        && a.data()[offsetA * 2 + 1] == b.data()[offsetB * 2 + 1];
   }
 }
@@ -0,0 +1,256 @@
+package com.kevinherron.modbus.cli.output;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Writes one line of JSON at a time into a reusable buffer, field by field, without building
+ * intermediate maps or lists or boxing values.
+ *
+ * <p>The writer tracks only whether a comma is due before the next element, so it doesn't check
+ * that the calls nest correctly; {@link JsonFormatter} always pairs them. Strings are escaped as
+ * they are appended. A writer isn't thread-safe; callers sharing one must hold its lock from {@link
+ * #reset} to {@link #println}.
+ */
+final class JsonWriter {
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+
+  private final StringBuilder buffer = new StringBuilder(512);
+
+  /** The encoded line, reused and grown as needed by {@link #println}. */
+  private ByteBuffer bytes = ByteBuffer.allocate(1024);
+
+  /** The encoder for the charset of the last stream written to, reused while it doesn't change. */
+  private @Nullable CharsetEncoder encoder;
+
+  /** Whether the next name or value follows another element at the same level. */
+  private boolean needsComma = false;
+
+  /**
+   * Clears the buffer to start a new line.
+   *
+   * @return this writer.
+   */
+  JsonWriter reset() {
+    buffer.setLength(0);
+    needsComma = false;
+    return this;
+  }
+
+  JsonWriter beginObject() {
+    separate();
+    buffer.append('{');
+    needsComma = false;
+    return this;
+  }
+
+  JsonWriter endObject() {
+    buffer.append('}');
+    needsComma = true;
+    return this;
+  }
+
+  JsonWriter beginArray() {
+    separate();
+    buffer.append('[');
+    needsComma = false;
+    return this;
+  }
+
+  JsonWriter endArray() {
+    buffer.append(']');
+    needsComma = true;
+    return this;
+  }
+
+  /**
+   * Writes an object member's name; the next call writes its value.
+   *
+   * @param name the name, which is written as is and must not need escaping.
+   * @return this writer.
+   */
+  JsonWriter name(String name) {
+    separate();
+    buffer.append('"').append(name).append("\":");
+    needsComma = false;
+    return this;
+  }
+
+  JsonWriter value(@Nullable String value) {
+    separate();
+    if (value == null) {
+      buffer.append("null");
+    } else {
+      appendString(value);
+    }
+    needsComma = true;
+    return this;
+  }
+
+  JsonWriter value(long value) {
+    separate();
+    buffer.append(value);
+    needsComma = true;
+    return this;
+  }
+
+  /** Writes a number, or {@code null} for NaN and infinities, which JSON can't represent. */
+  JsonWriter value(double value) {
+    separate();
+    if (Double.isFinite(value)) {
+      buffer.append(value);
+    } else {
+      buffer.append("null");
+    }
+    needsComma = true;
+    return this;
+  }
+
+  /** Writes a number, or {@code null} for NaN and infinities, which JSON can't represent. */
+  JsonWriter value(float value) {
+    separate();
+    if (Float.isFinite(value)) {
+      buffer.append(value);
+    } else {
+      buffer.append("null");
+    }
+    needsComma = true;
+    return this;
+  }
+
+  JsonWriter value(boolean value) {
+    separate();
+    buffer.append(value);
+    needsComma = true;
+    return this;
+  }
+
+  JsonWriter nullValue() {
+    separate();
+    buffer.append("null");
+    needsComma = true;
+    return this;
+  }
+
+  /** Writes an instant as an ISO-8601 string, as {@link Instant#toString} would. */
+  JsonWriter value(Instant instant) {
+    separate();
+    buffer.append('"');
+    DateTimeFormatter.ISO_INSTANT.formatTo(instant, buffer);
+    buffer.append('"');
+    needsComma = true;
+    return this;
+  }
+
+  JsonWriter field(String name, @Nullable String value) {
+    return name(name).value(value);
+  }
+
+  JsonWriter field(String name, long value) {
+    return name(name).value(value);
+  }
+
+  JsonWriter field(String name, double value) {
+    return name(name).value(value);
+  }
+
+  JsonWriter field(String name, boolean value) {
+    return name(name).value(value);
+  }
+
+  /**
+   * Writes the buffered line to {@code out}, followed by a line separator.
+   *
+   * <p>The buffer is encoded in {@code out}'s charset into a reusable byte buffer and written in
+   * one call, so the line isn't copied into a {@code String} first and can't interleave with
+   * other writes to {@code out}.
+   *
+   * @param out the output stream.
+   */
+  void println(PrintStream out) {
+    int length = buffer.length();
+    buffer.append(LINE_SEPARATOR);
+
+    CharsetEncoder encoder = encoderFor(out.charset());
+    CharBuffer chars = CharBuffer.wrap(buffer);
+    bytes.clear();
+
+    while (encoder.encode(chars, bytes, true).isOverflow()) {
+      grow();
+    }
+    while (encoder.flush(bytes).isOverflow()) {
+      grow();
+    }
+
+    buffer.setLength(length);
+    out.write(bytes.array(), 0, bytes.position());
+  }
+
+  @Override
+  public String toString() {
+    return buffer.toString();
+  }
+
+  private CharsetEncoder encoderFor(Charset charset) {
+    CharsetEncoder encoder = this.encoder;
+    if (encoder == null || !encoder.charset().equals(charset)) {
+      encoder =
+          charset
+              .newEncoder()
+              .onMalformedInput(CodingErrorAction.REPLACE)
+              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      this.encoder = encoder;
+    }
+    return encoder.reset();
+  }
+
+  private void grow() {
+    bytes = ByteBuffer.allocate(bytes.capacity() * 2).put(bytes.flip());
+  }
+
+  private void separate() {
+    if (needsComma) {
+      buffer.append(',');
+    }
+  }
+
+  private void appendString(String value) {
+    buffer.append('"');
+
+    // Append unescaped runs in one call, escaping only the characters JSON requires
+    int start = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c != '"' && c != '\\' && c >= 0x20) {
+        continue;
+      }
+
+      buffer.append(value, start, i);
+      switch (c) {
+        case '"' -> buffer.append("\\\"");
+        case '\\' -> buffer.append("\\\\");
+        case '\n' -> buffer.append("\\n");
+        case '\r' -> buffer.append("\\r");
+        case '\t' -> buffer.append("\\t");
+        case '\b' -> buffer.append("\\b");
+        case '\f' -> buffer.append("\\f");
+        default ->
+            buffer.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+      }
+      start = i + 1;
+    }
+    buffer.append(value, start, value.length());
+
+    buffer.append('"');
+  }
+}
@@ -1,7 +1,13 @@
 package com.kevinherron.modbus.cli.output;
 
 import com.digitalpetri.modbus.pdu.ModbusPdu;
+import com.kevinherron.modbus.cli.client.ChangeDetector.ValueChange;
+import com.kevinherron.modbus.cli.client.DiscoverCommand.DiscoveredUnit;
+import com.kevinherron.modbus.cli.client.PollCommand.PollSample;
+import com.kevinherron.modbus.cli.client.ScanCommand.ScanFailure;
 import com.kevinherron.modbus.cli.client.ScanCommand.ScanResult;
+import com.kevinherron.modbus.cli.client.SweepCommand.SweepResult;
+import com.kevinherron.modbus.cli.util.RegisterCodec;
 import java.time.Instant;
 import java.util.List;
 import org.jspecify.annotations.Nullable;
@@ -21,6 +27,12 @@ public interface OutputContext {
    */
   void setIteration(Integer iteration);
 
+  /**
+   * Writes out any output buffered so far, e.g. at the end of a polling iteration before waiting
+   * for the next one.
+   */
+  void flush();
+
   /**
    * Outputs a protocol message (request or response).
    *
@@ -77,6 +89,22 @@ public interface OutputContext {
    */
   CoilTableBuilder coilTable();
 
+  /**
+   * Creates a builder for outputting the registers whose values changed, when polling with {@code
+   * --on-change}.
+   *
+   * @return a changes builder
+   */
+  ChangesBuilder registerChanges();
+
+  /**
+   * Creates a builder for outputting the coils or discrete inputs whose values changed, when
+   * polling with {@code --on-change}.
+   *
+   * @return a changes builder
+   */
+  ChangesBuilder coilChanges();
+
   /**
    * Creates a builder for outputting scan results.
    *
@@ -84,12 +112,49 @@ public interface OutputContext {
    */
   ScanResultsBuilder scanResults();
 
+  /**
+   * Creates a builder for outputting a single scan window as soon as it has been read.
+   *
+   * @return a scan window builder
+   */
+  ScanWindowBuilder scanWindow();
+
+  /**
+   * Creates a builder for outputting a range of addresses that could not be read during a scan.
+   *
+   * @return a scan failure builder
+   */
+  ScanFailureBuilder scanFailure();
+
+  /**
+   * Creates a builder for outputting the units that answered a discovery sweep.
+   *
+   * @return a discovery builder
+   */
+  DiscoveryBuilder discovery();
+
+  /**
+   * Creates a builder for outputting the hosts found reachable by a sweep.
+   *
+   * @return a sweep builder
+   */
+  SweepBuilder sweep();
+
+  /**
+   * Creates a builder for outputting the values read for a tag in one polling iteration.
+   *
+   * @return a poll sample builder
+   */
+  PollSampleBuilder pollSample();
+
   /** Builder for register table output. */
   interface RegisterTableBuilder {
     RegisterTableBuilder data(byte[] registers);
 
     RegisterTableBuilder startAddress(int address);
 
+    RegisterTableBuilder codec(@Nullable RegisterCodec codec);
+
     RegisterTableBuilder timestamp(@Nullable Instant timestamp);
 
     void render();
@@ -108,10 +173,61 @@ public interface OutputContext {
     void render();
   }
 
+  /** Builder for changed register or coil output. */
+  interface ChangesBuilder {
+    ChangesBuilder changes(List<ValueChange> changes);
+
+    /** Sets the codec register changes were decoded with, or {@code null} for raw registers. */
+    ChangesBuilder codec(@Nullable RegisterCodec codec);
+
+    ChangesBuilder timestamp(@Nullable Instant timestamp);
+
+    void render();
+  }
+
   /** Builder for scan results output. */
   interface ScanResultsBuilder {
     ScanResultsBuilder results(List<ScanResult> results);
 
     void render();
   }
+
+  /** Builder for streamed scan window output. */
+  interface ScanWindowBuilder {
+    ScanWindowBuilder result(ScanResult result);
+
+    ScanWindowBuilder timestamp(@Nullable Instant timestamp);
+
+    void render();
+  }
+
+  /** Builder for scan failure output. */
+  interface ScanFailureBuilder {
+    ScanFailureBuilder failure(ScanFailure failure);
+
+    void render();
+  }
+
+  /** Builder for discovery output. */
+  interface DiscoveryBuilder {
+    DiscoveryBuilder units(List<DiscoveredUnit> units);
+
+    void render();
+  }
+
+  /** Builder for sweep output. */
+  interface SweepBuilder {
+    SweepBuilder results(List<SweepResult> results);
+
+    void render();
+  }
+
+  /** Builder for poll sample output. */
+  interface PollSampleBuilder {
+    PollSampleBuilder sample(PollSample sample);
+
+    PollSampleBuilder timestamp(@Nullable Instant timestamp);
+
+    void render();
+  }
 }
@@ -1,7 +1,13 @@
 package com.kevinherron.modbus.cli.output;
 
 import com.digitalpetri.modbus.pdu.ModbusPdu;
+import com.kevinherron.modbus.cli.client.ChangeDetector.ValueChange;
+import com.kevinherron.modbus.cli.client.DiscoverCommand.DiscoveredUnit;
+import com.kevinherron.modbus.cli.client.PollCommand.PollSample;
+import com.kevinherron.modbus.cli.client.ScanCommand.ScanFailure;
 import com.kevinherron.modbus.cli.client.ScanCommand.ScanResult;
+import com.kevinherron.modbus.cli.client.SweepCommand.SweepResult;
+import com.kevinherron.modbus.cli.util.RegisterCodec;
 import java.io.PrintStream;
 import java.time.Instant;
 import java.util.List;
@@ -54,6 +60,7 @@ public interface OutputFormatter {
    * @param out the output stream
    * @param registers the register byte array
    * @param startAddress the starting address
+   * @param codec decodes the registers into typed values, or null to output raw bytes
    * @param timestamp the timestamp when the data was received, or null to use current time
    * @param options output options
    */
@@ -61,6 +68,7 @@ public interface OutputFormatter {
       PrintStream out,
       byte[] registers,
       int startAddress,
+      @Nullable RegisterCodec codec,
       @Nullable Instant timestamp,
       OutputOptions options);
 
@@ -82,12 +90,95 @@ public interface OutputFormatter {
       @Nullable Instant timestamp,
       OutputOptions options);
 
+  /**
+   * Formats the registers whose values changed since they were last output.
+   *
+   * @param out the output stream
+   * @param changes the changed registers, in address order, with unsigned 16-bit values, or the
+   *     changed values decoded by {@code codec}
+   * @param codec the codec the values were decoded with, or null for raw registers
+   * @param timestamp the timestamp when the data was received, or null to use current time
+   * @param options output options
+   */
+  void formatRegisterChanges(
+      PrintStream out,
+      List<ValueChange> changes,
+      @Nullable RegisterCodec codec,
+      @Nullable Instant timestamp,
+      OutputOptions options);
+
+  /**
+   * Formats the coils or discrete inputs whose values changed since they were last output.
+   *
+   * @param out the output stream
+   * @param changes the changed bits, in address order, with values of 0 or 1
+   * @param timestamp the timestamp when the data was received, or null to use current time
+   * @param options output options
+   */
+  void formatCoilChanges(
+      PrintStream out,
+      List<ValueChange> changes,
+      @Nullable Instant timestamp,
+      OutputOptions options);
+
   /**
    * Formats scan results.
    *
    * @param out the output stream
-   * @param results the list of scan results
+   * @param results the list of scan results, all read from the same table
    * @param options output options
    */
   void formatScanResults(PrintStream out, List<ScanResult> results, OutputOptions options);
+
+  /**
+   * Formats a single scan window, emitted as soon as it has been read rather than collected.
+   *
+   * <p>Implementations must write the window with a single call on {@code out}, so that windows
+   * streamed from several connections at once don't interleave.
+   *
+   * @param out the output stream
+   * @param result the scan window
+   * @param timestamp the timestamp when the data was received, or null to use current time
+   * @param options output options
+   */
+  void formatScanWindow(
+      PrintStream out, ScanResult result, @Nullable Instant timestamp, OutputOptions options);
+
+  /**
+   * Formats a range of addresses that could not be read during a scan.
+   *
+   * @param out the output stream
+   * @param failure the unreadable address range
+   * @param options output options
+   */
+  void formatScanFailure(PrintStream out, ScanFailure failure, OutputOptions options);
+
+  /**
+   * Formats the units that answered a discovery sweep.
+   *
+   * @param out the output stream
+   * @param units the responding units, in unit ID order
+   * @param options output options
+   */
+  void formatDiscovery(PrintStream out, List<DiscoveredUnit> units, OutputOptions options);
+
+  /**
+   * Formats the hosts found reachable by a sweep.
+   *
+   * @param out the output stream
+   * @param results the reachable hosts, in the order they were given
+   * @param options output options
+   */
+  void formatSweep(PrintStream out, List<SweepResult> results, OutputOptions options);
+
+  /**
+   * Formats the values read for a tag in one polling iteration.
+   *
+   * @param out the output stream
+   * @param sample the tag and the data read for it
+   * @param timestamp the timestamp when the values were read, or null to use the current time
+   * @param options output options
+   */
+  void formatPollSample(
+      PrintStream out, PollSample sample, @Nullable Instant timestamp, OutputOptions options);
 }
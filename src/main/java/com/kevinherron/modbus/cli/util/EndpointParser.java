@@ -1,6 +1,9 @@
 package com.kevinherron.modbus.cli.util;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import org.jspecify.annotations.Nullable;
 
@@ -17,12 +20,23 @@ import org.jspecify.annotations.Nullable;
  *   <li>{@code rtu:COM3} — RTU with serial port name
  *   <li>{@code rtu:///dev/ttyUSB0} — RTU URI format
  * </ul>
+ *
+ * <p>Commands that operate on many TCP hosts at once also accept host ranges, parsed by {@link
+ * #parseHosts(String, Integer)}:
+ *
+ * <ul>
+ *   <li>{@code tcp:10.1.0.0/22} — every host address in an IPv4 CIDR block
+ *   <li>{@code tcp:plc1,plc2:1502,10.1.2.0/28} — a comma-separated list of hosts and CIDR blocks
+ * </ul>
  */
 public final class EndpointParser {
 
   /** The default Modbus TCP port. */
   public static final int DEFAULT_TCP_PORT = 502;
 
+  /** The shortest CIDR prefix accepted by {@link #parseHosts}, i.e. at most 65536 addresses. */
+  public static final int MIN_CIDR_PREFIX = 16;
+
   private EndpointParser() {
     // Utility class - prevent instantiation
   }
@@ -67,6 +81,112 @@ public final class EndpointParser {
     return resolveTcp(new ParsedTcp(trimmed, null), portOverride);
   }
 
+  /**
+   * Parses a host range into the TCP endpoints it covers.
+   *
+   * <p>The range is an optional {@code tcp:} prefix followed by a comma-separated list of entries.
+   * Each entry is either a host, with an optional port as accepted by {@link #parse}, or an IPv4
+   * CIDR block such as {@code 10.1.0.0/22}. CIDR blocks expand to every host address in the block,
+   * excluding the network and broadcast addresses for prefixes shorter than /31, and use the
+   * default port or {@code portOverride}.
+   *
+   * @param rawHosts the raw host range to parse.
+   * @param portOverride an optional port override from the {@code --port} CLI flag.
+   * @return the endpoints, in the order given, with duplicates removed.
+   * @throws IllegalArgumentException if any entry is invalid, or a CIDR prefix is shorter than
+   *     {@value #MIN_CIDR_PREFIX}.
+   */
+  public static List<Endpoint.Tcp> parseHosts(String rawHosts, @Nullable Integer portOverride) {
+    if (rawHosts == null || rawHosts.isBlank()) {
+      throw new IllegalArgumentException("host range must not be blank");
+    }
+
+    String hosts = rawHosts.trim();
+    if (hosts.toLowerCase(Locale.ROOT).startsWith("rtu:")) {
+      throw new IllegalArgumentException("host ranges are only supported for TCP endpoints");
+    }
+    if (hosts.toLowerCase(Locale.ROOT).startsWith("tcp:")) {
+      hosts = hosts.substring("tcp:".length());
+    }
+
+    var endpoints = new LinkedHashSet<Endpoint.Tcp>();
+    for (String entry : hosts.split(",")) {
+      String trimmed = entry.trim();
+      if (trimmed.isEmpty()) {
+        throw new IllegalArgumentException("host range contains an empty entry");
+      }
+
+      if (trimmed.contains("/")) {
+        int port = portOverride != null ? portOverride : DEFAULT_TCP_PORT;
+        for (String address : expandCidr(trimmed)) {
+          endpoints.add(new Endpoint.Tcp(address, port));
+        }
+      } else {
+        endpoints.add(resolveTcp(parseTcpScheme(trimmed), portOverride));
+      }
+    }
+
+    return List.copyOf(endpoints);
+  }
+
+  /**
+   * Expands an IPv4 CIDR block, e.g. {@code 192.168.1.0/24}, into its host addresses.
+   *
+   * @param cidr the CIDR block.
+   * @return the host addresses, in ascending order.
+   * @throws IllegalArgumentException if the block is invalid or too large.
+   */
+  private static List<String> expandCidr(String cidr) {
+    int slash = cidr.indexOf('/');
+    String addressPart = cidr.substring(0, slash);
+    String prefixPart = cidr.substring(slash + 1);
+
+    if (prefixPart.isEmpty() || !prefixPart.chars().allMatch(Character::isDigit)) {
+      throw new IllegalArgumentException("invalid CIDR prefix length: %s".formatted(cidr));
+    }
+    int prefix = Integer.parseInt(prefixPart);
+    if (prefix > 32) {
+      throw new IllegalArgumentException("invalid CIDR prefix length: %s".formatted(cidr));
+    }
+    if (prefix < MIN_CIDR_PREFIX) {
+      throw new IllegalArgumentException(
+          "CIDR block %s is too large (shortest prefix is /%d)".formatted(cidr, MIN_CIDR_PREFIX));
+    }
+
+    String[] octets = addressPart.split("\\.", -1);
+    if (octets.length != 4) {
+      throw new IllegalArgumentException("CIDR block must be an IPv4 address: %s".formatted(cidr));
+    }
+
+    long address = 0;
+    for (String octet : octets) {
+      if (octet.isEmpty() || octet.length() > 3 || !octet.chars().allMatch(Character::isDigit)) {
+        throw new IllegalArgumentException(
+            "invalid IPv4 address in CIDR block: %s".formatted(cidr));
+      }
+      int value = Integer.parseInt(octet);
+      if (value > 255) {
+        throw new IllegalArgumentException(
+            "invalid IPv4 address in CIDR block: %s".formatted(cidr));
+      }
+      address = (address << 8) | value;
+    }
+
+    long size = 1L << (32 - prefix);
+    long network = address & ~(size - 1) & 0xFFFFFFFFL;
+
+    // Network and broadcast addresses aren't hosts, except in /31 point-to-point and /32 blocks
+    long first = size > 2 ? network + 1 : network;
+    long last = size > 2 ? network + size - 2 : network + size - 1;
+
+    var addresses = new ArrayList<String>((int) (last - first + 1));
+    for (long a = first; a <= last; a++) {
+      addresses.add(
+          "%d.%d.%d.%d".formatted((a >> 24) & 0xFF, (a >> 16) & 0xFF, (a >> 8) & 0xFF, a & 0xFF));
+    }
+    return addresses;
+  }
+
   private static Endpoint.Tcp resolveTcp(ParsedTcp parsed, @Nullable Integer portOverride) {
     int resolvedPort = DEFAULT_TCP_PORT;
 
@@ -0,0 +1,377 @@
+package com.kevinherron.modbus.cli.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import picocli.CommandLine.ITypeConverter;
+
+/**
+ * Interprets register data as typed values: 16-, 32- and 64-bit integers, IEEE 754 floats, or an
+ * ASCII string.
+ *
+ * <p>Modbus only defines 16-bit registers, each sent high byte first. Wider values span consecutive
+ * registers, and devices disagree on how they are laid out: {@code wordOrder} is the order of the
+ * registers within a value, and {@code byteOrder} the order of the bytes within each register. The
+ * common layouts are {@code BIG}/{@code BIG} (ABCD, the default), {@code LITTLE}/{@code BIG}
+ * (CDAB, "word swapped"), {@code BIG}/{@code LITTLE} (BADC) and {@code LITTLE}/{@code LITTLE}
+ * (DCBA).
+ *
+ * <p>Values are decoded in bulk through a {@link ByteBuffer} view of the whole register array into
+ * a primitive array, without boxing each value, and encoded the same way in reverse. When the word
+ * and byte order differ, the bytes of each register are swapped in one pass, which turns the layout
+ * into a plain big- or little-endian one that a view can read or write directly.
+ *
+ * @param type the type of each value.
+ * @param wordOrder the order of the registers within a value.
+ * @param byteOrder the order of the bytes within each register.
+ */
+public record RegisterCodec(DataType type, Order wordOrder, Order byteOrder) {
+
+  /**
+   * Decodes every whole value in {@code registers}. Registers left over after the last whole value
+   * are ignored.
+   *
+   * @param registers the register data, 2 bytes per register as received.
+   * @return the decoded values.
+   */
+  public Values decode(byte[] registers) {
+    if (type == DataType.STRING) {
+      byte[] bytes = byteOrder == Order.LITTLE ? swapRegisterBytes(registers) : registers;
+
+      // The string ends at the first NUL; devices pad unused registers with them
+      int length = 0;
+      while (length < bytes.length && bytes[length] != 0) {
+        length++;
+      }
+      return new Values.Text(new String(bytes, 0, length, StandardCharsets.ISO_8859_1));
+    }
+
+    ByteBuffer buffer =
+        ByteBuffer.wrap(byteOrder == wordOrder ? registers : swapRegisterBytes(registers))
+            .order(wordOrder.byteOrder);
+
+    return switch (type) {
+      case INT16 -> {
+        var shorts = buffer.asShortBuffer();
+        var values = new long[shorts.remaining()];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = shorts.get(i);
+        }
+        yield new Values.Integers(values);
+      }
+      case UINT16 -> {
+        var shorts = buffer.asShortBuffer();
+        var values = new long[shorts.remaining()];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = Short.toUnsignedLong(shorts.get(i));
+        }
+        yield new Values.Integers(values);
+      }
+      case INT32 -> {
+        var ints = buffer.asIntBuffer();
+        var values = new long[ints.remaining()];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = ints.get(i);
+        }
+        yield new Values.Integers(values);
+      }
+      case UINT32 -> {
+        var ints = buffer.asIntBuffer();
+        var values = new long[ints.remaining()];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = Integer.toUnsignedLong(ints.get(i));
+        }
+        yield new Values.Integers(values);
+      }
+      case INT64 -> {
+        var longs = buffer.asLongBuffer();
+        var values = new long[longs.remaining()];
+        longs.get(values);
+        yield new Values.Integers(values);
+      }
+      case FLOAT32 -> {
+        var floats = buffer.asFloatBuffer();
+        var values = new float[floats.remaining()];
+        floats.get(values);
+        yield new Values.Floats(values);
+      }
+      case FLOAT64 -> {
+        var doubles = buffer.asDoubleBuffer();
+        var values = new double[doubles.remaining()];
+        doubles.get(values);
+        yield new Values.Doubles(values);
+      }
+      case STRING -> throw new AssertionError();
+    };
+  }
+
+  /**
+   * Encodes values parsed from text into register data, written into a single array.
+   *
+   * <p>Integers may be given in decimal, within the type's range, or in hexadecimal with a {@code
+   * 0x} prefix, as the raw bits of the value (e.g. {@code 0xFFFF} for an int16 of -1). Floats are
+   * parsed by {@link Double#parseDouble}. A string is a single value, two characters per register,
+   * padded with a NUL to a whole register.
+   *
+   * @param values the values to encode.
+   * @return the register data, 2 bytes per register in the order they are sent.
+   * @throws IllegalArgumentException if a value can't be parsed or is out of range, or if more
+   *     than one string is given.
+   */
+  public byte[] encode(List<String> values) {
+    if (type == DataType.STRING) {
+      if (values.size() != 1) {
+        throw new IllegalArgumentException(
+            "expected one string value, got %d".formatted(values.size()));
+      }
+      byte[] text = values.getFirst().getBytes(StandardCharsets.ISO_8859_1);
+      var registers = new byte[text.length + (text.length % 2)];
+      System.arraycopy(text, 0, registers, 0, text.length);
+      return byteOrder == Order.LITTLE ? swapRegisterBytes(registers) : registers;
+    }
+
+    var registers = new byte[values.size() * type.registers() * 2];
+    ByteBuffer buffer = ByteBuffer.wrap(registers).order(wordOrder.byteOrder);
+
+    for (String value : values) {
+      switch (type) {
+        case INT16 ->
+            buffer.putShort((short) parseInteger(value, 16, Short.MIN_VALUE, Short.MAX_VALUE));
+        case UINT16 -> buffer.putShort((short) parseInteger(value, 16, 0, 0xFFFF));
+        case INT32 ->
+            buffer.putInt((int) parseInteger(value, 32, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        case UINT32 -> buffer.putInt((int) parseInteger(value, 32, 0, 0xFFFF_FFFFL));
+        case INT64 -> buffer.putLong(parseInteger(value, 64, Long.MIN_VALUE, Long.MAX_VALUE));
+        case FLOAT32 -> buffer.putFloat((float) parseFloat(value));
+        case FLOAT64 -> buffer.putDouble(parseFloat(value));
+        case STRING -> throw new AssertionError();
+      }
+    }
+
+    if (byteOrder != wordOrder) {
+      swapRegisterBytesInPlace(registers);
+    }
+    return registers;
+  }
+
+  /**
+   * Parses an integer of {@code bits} bits: decimal within {@code [min, max]}, or hexadecimal with
+   * a {@code 0x} prefix as the raw bits.
+   */
+  private long parseInteger(String value, int bits, long min, long max) {
+    String normalized = value.trim();
+    try {
+      if (normalized.toLowerCase(Locale.ROOT).startsWith("0x")) {
+        long raw = Long.parseUnsignedLong(normalized.substring(2), 16);
+        if (bits < 64 && (raw >>> bits) != 0) {
+          throw new NumberFormatException();
+        }
+        return raw;
+      }
+
+      long parsed = Long.parseLong(normalized);
+      if (parsed < min || parsed > max) {
+        throw new NumberFormatException();
+      }
+      return parsed;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Invalid %s value: '%s'. Use decimal (%d to %d) or hex (e.g., 0x%X)"
+              .formatted(type.cliName(), value, min, max, max),
+          e);
+    }
+  }
+
+  private double parseFloat(String value) {
+    try {
+      return Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Invalid %s value: '%s'. Use a decimal number (e.g., 12.5 or 1.2e-3)"
+              .formatted(type.cliName(), value),
+          e);
+    }
+  }
+
+  /** Returns a copy of {@code registers} with the two bytes of each register swapped. */
+  private static byte[] swapRegisterBytes(byte[] registers) {
+    var swapped = new byte[registers.length];
+    for (int i = 0; i + 1 < registers.length; i += 2) {
+      swapped[i] = registers[i + 1];
+      swapped[i + 1] = registers[i];
+    }
+    return swapped;
+  }
+
+  /** Swaps the two bytes of each register in {@code registers}. */
+  private static void swapRegisterBytesInPlace(byte[] registers) {
+    for (int i = 0; i + 1 < registers.length; i += 2) {
+      byte high = registers[i];
+      registers[i] = registers[i + 1];
+      registers[i + 1] = high;
+    }
+  }
+
+  /** The type of the values in a block of registers. */
+  public enum DataType {
+    INT16(1),
+    UINT16(1),
+    INT32(2),
+    UINT32(2),
+    INT64(4),
+    FLOAT32(2),
+    FLOAT64(4),
+
+    /** ASCII text, two characters per register, spanning the whole block. */
+    STRING(1);
+
+    private final int registers;
+
+    DataType(int registers) {
+      this.registers = registers;
+    }
+
+    /**
+     * Returns the number of registers one value spans; 1 for strings, which span any number.
+     *
+     * @return the registers per value.
+     */
+    public int registers() {
+      return registers;
+    }
+
+    /**
+     * Returns the name used on the command line and in JSON output, e.g. {@code float32}.
+     *
+     * @return the CLI name.
+     */
+    public String cliName() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  /** The order of the words in a value, or of the bytes in a word. */
+  public enum Order {
+
+    /** Most significant first. */
+    BIG(ByteOrder.BIG_ENDIAN),
+
+    /** Least significant first. */
+    LITTLE(ByteOrder.LITTLE_ENDIAN);
+
+    private final ByteOrder byteOrder;
+
+    Order(ByteOrder byteOrder) {
+      this.byteOrder = byteOrder;
+    }
+  }
+
+  /**
+   * Values decoded from a block of registers, held in a primitive array of the type's kind.
+   *
+   * <p>Value {@code i} starts at register {@code i * type.registers()} of the block.
+   */
+  public sealed interface Values {
+
+    /**
+     * Returns the number of values.
+     *
+     * @return the number of values.
+     */
+    int size();
+
+    /**
+     * Returns value {@code index} as text, e.g. {@code -12}, {@code 3.14} or the string itself.
+     *
+     * @param index the value index.
+     * @return the value's text.
+     */
+    String text(int index);
+
+    /**
+     * Integer values, signed or unsigned as decoded.
+     *
+     * @param values the values.
+     */
+    record Integers(long[] values) implements Values {
+      @Override
+      public int size() {
+        return values.length;
+      }
+
+      @Override
+      public String text(int index) {
+        return Long.toString(values[index]);
+      }
+    }
+
+    /**
+     * 32-bit float values.
+     *
+     * @param values the values.
+     */
+    record Floats(float[] values) implements Values {
+      @Override
+      public int size() {
+        return values.length;
+      }
+
+      @Override
+      public String text(int index) {
+        return Float.toString(values[index]);
+      }
+    }
+
+    /**
+     * 64-bit float values.
+     *
+     * @param values the values.
+     */
+    record Doubles(double[] values) implements Values {
+      @Override
+      public int size() {
+        return values.length;
+      }
+
+      @Override
+      public String text(int index) {
+        return Double.toString(values[index]);
+      }
+    }
+
+    /**
+     * A string; always a single value.
+     *
+     * @param value the string.
+     */
+    record Text(String value) implements Values {
+      @Override
+      public int size() {
+        return 1;
+      }
+
+      @Override
+      public String text(int index) {
+        return value;
+      }
+    }
+  }
+
+  /** Case-insensitive converter for {@link DataType}, accepting e.g. {@code float32}. */
+  public static final class DataTypeConverter implements ITypeConverter<DataType> {
+    @Override
+    public DataType convert(String value) {
+      return DataType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+  }
+
+  /** Case-insensitive converter for {@link Order}, accepting e.g. {@code little}. */
+  public static final class OrderConverter implements ITypeConverter<Order> {
+    @Override
+    public Order convert(String value) {
+      return Order.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+  }
+}
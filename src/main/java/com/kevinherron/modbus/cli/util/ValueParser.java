@@ -1,5 +1,8 @@
 package com.kevinherron.modbus.cli.util;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /** Utility class for parsing command-line values into Modbus data types. */
 public final class ValueParser {
 
@@ -69,4 +72,31 @@ public final class ValueParser {
           "Invalid hex value: '%s'. Use format: 0xFFFF or FFFF".formatted(value), e);
     }
   }
+
+  /**
+   * Splits a list of values, e.g. the contents of a value file, into individual value strings.
+   *
+   * <p>Values may be separated by commas, whitespace, or newlines. Anything from a {@code #} to the
+   * end of its line is a comment and is ignored.
+   *
+   * @param text the value list to split
+   * @return the value strings, in order, with empty entries removed
+   */
+  public static List<String> splitValues(String text) {
+    var values = new ArrayList<String>();
+
+    for (String line : text.split("\\R")) {
+      int comment = line.indexOf('#');
+      if (comment >= 0) {
+        line = line.substring(0, comment);
+      }
+      for (String value : line.split("[,\\s]+")) {
+        if (!value.isEmpty()) {
+          values.add(value);
+        }
+      }
+    }
+
+    return values;
+  }
 }
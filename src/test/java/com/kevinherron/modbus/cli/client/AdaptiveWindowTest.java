@@ -0,0 +1,92 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveWindowTest {
+
+  @Test
+  void startsAtMaximum() {
+    var window = new AdaptiveWindow(125);
+
+    assertEquals(125, window.next(0, 1000));
+  }
+
+  @Test
+  void clampsToRemaining() {
+    var window = new AdaptiveWindow(125);
+
+    assertEquals(10, window.next(0, 10));
+  }
+
+  @Test
+  void shrinksOnFailureAndGrowsOnSuccess() {
+    var window = new AdaptiveWindow(125);
+
+    assertEquals(125, window.next(0, 1000));
+    window.failure(125);
+    assertEquals(62, window.next(0, 1000));
+
+    window.failure(62);
+    assertEquals(31, window.next(0, 1000));
+
+    window.success(0, 31);
+    assertEquals(62, window.next(31, 1000));
+
+    window.success(31, 62);
+    assertEquals(124, window.next(93, 1000));
+
+    window.success(93, 124);
+    assertEquals(125, window.next(217, 1000));
+  }
+
+  @Test
+  void neverShrinksBelowOne() {
+    var window = new AdaptiveWindow(125);
+
+    window.next(0, 1000);
+    window.failure(1);
+    assertEquals(1, window.next(0, 1000));
+  }
+
+  @Test
+  void newRegionStartsAtMaximum() {
+    var window = new AdaptiveWindow(125);
+
+    window.next(0, 5000);
+    window.failure(125);
+    window.failure(62);
+    assertEquals(31, window.next(0, 5000));
+
+    // A hole in region 0 doesn't slow down region 1
+    assertEquals(125, window.next(AdaptiveWindow.REGION_SIZE, 5000));
+  }
+
+  @Test
+  void remembersLargestAcceptedWindowPerRegion() {
+    var window = new AdaptiveWindow(125);
+
+    window.next(0, 5000);
+    window.success(0, 40);
+    window.success(40, 80);
+
+    window.next(AdaptiveWindow.REGION_SIZE, 5000);
+    window.success(AdaptiveWindow.REGION_SIZE, 125);
+
+    assertEquals(Map.of(0, 80, AdaptiveWindow.REGION_SIZE, 125), window.acceptedByRegion());
+    assertEquals(3, window.requests());
+  }
+
+  @Test
+  void revisitedRegionStartsAtRememberedSize() {
+    var window = new AdaptiveWindow(125);
+
+    window.next(0, 5000);
+    window.success(0, 20);
+
+    window.next(AdaptiveWindow.REGION_SIZE, 5000);
+    assertEquals(20, window.next(0, 5000));
+  }
+}
@@ -0,0 +1,131 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinherron.modbus.cli.test.CliTestRunner;
+import com.kevinherron.modbus.cli.test.CliTestRunner.Result;
+import com.kevinherron.modbus.cli.test.TestProcessImage;
+import com.kevinherron.modbus.cli.test.TestServerBuilder;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BatchIT {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testBatch() throws Exception {
+    var processImage = new TestProcessImage();
+    processImage.setHoldingRegisters(0, 10, 20, 30);
+
+    try (var server = new TestServerBuilder().withProcessImage(processImage).build()) {
+      server.start();
+
+      Path batchFile = tempDir.resolve("commands.txt");
+      Files.writeString(
+          batchFile,
+          """
+          # Write a setpoint, then read it back with its neighbours
+          wsr 5 0x1234
+          rhr 0 6   # trailing comment
+
+          bogus 1 2
+          wmr 10 2
+          """);
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "batch",
+              batchFile.toString());
+
+      // The lines that can't be parsed fail the batch, after every other line has run
+      assertEquals(1, result.exitCode(), "Batch with rejected lines should exit non-zero");
+      assertEquals(0x1234, processImage.getHoldingRegister(5));
+
+      var jsonNodes = new ArrayList<JsonNode>();
+      var objectMapper = new ObjectMapper();
+
+      try (var reader = new BufferedReader(new StringReader(result.stdout()))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.trim().isEmpty()) {
+            jsonNodes.add(objectMapper.readTree(line));
+          }
+        }
+      }
+
+      List<JsonNode> tables =
+          jsonNodes.stream().filter(n -> n.get("type").asText().equals("register_table")).toList();
+      assertEquals(1, tables.size(), "Should have the rhr register table");
+
+      assertTrue(result.stderr().contains("batch line 5"), "Should report the unknown command");
+      assertTrue(
+          result.stderr().contains("either values or --file"),
+          "Should report the incomplete wmr and keep going");
+    }
+  }
+
+  @Test
+  void testBatchReportsFailedCommands() throws Exception {
+    try (var server = new TestServerBuilder().withUnreadableHoldingRegisters(12, 16).build()) {
+      server.start();
+
+      Path batchFile = tempDir.resolve("commands.txt");
+      Files.writeString(
+          batchFile,
+          """
+          rhr 0 2
+          rhr 12 2
+          scan 10 20 --size 10 --fail-fast
+          rhr 0 2
+          """);
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "batch",
+              batchFile.toString());
+
+      assertEquals(1, result.exitCode(), "Batch with failed commands should exit non-zero");
+
+      // The batch keeps going after each failure
+      var objectMapper = new ObjectMapper();
+      long tables = 0;
+      for (String line : result.stdout().lines().toList()) {
+        if (!line.isBlank()
+            && objectMapper.readTree(line).get("type").asText().equals("register_table")) {
+          tables++;
+        }
+      }
+      assertEquals(2, tables, "Should have the tables of lines 1 and 4");
+
+      assertTrue(result.stderr().contains("batch line 2: rhr failed"));
+      assertTrue(result.stderr().contains("batch line 3: scan failed"));
+      assertFalse(result.stderr().contains("batch line 1"));
+      assertFalse(result.stderr().contains("batch line 4"));
+    }
+  }
+}
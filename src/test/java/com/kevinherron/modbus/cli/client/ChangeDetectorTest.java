@@ -0,0 +1,101 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kevinherron.modbus.cli.client.ChangeDetector.ValueChange.DoubleChange;
+import com.kevinherron.modbus.cli.client.ChangeDetector.ValueChange.FloatChange;
+import com.kevinherron.modbus.cli.client.ChangeDetector.ValueChange.IntegerChange;
+import com.kevinherron.modbus.cli.util.RegisterCodec;
+import com.kevinherron.modbus.cli.util.RegisterCodec.DataType;
+import com.kevinherron.modbus.cli.util.RegisterCodec.Order;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ChangeDetectorTest {
+
+  @Test
+  void firstReadReportsEveryRegister() {
+    var detector = new ChangeDetector(0);
+
+    assertTrue(detector.isEmpty());
+    assertEquals(
+        List.of(new IntegerChange(10, false, 0, 0x0001), new IntegerChange(11, false, 0, 0xFFFF)),
+        detector.registers(10, new byte[] {0x00, 0x01, (byte) 0xFF, (byte) 0xFF}));
+  }
+
+  @Test
+  void unchangedRegistersAreNotReported() {
+    var detector = new ChangeDetector(0);
+    detector.registers(0, new byte[] {0x00, 0x01, 0x00, 0x02});
+
+    assertEquals(List.of(), detector.registers(0, new byte[] {0x00, 0x01, 0x00, 0x02}));
+    assertEquals(
+        List.of(new IntegerChange(1, true, 0x0002, 0x0003)),
+        detector.registers(0, new byte[] {0x00, 0x01, 0x00, 0x03}));
+  }
+
+  @Test
+  void deadbandComparesAgainstLastReportedValue() {
+    var detector = new ChangeDetector(2);
+    detector.registers(0, new byte[] {0x00, 100});
+
+    // Each step stays within the deadband, but the total drift doesn't
+    assertEquals(List.of(), detector.registers(0, new byte[] {0x00, 101}));
+    assertEquals(List.of(), detector.registers(0, new byte[] {0x00, 102}));
+    assertEquals(
+        List.of(new IntegerChange(0, true, 100, 103)),
+        detector.registers(0, new byte[] {0x00, 103}));
+  }
+
+  @Test
+  void bitsIgnoreDeadband() {
+    var detector = new ChangeDetector(10);
+    detector.bits(0, new byte[] {0b0000_0101}, 3);
+
+    assertEquals(
+        List.of(new IntegerChange(1, true, 0, 1), new IntegerChange(2, true, 1, 0)),
+        detector.bits(0, new byte[] {0b0000_0011}, 3));
+  }
+
+  @Test
+  void decodedInt16ComparesSignedValues() {
+    var codec = new RegisterCodec(DataType.INT16, Order.BIG, Order.BIG);
+    var detector = new ChangeDetector(2);
+    detector.values(0, codec.decode(new byte[] {0x00, 0x00}), 1);
+
+    // 0 to -1 is a change of 1, within the deadband, not 65535
+    assertEquals(
+        List.of(), detector.values(0, codec.decode(new byte[] {(byte) 0xFF, (byte) 0xFF}), 1));
+    assertEquals(
+        List.of(new IntegerChange(0, true, 0, -3)),
+        detector.values(0, codec.decode(new byte[] {(byte) 0xFF, (byte) 0xFD}), 1));
+  }
+
+  @Test
+  void decodedFloat32ComparesWholeValuesAtTheirFirstAddress() {
+    var codec = new RegisterCodec(DataType.FLOAT32, Order.LITTLE, Order.BIG);
+    var detector = new ChangeDetector(0.5);
+
+    assertEquals(
+        List.of(new FloatChange(10, false, 0, 1.0f), new FloatChange(12, false, 0, 2.0f)),
+        detector.values(10, codec.decode(codec.encode(List.of("1.0", "2.0"))), 2));
+
+    // Both registers of the first value change, but by less than the deadband
+    assertEquals(
+        List.of(new FloatChange(12, true, 2.0f, 3.5f)),
+        detector.values(10, codec.decode(codec.encode(List.of("1.25", "3.5"))), 2));
+  }
+
+  @Test
+  void decodedNaNIsReportedOnce() {
+    var codec = new RegisterCodec(DataType.FLOAT64, Order.BIG, Order.BIG);
+    var detector = new ChangeDetector(100);
+    detector.values(0, codec.decode(codec.encode(List.of("1.0"))), 4);
+
+    assertEquals(
+        List.of(new DoubleChange(0, true, 1.0, Double.NaN)),
+        detector.values(0, codec.decode(codec.encode(List.of("NaN"))), 4));
+    assertEquals(List.of(), detector.values(0, codec.decode(codec.encode(List.of("NaN"))), 4));
+  }
+}
@@ -0,0 +1,126 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.digitalpetri.modbus.client.ModbusTcpClient;
+import com.digitalpetri.modbus.tcp.client.NettyTcpClientTransport;
+import com.kevinherron.modbus.cli.client.ConnectionPool.Key;
+import com.kevinherron.modbus.cli.client.ConnectionPool.Lease;
+import com.kevinherron.modbus.cli.test.TestServerBuilder;
+import com.kevinherron.modbus.cli.util.EndpointParser.Endpoint;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+public class ConnectionPoolIT {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+  @Test
+  void testReleasedClientIsReused() throws Exception {
+    try (var server = new TestServerBuilder().build();
+        var pool = new ConnectionPool(Duration.ofMinutes(1), 4)) {
+      server.start();
+      Key key = key(server.getPort(), 5000);
+
+      ModbusClient first;
+      try (Lease lease = pool.acquire(key, factory(server.getPort()), TIMEOUT)) {
+        first = lease.client();
+        assertTrue(first.isConnected());
+      }
+
+      try (Lease lease = pool.acquire(key, factory(server.getPort()), TIMEOUT)) {
+        assertSame(first, lease.client(), "Released client should be reused");
+      }
+
+      // Different settings never share a client
+      Key otherKey = key(server.getPort(), 1000);
+      try (Lease lease = pool.acquire(otherKey, factory(server.getPort()), TIMEOUT)) {
+        assertNotSame(first, lease.client());
+      }
+      assertEquals(2, pool.size());
+    }
+  }
+
+  @Test
+  void testConcurrentLeasesShareClientsAtHostLimit() throws Exception {
+    try (var server = new TestServerBuilder().build();
+        var pool = new ConnectionPool(Duration.ofMinutes(1), 2)) {
+      server.start();
+      Key key = key(server.getPort(), 5000);
+
+      try (Lease a = pool.acquire(key, factory(server.getPort()), TIMEOUT);
+          Lease b = pool.acquire(key, factory(server.getPort()), TIMEOUT);
+          Lease c = pool.acquire(key, factory(server.getPort()), TIMEOUT)) {
+
+        assertNotSame(a.client(), b.client(), "Should open a second client under the limit");
+        assertTrue(
+            c.client() == a.client() || c.client() == b.client(),
+            "Should share a client at the limit");
+        assertEquals(2, pool.size());
+      }
+    }
+  }
+
+  @Test
+  void testIdleClientOfOtherKeyMakesRoomAtHostLimit() throws Exception {
+    try (var server = new TestServerBuilder().build();
+        var pool = new ConnectionPool(Duration.ofMinutes(1), 1)) {
+      server.start();
+      Key key = key(server.getPort(), 5000);
+      Key otherKey = key(server.getPort(), 1000);
+
+      ModbusClient first;
+      try (Lease lease = pool.acquire(key, factory(server.getPort()), TIMEOUT)) {
+        first = lease.client();
+      }
+
+      // The host is full, but its only client is idle: it is closed instead of waiting for it
+      try (Lease lease = pool.acquire(otherKey, factory(server.getPort()), TIMEOUT)) {
+        assertNotSame(first, lease.client());
+        assertTrue(lease.client().isConnected());
+      }
+      assertFalse(first.isConnected(), "Idle client of the other key should be closed");
+      assertEquals(1, pool.size());
+    }
+  }
+
+  @Test
+  void testIdleClientsAreEvicted() throws Exception {
+    try (var server = new TestServerBuilder().build();
+        var pool = new ConnectionPool(Duration.ofMillis(200), 4)) {
+      server.start();
+      Key key = key(server.getPort(), 5000);
+
+      ModbusClient client;
+      try (Lease lease = pool.acquire(key, factory(server.getPort()), TIMEOUT)) {
+        client = lease.client();
+      }
+
+      Thread.sleep(1000);
+
+      assertEquals(0, pool.size(), "Idle client should have been evicted");
+      assertFalse(client.isConnected());
+    }
+  }
+
+  private static Key key(int port, int timeout) {
+    return new Key(new Endpoint.Tcp("localhost", port), List.of(timeout, false));
+  }
+
+  private static Supplier<ModbusClient> factory(int port) {
+    return () ->
+        ModbusTcpClient.create(
+            NettyTcpClientTransport.create(
+                cfg -> {
+                  cfg.hostname = "localhost";
+                  cfg.port = port;
+                }));
+  }
+}
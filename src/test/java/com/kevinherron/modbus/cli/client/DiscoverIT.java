@@ -0,0 +1,73 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinherron.modbus.cli.test.CliTestRunner;
+import com.kevinherron.modbus.cli.test.CliTestRunner.Result;
+import com.kevinherron.modbus.cli.test.TestServerBuilder;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class DiscoverIT {
+
+  @Test
+  void testDiscover() throws Exception {
+    try (var server = new TestServerBuilder().withSeparateUnits(true).build()) {
+      server.start();
+
+      // The test server answers on every unit ID
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "discover",
+              "--from",
+              "1",
+              "--to",
+              "10",
+              "--connections",
+              "3");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      var jsonNodes = new ArrayList<JsonNode>();
+      var objectMapper = new ObjectMapper();
+
+      try (var reader = new BufferedReader(new StringReader(result.getOutput()))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.trim().isEmpty()) {
+            jsonNodes.add(objectMapper.readTree(line));
+          }
+        }
+      }
+
+      assertEquals(1, jsonNodes.size(), "Should have 1 JSON line");
+
+      JsonNode discoveryNode = jsonNodes.getFirst();
+      assertEquals("discovery", discoveryNode.get("type").asText());
+
+      // Units from every connection are merged back in unit ID order
+      JsonNode unitsNode = discoveryNode.get("units");
+      List<Integer> unitIds = unitsNode.valueStream().map(n -> n.get("unit_id").asInt()).toList();
+      assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), unitIds);
+
+      for (int i = 0; i < unitsNode.size(); i++) {
+        JsonNode unitNode = unitsNode.get(i);
+        assertTrue(unitNode.get("latency_ms").asDouble() >= 0);
+        assertTrue(unitNode.get("exception").isNull());
+      }
+    }
+  }
+}
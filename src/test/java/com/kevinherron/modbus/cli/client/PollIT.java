@@ -0,0 +1,115 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinherron.modbus.cli.test.CliTestRunner;
+import com.kevinherron.modbus.cli.test.CliTestRunner.Result;
+import com.kevinherron.modbus.cli.test.TestProcessImage;
+import com.kevinherron.modbus.cli.test.TestServerBuilder;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PollIT {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testPollTagList() throws Exception {
+    var processImage = new TestProcessImage();
+    processImage.setHoldingRegisters(0, 0x1234, 0x5678);
+    processImage.setCoil(17, true);
+
+    try (var server = new TestServerBuilder().withProcessImage(processImage).build()) {
+      server.start();
+
+      Path tagFile = tempDir.resolve("tags.csv");
+      Files.writeString(
+          tagFile,
+          """
+          # Two tags on the command's endpoint, one at a faster rate
+          name,endpoint,unit,table,address,quantity,interval
+          flow,,,holding,0,2,50
+          alarms,tcp:localhost:%d,1,coils,16,4,
+          """
+              .formatted(server.getPort()));
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "poll",
+              tagFile.toString(),
+              "--count",
+              "2",
+              "--interval",
+              "100");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      var jsonNodes = new ArrayList<JsonNode>();
+      var objectMapper = new ObjectMapper();
+
+      try (var reader = new BufferedReader(new StringReader(result.getOutput()))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.trim().isEmpty()) {
+            jsonNodes.add(objectMapper.readTree(line));
+          }
+        }
+      }
+
+      // Each tag is polled --count times; ignore any overrun warnings on a slow machine
+      List<JsonNode> samples =
+          jsonNodes.stream().filter(n -> n.get("type").asText().equals("poll_sample")).toList();
+      assertEquals(4, samples.size(), "Should have 4 poll samples");
+
+      List<JsonNode> flow =
+          samples.stream().filter(n -> n.get("name").asText().equals("flow")).toList();
+      List<JsonNode> alarms =
+          samples.stream().filter(n -> n.get("name").asText().equals("alarms")).toList();
+      assertEquals(2, flow.size());
+      assertEquals(2, alarms.size());
+
+      JsonNode flowNode = flow.getFirst();
+      assertEquals("localhost:" + server.getPort(), flowNode.get("endpoint").asText());
+      assertEquals(1, flowNode.get("unit_id").asInt());
+      assertEquals("holding", flowNode.get("table").asText());
+      assertEquals(0, flowNode.get("address").asInt());
+      assertEquals(2, flowNode.get("quantity").asInt());
+      assertEquals(0x1234, flowNode.get("values").get(0).asInt());
+      assertEquals(0x5678, flowNode.get("values").get(1).asInt());
+
+      JsonNode alarmsNode = alarms.getFirst();
+      assertEquals("coils", alarmsNode.get("table").asText());
+      JsonNode bits = alarmsNode.get("values");
+      assertEquals(4, bits.size());
+      assertTrue(bits.get(1).asBoolean(), "coil 17 should be set");
+      assertTrue(!bits.get(0).asBoolean() && !bits.get(2).asBoolean() && !bits.get(3).asBoolean());
+    }
+  }
+
+  @Test
+  void testInvalidTagList() throws Exception {
+    Path tagFile = tempDir.resolve("tags.csv");
+    Files.writeString(tagFile, "flow,,1,holding,0,200\n");
+
+    Result result =
+        CliTestRunner.execute("client", "localhost", "poll", tagFile.toString(), "--count", "1");
+
+    assertTrue(result.stderr().contains("tag list line 1"), "Should report the invalid line");
+  }
+}
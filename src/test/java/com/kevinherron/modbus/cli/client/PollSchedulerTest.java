@@ -0,0 +1,106 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.kevinherron.modbus.cli.client.PollScheduler.OverrunPolicy;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class PollSchedulerTest {
+
+  private static final long MS = Duration.ofMillis(1).toNanos();
+
+  /** Fake clock that only moves when the scheduler sleeps or an iteration "runs". */
+  private long now = 1_000 * MS;
+
+  private PollScheduler scheduler(OverrunPolicy policy) {
+    return new PollScheduler(Duration.ofMillis(100), policy, () -> now, nanos -> now += nanos);
+  }
+
+  @Test
+  void staysOnGridWithoutDrift() throws InterruptedException {
+    PollScheduler scheduler = scheduler(OverrunPolicy.COALESCE);
+    long origin = now;
+
+    for (int i = 1; i <= 50; i++) {
+      now += 37 * MS + 123_456; // iteration work, not a whole number of milliseconds
+      assertEquals(0, scheduler.awaitNext());
+      assertEquals(origin + i * 100 * MS, now);
+    }
+
+    assertEquals(0, scheduler.missedDeadlines());
+  }
+
+  @Test
+  void skipWaitsForNextFutureDeadline() throws InterruptedException {
+    PollScheduler scheduler = scheduler(OverrunPolicy.SKIP);
+    long origin = now;
+
+    now += 250 * MS; // overruns deadlines 1 and 2
+    assertEquals(2, scheduler.awaitNext());
+    assertEquals(origin + 300 * MS, now);
+
+    now += 10 * MS;
+    assertEquals(0, scheduler.awaitNext());
+    assertEquals(origin + 400 * MS, now);
+
+    assertEquals(2, scheduler.missedDeadlines());
+  }
+
+  @Test
+  void catchUpRunsEveryMissedDeadline() throws InterruptedException {
+    PollScheduler scheduler = scheduler(OverrunPolicy.CATCH_UP);
+    long origin = now;
+
+    now += 250 * MS; // overruns deadlines 1 and 2
+    assertEquals(2, scheduler.awaitNext());
+    assertEquals(origin + 250 * MS, now, "iteration for deadline 1 runs immediately");
+
+    now += 10 * MS;
+    assertEquals(0, scheduler.awaitNext(), "deadline 2 was already reported");
+    assertEquals(origin + 260 * MS, now, "iteration for deadline 2 runs immediately");
+
+    now += 10 * MS;
+    assertEquals(0, scheduler.awaitNext());
+    assertEquals(origin + 300 * MS, now, "caught up with deadline 3");
+
+    assertEquals(2, scheduler.missedDeadlines());
+  }
+
+  @Test
+  void coalesceRunsOnceThenContinuesOnGrid() throws InterruptedException {
+    PollScheduler scheduler = scheduler(OverrunPolicy.COALESCE);
+    long origin = now;
+
+    now += 250 * MS; // overruns deadlines 1 and 2
+    assertEquals(2, scheduler.awaitNext());
+    assertEquals(origin + 250 * MS, now, "one iteration runs immediately");
+
+    now += 10 * MS;
+    assertEquals(0, scheduler.awaitNext());
+    assertEquals(origin + 300 * MS, now);
+
+    assertEquals(2, scheduler.missedDeadlines());
+  }
+
+  @Test
+  void zeroIntervalRunsBackToBack() throws InterruptedException {
+    var scheduler =
+        new PollScheduler(Duration.ZERO, OverrunPolicy.SKIP, () -> now, nanos -> now += nanos);
+    long start = now;
+
+    now += 5 * MS;
+    assertEquals(0, scheduler.awaitNext());
+    assertEquals(start + 5 * MS, now, "no sleep between iterations");
+    assertEquals(0, scheduler.missedDeadlines());
+  }
+
+  @Test
+  void converterAcceptsCliNames() {
+    var converter = new PollScheduler.OverrunPolicyConverter();
+
+    assertEquals(OverrunPolicy.SKIP, converter.convert("skip"));
+    assertEquals(OverrunPolicy.CATCH_UP, converter.convert("catch-up"));
+    assertEquals(OverrunPolicy.COALESCE, converter.convert("COALESCE"));
+  }
+}
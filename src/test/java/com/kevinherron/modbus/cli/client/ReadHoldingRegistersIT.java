@@ -9,10 +9,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.kevinherron.modbus.cli.test.CliTestRunner;
 import com.kevinherron.modbus.cli.test.CliTestRunner.Result;
+import com.kevinherron.modbus.cli.test.TestProcessImage;
 import com.kevinherron.modbus.cli.test.TestServerBuilder;
 import java.io.BufferedReader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 public class ReadHoldingRegistersIT {
@@ -181,4 +183,262 @@ public class ReadHoldingRegistersIT {
       }
     }
   }
+
+  @Test
+  void testReadHoldingRegistersBeyondProtocolMaximum() throws Exception {
+    try (var server = new TestServerBuilder().build()) {
+      server.start();
+
+      // 300 registers is split into 125 + 125 + 50
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "--pipeline",
+              "2",
+              "rhr",
+              "1000",
+              "300");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      var jsonNodes = new ArrayList<JsonNode>();
+      var objectMapper = new ObjectMapper();
+
+      try (var reader = new BufferedReader(new StringReader(result.getOutput()))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.trim().isEmpty()) {
+            jsonNodes.add(objectMapper.readTree(line));
+          }
+        }
+      }
+
+      // 1 info + 3 sent + 3 received + 1 table
+      assertEquals(8, jsonNodes.size(), "Should have 8 JSON lines");
+
+      List<String> directions =
+          jsonNodes.stream()
+              .filter(n -> n.get("type").asText().equals("protocol"))
+              .map(n -> n.get("direction").asText())
+              .toList();
+      assertEquals(3, directions.stream().filter("sent"::equals).count());
+      assertEquals(3, directions.stream().filter("received"::equals).count());
+
+      // Reassembled into a single table
+      JsonNode tableNode = jsonNodes.getLast();
+      assertEquals("register_table", tableNode.get("type").asText());
+      assertEquals(1000, tableNode.get("start_address").asInt());
+      assertEquals(300, tableNode.get("quantity").asInt());
+
+      ArrayNode dataNode = (ArrayNode) tableNode.get("data");
+      assertEquals(600, dataNode.size());
+      for (int i = 0; i < 300; i++) {
+        int value = (dataNode.get(i * 2).asInt() << 8) | dataNode.get(i * 2 + 1).asInt();
+        assertEquals(1000 + i, value, "register " + (1000 + i));
+      }
+    }
+  }
+
+  @Test
+  void testReadHoldingRegistersBeyondProtocolMaximumRejectsShortChunks() throws Exception {
+    try (var server = new TestServerBuilder().withMaxRegistersPerResponse(100).build()) {
+      server.start();
+
+      // The first 125-register chunk comes back with only 100 registers
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "rhr",
+              "1000",
+              "300");
+
+      // No table padded with zeros is output; the short response is reported instead
+      assertTrue(
+          parseLines(result.stdout()).stream()
+              .noneMatch(n -> n.get("type").asText().equals("register_table")),
+          "Should not output a table");
+
+      List<JsonNode> errors = parseLines(result.stderr());
+      assertEquals(1, errors.size(), "Should have 1 error line");
+      assertTrue(errors.getFirst().get("message").asText().contains("short response"));
+    }
+  }
+
+  @Test
+  void testOnChangeComparesDecodedValues() throws Exception {
+    var processImage = new TestProcessImage();
+    processImage.setHoldingRegisters(0, 0x3FC0, 0x0000, 0x4120, 0x0000); // 1.5f, 10.0f
+
+    try (var server = new TestServerBuilder().withProcessImage(processImage).build()) {
+      server.start();
+
+      // Change the first value between the first and second polls
+      Thread changer =
+          Thread.startVirtualThread(
+              () -> {
+                try {
+                  Thread.sleep(250);
+                } catch (InterruptedException e) {
+                  return;
+                }
+                processImage.setHoldingRegisters(0, 0x4020, 0x0000); // 2.5f
+              });
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "--on-change",
+              "--deadband",
+              "0.5",
+              "rhr",
+              "0",
+              "4",
+              "--type",
+              "float32",
+              "-c",
+              "3",
+              "-i",
+              "500");
+      changer.join();
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      var jsonNodes = new ArrayList<JsonNode>();
+      var objectMapper = new ObjectMapper();
+
+      try (var reader = new BufferedReader(new StringReader(result.getOutput()))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.trim().isEmpty()) {
+            jsonNodes.add(objectMapper.readTree(line));
+          }
+        }
+      }
+
+      // The baseline table, decoded, then one change per typed value, not per register
+      assertEquals(2, jsonNodes.size(), "Should have 2 JSON lines");
+
+      JsonNode tableNode = jsonNodes.getFirst();
+      assertEquals("register_table", tableNode.get("type").asText());
+      assertEquals("float32", tableNode.get("data_type").asText());
+      assertEquals(1.5, tableNode.get("values").get(0).asDouble());
+
+      JsonNode changesNode = jsonNodes.get(1);
+      assertEquals("register_changes", changesNode.get("type").asText());
+      assertEquals("float32", changesNode.get("data_type").asText());
+
+      ArrayNode changes = (ArrayNode) changesNode.get("changes");
+      assertEquals(1, changes.size());
+      assertEquals(0, changes.get(0).get("address").asInt());
+      assertEquals(1.5, changes.get(0).get("previous").asDouble());
+      assertEquals(2.5, changes.get(0).get("value").asDouble());
+    }
+  }
+
+  @Test
+  void testPollingReconnectsAfterServerRestart() throws Exception {
+    try (var server = new TestServerBuilder().build()) {
+      server.start();
+      int port = server.getPort();
+
+      // Take the server down for a few iterations, then bring it back on the same port
+      Thread restarter =
+          Thread.ofVirtual()
+              .start(
+                  () -> {
+                    try {
+                      Thread.sleep(300);
+                      server.stop();
+                      Thread.sleep(500);
+                      server.withPort(port).start();
+                    } catch (Exception e) {
+                      throw new RuntimeException(e);
+                    }
+                  });
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(port),
+              "-t",
+              "1000",
+              "--persistent",
+              "--reconnect-delay",
+              "50",
+              "rhr",
+              "100",
+              "1",
+              "-c",
+              "20",
+              "-i",
+              "100");
+      restarter.join();
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      List<JsonNode> tables =
+          parseLines(result.stdout()).stream()
+              .filter(n -> n.get("type").asText().equals("register_table"))
+              .toList();
+      List<JsonNode> messages = parseLines(result.stderr());
+
+      // Some iterations failed while the server was down, and polling resumed afterward
+      assertTrue(tables.size() < 20, "Iterations should fail while the server is down");
+      assertEquals(20, tables.getLast().get("iteration").asInt());
+      assertTrue(
+          messages.stream()
+              .anyMatch(
+                  n ->
+                      n.get("type").asText().equals("warning")
+                          && n.get("message").asText().contains("(total reconnects: 1)")),
+          "The reconnect and the reconnect counter should be reported");
+    }
+  }
+
+  @Test
+  void testOnChangeRejectsStrings() {
+    Result result =
+        CliTestRunner.execute(
+            "client", "localhost", "--on-change", "rhr", "0", "4", "--type", "string", "-c", "2");
+
+    assertEquals(2, result.exitCode(), "Command should be rejected");
+    assertTrue(result.stderr().contains("--on-change can't compare string values"));
+  }
+
+  private static List<JsonNode> parseLines(String output) throws Exception {
+    var jsonNodes = new ArrayList<JsonNode>();
+    var objectMapper = new ObjectMapper();
+
+    try (var reader = new BufferedReader(new StringReader(output))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.trim().isEmpty()) {
+          jsonNodes.add(objectMapper.readTree(line));
+        }
+      }
+    }
+    return jsonNodes;
+  }
 }
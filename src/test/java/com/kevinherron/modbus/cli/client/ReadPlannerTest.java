@@ -0,0 +1,115 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.kevinherron.modbus.cli.client.PollCommand.Tag;
+import com.kevinherron.modbus.cli.client.ReadPlanner.ReadBlock;
+import com.kevinherron.modbus.cli.util.EndpointParser.Endpoint;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ReadPlannerTest {
+
+  private static Tag tag(String name, int unitId, ModbusTable table, int address, int quantity) {
+    return new Tag(
+        name,
+        new Endpoint.Tcp("localhost", 502),
+        unitId,
+        table,
+        address,
+        quantity,
+        Duration.ofSeconds(1));
+  }
+
+  @Test
+  void mergesAdjacentAndOverlappingTags() {
+    Tag a = tag("a", 1, ModbusTable.HOLDING_REGISTERS, 0, 2);
+    Tag b = tag("b", 1, ModbusTable.HOLDING_REGISTERS, 2, 2);
+    Tag c = tag("c", 1, ModbusTable.HOLDING_REGISTERS, 3, 4);
+
+    List<ReadBlock> blocks = ReadPlanner.plan(List.of(c, a, b), 0);
+
+    assertEquals(1, blocks.size());
+    assertEquals(0, blocks.getFirst().address());
+    assertEquals(7, blocks.getFirst().quantity());
+    assertEquals(List.of(a, b, c), blocks.getFirst().tags());
+  }
+
+  @Test
+  void bridgesGapsUpToMaxGap() {
+    Tag a = tag("a", 1, ModbusTable.HOLDING_REGISTERS, 0, 1);
+    Tag b = tag("b", 1, ModbusTable.HOLDING_REGISTERS, 5, 1);
+    Tag c = tag("c", 1, ModbusTable.HOLDING_REGISTERS, 20, 1);
+
+    assertEquals(3, ReadPlanner.plan(List.of(a, b, c), 0).size());
+
+    List<ReadBlock> blocks = ReadPlanner.plan(List.of(a, b, c), 4);
+    assertEquals(2, blocks.size());
+    assertEquals(0, blocks.get(0).address());
+    assertEquals(6, blocks.get(0).quantity());
+    assertEquals(20, blocks.get(1).address());
+  }
+
+  @Test
+  void neverExceedsMaxReadQuantity() {
+    Tag a = tag("a", 1, ModbusTable.HOLDING_REGISTERS, 0, 100);
+    Tag b = tag("b", 1, ModbusTable.HOLDING_REGISTERS, 100, 26);
+
+    List<ReadBlock> blocks = ReadPlanner.plan(List.of(a, b), 0);
+
+    assertEquals(2, blocks.size());
+    assertEquals(100, blocks.get(0).quantity());
+    assertEquals(26, blocks.get(1).quantity());
+  }
+
+  @Test
+  void keepsUnitsAndTablesApart() {
+    Tag a = tag("a", 1, ModbusTable.HOLDING_REGISTERS, 0, 1);
+    Tag b = tag("b", 2, ModbusTable.HOLDING_REGISTERS, 1, 1);
+    Tag c = tag("c", 1, ModbusTable.INPUT_REGISTERS, 1, 1);
+
+    assertEquals(3, ReadPlanner.plan(List.of(a, b, c), 10).size());
+  }
+
+  @Test
+  void slicesRegisters() {
+    Tag a = tag("a", 1, ModbusTable.HOLDING_REGISTERS, 10, 1);
+    Tag b = tag("b", 1, ModbusTable.HOLDING_REGISTERS, 12, 2);
+
+    ReadBlock block = ReadPlanner.plan(List.of(a, b), 1).getFirst();
+    byte[] data = {0x00, 0x0A, 0x00, 0x0B, 0x00, 0x0C, 0x00, 0x0D};
+
+    assertArrayEquals(new byte[] {0x00, 0x0A}, block.slice(data, a));
+    assertArrayEquals(new byte[] {0x00, 0x0C, 0x00, 0x0D}, block.slice(data, b));
+  }
+
+  @Test
+  void slicesAndRepacksBits() {
+    Tag a = tag("a", 1, ModbusTable.COILS, 0, 3);
+    Tag b = tag("b", 1, ModbusTable.COILS, 6, 4);
+
+    ReadBlock block = ReadPlanner.plan(List.of(a, b), 3).getFirst();
+    assertEquals(10, block.quantity());
+
+    // Coils 0, 2, 7 and 9 set, LSB-first
+    byte[] data = {(byte) 0b1000_0101, 0b0000_0010};
+
+    assertArrayEquals(new byte[] {0b101}, block.slice(data, a));
+    assertArrayEquals(new byte[] {0b1010}, block.slice(data, b));
+  }
+
+  @Test
+  void splitsIntoOneBlockPerTag() {
+    Tag a = tag("a", 1, ModbusTable.HOLDING_REGISTERS, 0, 1);
+    Tag b = tag("b", 1, ModbusTable.HOLDING_REGISTERS, 3, 2);
+
+    List<ReadBlock> split = ReadPlanner.plan(List.of(a, b), 5).getFirst().split();
+
+    assertEquals(2, split.size());
+    assertEquals(3, split.get(1).address());
+    assertEquals(2, split.get(1).quantity());
+    assertEquals(List.of(b), split.get(1).tags());
+  }
+}
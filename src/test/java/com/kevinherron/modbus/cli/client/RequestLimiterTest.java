@@ -0,0 +1,157 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.digitalpetri.modbus.client.ModbusClient;
+import com.kevinherron.modbus.cli.client.RequestLimiter.Lane;
+import com.kevinherron.modbus.cli.util.EndpointParser.Endpoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RequestLimiterTest {
+
+  @Test
+  void requestsBeyondLimitWait() throws Exception {
+    var limiter = new RequestLimiter(2);
+
+    RequestLimiter.Permit first = limiter.acquire(1, Lane.FOREGROUND);
+    RequestLimiter.Permit second = limiter.acquire(1, Lane.FOREGROUND);
+
+    Thread waiter =
+        Thread.ofVirtual()
+            .start(() -> acquireAndRelease(limiter, 1, Lane.FOREGROUND, null, null));
+    awaitWaiting(limiter, 1);
+
+    first.close();
+    first.close(); // a second close must not release another permit
+    waiter.join();
+
+    assertEquals(0, limiter.waiting());
+    second.close();
+  }
+
+  @Test
+  void unitsTakeTurns() throws Exception {
+    var limiter = new RequestLimiter(1);
+    var order = Collections.synchronizedList(new ArrayList<String>());
+    var threads = new ArrayList<Thread>();
+
+    RequestLimiter.Permit held = limiter.acquire(1, Lane.FOREGROUND);
+
+    // Unit 1 queues two requests before unit 2 queues its only one
+    int waiting = 0;
+    for (String name : List.of("1a", "1b", "2a")) {
+      int unitId = name.charAt(0) - '0';
+      threads.add(
+          Thread.ofVirtual()
+              .start(() -> acquireAndRelease(limiter, unitId, Lane.FOREGROUND, order, name)));
+      awaitWaiting(limiter, ++waiting);
+    }
+
+    held.close();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(List.of("1a", "2a", "1b"), order);
+  }
+
+  @Test
+  void foregroundGoesAheadOfBackground() throws Exception {
+    var limiter = new RequestLimiter(1);
+    var order = Collections.synchronizedList(new ArrayList<String>());
+    var threads = new ArrayList<Thread>();
+
+    RequestLimiter.Permit held = limiter.acquire(1, Lane.BACKGROUND);
+
+    // Polling reads queue first, then a write arrives
+    int waiting = 0;
+    for (String name : List.of("poll1", "poll2", "write")) {
+      Lane lane = name.equals("write") ? Lane.FOREGROUND : Lane.BACKGROUND;
+      threads.add(
+          Thread.ofVirtual().start(() -> acquireAndRelease(limiter, 1, lane, order, name)));
+      awaitWaiting(limiter, ++waiting);
+    }
+
+    held.close();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(List.of("write", "poll1", "poll2"), order);
+  }
+
+  @Test
+  void attachingAgainKeepsTheLowerLimit() throws Exception {
+    var endpoint = new Endpoint.Tcp("attach-twice.test", 502);
+    var command = new ClientCommand();
+    ModbusClient first = command.createTcpClient(endpoint.hostname(), endpoint.port());
+    ModbusClient second = command.createTcpClient(endpoint.hostname(), endpoint.port());
+
+    // A second command on the same gateway asks for more; the first command's limit stays
+    RequestLimiter.attach(first, endpoint, 2);
+    RequestLimiter.attach(second, endpoint, 8);
+
+    RequestLimiter limiter = RequestLimiter.of(second);
+    assertSame(RequestLimiter.of(first), limiter);
+
+    RequestLimiter.Permit held1 = limiter.acquire(1, Lane.FOREGROUND);
+    RequestLimiter.Permit held2 = limiter.acquire(1, Lane.FOREGROUND);
+
+    Thread waiter =
+        Thread.ofVirtual()
+            .start(() -> acquireAndRelease(limiter, 1, Lane.FOREGROUND, null, null));
+    awaitWaiting(limiter, 1);
+
+    held1.close();
+    waiter.join();
+    held2.close();
+    assertEquals(0, limiter.waiting());
+  }
+
+  @Test
+  void limitResetsOnceEveryClientIsDetached() {
+    var endpoint = new Endpoint.Tcp("detach.test", 502);
+    var command = new ClientCommand();
+    ModbusClient first = command.createTcpClient(endpoint.hostname(), endpoint.port());
+    ModbusClient second = command.createTcpClient(endpoint.hostname(), endpoint.port());
+
+    RequestLimiter.attach(first, endpoint, 1);
+    RequestLimiter.attach(second, endpoint, 4);
+    RequestLimiter limiter = RequestLimiter.of(first);
+
+    // One client still uses the gateway, so the limiter and its limit of 1 stay
+    RequestLimiter.detach(first);
+    RequestLimiter.detach(first);
+    assertSame(limiter, RequestLimiter.of(second));
+
+    // With no client left, the next one gets a fresh limiter with its own limit
+    RequestLimiter.detach(second);
+    ModbusClient third = command.createTcpClient(endpoint.hostname(), endpoint.port());
+    RequestLimiter.attach(third, endpoint, 4);
+    assertNotSame(limiter, RequestLimiter.of(third));
+    RequestLimiter.detach(third);
+  }
+
+  private static void acquireAndRelease(
+      RequestLimiter limiter, int unitId, Lane lane, List<String> order, String name) {
+
+    try (RequestLimiter.Permit _ = limiter.acquire(unitId, lane)) {
+      if (order != null) {
+        order.add(name);
+      }
+    } catch (InterruptedException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static void awaitWaiting(RequestLimiter limiter, int count) throws InterruptedException {
+    while (limiter.waiting() < count) {
+      Thread.sleep(1);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.digitalpetri.modbus.exceptions.ModbusException;
+import com.digitalpetri.modbus.exceptions.ModbusTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class RequestPipelineTest {
+
+  @Test
+  void handlersRunInSubmissionOrder() throws Exception {
+    var pipeline = new RequestPipeline<Integer>(4);
+    var futures = new ArrayList<CompletableFuture<Integer>>();
+    var handled = new ArrayList<Integer>();
+
+    for (int i = 0; i < 4; i++) {
+      var future = new CompletableFuture<Integer>();
+      futures.add(future);
+      pipeline.submit(1, () -> future, handled::add);
+    }
+
+    // Complete out of order; handlers must still observe submission order
+    for (int i = 3; i >= 0; i--) {
+      futures.get(i).complete(i);
+    }
+    pipeline.drain();
+
+    assertEquals(List.of(0, 1, 2, 3), handled);
+  }
+
+  @Test
+  void submitWaitsForOldestWhenFull() throws Exception {
+    var pipeline = new RequestPipeline<Integer>(2);
+    var handled = new ArrayList<Integer>();
+
+    pipeline.submit(1, () -> CompletableFuture.completedFuture(1), handled::add);
+    pipeline.submit(1, () -> CompletableFuture.completedFuture(2), handled::add);
+    assertTrue(handled.isEmpty(), "window not yet full");
+
+    pipeline.submit(1, () -> CompletableFuture.completedFuture(3), handled::add);
+    assertEquals(List.of(1), handled);
+
+    pipeline.drain();
+    assertEquals(List.of(1, 2, 3), handled);
+  }
+
+  @Test
+  void failedRequestSurfacesModbusException() throws Exception {
+    var pipeline = new RequestPipeline<Integer>(2);
+    var timeout = new ModbusTimeoutException("request timed out");
+
+    pipeline.submit(1, () -> CompletableFuture.failedFuture(timeout), _ -> {});
+
+    ModbusException e = assertThrows(ModbusException.class, pipeline::drain);
+    assertSame(timeout, e);
+  }
+
+  @Test
+  void failedHandlerCancelsOutstandingRequests() throws Exception {
+    var pipeline = new RequestPipeline<Integer>(3);
+    var failure = new ModbusTimeoutException("handler failed");
+    var outstanding = new ArrayList<CompletableFuture<Integer>>();
+
+    pipeline.submit(
+        1,
+        () -> CompletableFuture.completedFuture(1),
+        _ -> {
+          throw failure;
+        });
+    for (int i = 0; i < 2; i++) {
+      var future = new CompletableFuture<Integer>();
+      outstanding.add(future);
+      pipeline.submit(1, () -> future, _ -> {});
+    }
+
+    ModbusException e = assertThrows(ModbusException.class, pipeline::drain);
+    assertSame(failure, e);
+    assertTrue(outstanding.stream().allMatch(CompletableFuture::isCancelled));
+  }
+
+  @Test
+  void failedFailureHandlerCancelsOutstandingRequests() throws Exception {
+    var pipeline = new RequestPipeline<Integer>(3);
+    var timeout = new ModbusTimeoutException("request timed out");
+    var outstanding = new CompletableFuture<Integer>();
+
+    pipeline.submit(
+        1,
+        () -> CompletableFuture.failedFuture(timeout),
+        _ -> {},
+        f -> {
+          // e.g. --fail-fast
+          throw f;
+        });
+    pipeline.submit(1, () -> outstanding, _ -> {});
+
+    ModbusException e = assertThrows(ModbusException.class, pipeline::drain);
+    assertSame(timeout, e);
+    assertTrue(outstanding.isCancelled());
+  }
+}
@@ -0,0 +1,320 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinherron.modbus.cli.test.CliTestRunner;
+import com.kevinherron.modbus.cli.test.CliTestRunner.Result;
+import com.kevinherron.modbus.cli.test.TestProcessImage;
+import com.kevinherron.modbus.cli.test.TestServerBuilder;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ScanIT {
+
+  @Test
+  void testScan() throws Exception {
+    try (var server = new TestServerBuilder().build()) {
+      server.start();
+
+      // Default ProcessImage initializes registers to their addresses
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "scan",
+              "0",
+              "20",
+              "--size",
+              "5");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      List<JsonNode> jsonNodes = parseLines(result.getOutput());
+      assertEquals(1, jsonNodes.size(), "Should have 1 JSON line");
+
+      JsonNode resultsNode = jsonNodes.getFirst().get("results");
+      assertEquals("scan_results", jsonNodes.getFirst().get("type").asText());
+      assertEquals(20, resultsNode.size());
+      for (int i = 0; i < 20; i++) {
+        assertEquals(i, resultsNode.get(i).get("address").asInt());
+      }
+    }
+  }
+
+  @Test
+  void testScanWithPipelineAndConnections() throws Exception {
+    try (var server = new TestServerBuilder().build()) {
+      server.start();
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "--pipeline",
+              "4",
+              "scan",
+              "0",
+              "100",
+              "--size",
+              "10",
+              "--connections",
+              "3");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      List<JsonNode> jsonNodes = parseLines(result.getOutput());
+      assertEquals(1, jsonNodes.size(), "Should have 1 JSON line");
+
+      // Results from all shards are merged back in address order
+      JsonNode resultsNode = jsonNodes.getFirst().get("results");
+      assertEquals(100, resultsNode.size());
+      for (int i = 0; i < 100; i++) {
+        JsonNode entry = resultsNode.get(i);
+        assertEquals(i, entry.get("address").asInt());
+        assertEquals(i & 0xFF, entry.get("values").get(0).get(1).asInt());
+      }
+    }
+  }
+
+  @Test
+  void testScanStream() throws Exception {
+    try (var server = new TestServerBuilder().build()) {
+      server.start();
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "scan",
+              "100",
+              "110",
+              "--size",
+              "4",
+              "--stream",
+              "--connections",
+              "2");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      // One scan_window line per window: 100-103, 104-107, 108-109
+      List<JsonNode> jsonNodes = parseLines(result.getOutput());
+      assertEquals(3, jsonNodes.size(), "Should have 3 JSON lines");
+
+      jsonNodes.sort(Comparator.comparingInt(node -> node.get("address").asInt()));
+
+      int[] expectedAddresses = {100, 104, 108};
+      int[] expectedQuantities = {4, 4, 2};
+      for (int i = 0; i < 3; i++) {
+        JsonNode windowNode = jsonNodes.get(i);
+        assertEquals("scan_window", windowNode.get("type").asText());
+        assertEquals(expectedAddresses[i], windowNode.get("address").asInt());
+        assertEquals(expectedQuantities[i], windowNode.get("quantity").asInt());
+      }
+
+      assertArrayEquals(
+          new Integer[] {0, 108, 0, 109},
+          jsonNodes.get(2).get("data").valueStream().map(JsonNode::asInt).toArray(Integer[]::new));
+    }
+  }
+
+  @Test
+  void testScanCoils() throws Exception {
+    var processImage = new TestProcessImage();
+    processImage.setCoil(3, true);
+    processImage.setCoil(10, true);
+
+    try (var server = new TestServerBuilder().withProcessImage(processImage).build()) {
+      server.start();
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "scan",
+              "0",
+              "16",
+              "--table",
+              "coils");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      List<JsonNode> jsonNodes = parseLines(result.getOutput());
+      assertEquals(1, jsonNodes.size(), "Should have 1 JSON line");
+
+      JsonNode scanNode = jsonNodes.getFirst();
+      assertEquals("scan_results", scanNode.get("type").asText());
+      assertEquals("coils", scanNode.get("table").asText());
+
+      JsonNode resultsNode = scanNode.get("results");
+      assertEquals(16, resultsNode.size());
+      for (int i = 0; i < 16; i++) {
+        JsonNode entry = resultsNode.get(i);
+        assertEquals(i, entry.get("address").asInt());
+        assertEquals(i == 3 || i == 10, entry.get("values").get(0).asBoolean());
+      }
+    }
+  }
+
+  @Test
+  void testScanAllTables() throws Exception {
+    try (var server = new TestServerBuilder().build()) {
+      server.start();
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "scan",
+              "0",
+              "20",
+              "--table",
+              "all");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      // One scan_results line per table, in table order
+      List<JsonNode> jsonNodes = parseLines(result.getOutput());
+      assertEquals(
+          List.of("coils", "discrete", "holding", "input"),
+          jsonNodes.stream().map(node -> node.get("table").asText()).toList());
+
+      for (JsonNode scanNode : jsonNodes) {
+        assertEquals("scan_results", scanNode.get("type").asText());
+        assertEquals(20, scanNode.get("results").size());
+      }
+    }
+  }
+
+  @Test
+  void testScanBisectsFailedWindows() throws Exception {
+    try (var server = new TestServerBuilder().withUnreadableHoldingRegisters(12, 16).build()) {
+      server.start();
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "scan",
+              "0",
+              "30",
+              "--size",
+              "10");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      List<JsonNode> jsonNodes = parseLines(result.getOutput());
+      assertEquals(2, jsonNodes.size(), "Should have a results line and a failure line");
+
+      // The failed window 10-19 is bisected down to the readable addresses around 12-15
+      JsonNode scanNode = jsonNodes.getFirst();
+      assertEquals("scan_results", scanNode.get("type").asText());
+      JsonNode resultsNode = scanNode.get("results");
+      var addresses = new ArrayList<Integer>();
+      for (int i = 0; i < resultsNode.size(); i++) {
+        addresses.add(resultsNode.get(i).get("address").asInt());
+      }
+      var expected = new ArrayList<Integer>();
+      for (int i = 0; i < 30; i++) {
+        if (i < 12 || i >= 16) {
+          expected.add(i);
+        }
+      }
+      assertEquals(expected, addresses);
+
+      // The four unreadable addresses are merged into one failure
+      JsonNode failureNode = jsonNodes.get(1);
+      assertEquals("scan_failure", failureNode.get("type").asText());
+      assertEquals("holding", failureNode.get("table").asText());
+      assertEquals(12, failureNode.get("address").asInt());
+      assertEquals(4, failureNode.get("quantity").asInt());
+    }
+  }
+
+  @Test
+  void testScanFailFast() throws Exception {
+    try (var server = new TestServerBuilder().withUnreadableHoldingRegisters(12, 16).build()) {
+      server.start();
+
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "scan",
+              "0",
+              "30",
+              "--size",
+              "10",
+              "--stream",
+              "--fail-fast");
+
+      assertEquals(1, result.exitCode(), "Aborted scan should exit non-zero");
+
+      // Only the window before the failure was read; the scan stopped at window 10-19
+      List<JsonNode> windows = parseLines(result.stdout());
+      assertEquals(1, windows.size(), "Should have 1 scan_window line");
+      assertEquals("scan_window", windows.getFirst().get("type").asText());
+      assertEquals(0, windows.getFirst().get("address").asInt());
+
+      List<JsonNode> errors = parseLines(result.stderr());
+      assertEquals(1, errors.size(), "Should have 1 error line");
+      assertEquals("error", errors.getFirst().get("type").asText());
+    }
+  }
+
+  private static List<JsonNode> parseLines(String output) throws Exception {
+    var jsonNodes = new ArrayList<JsonNode>();
+    var objectMapper = new ObjectMapper();
+
+    try (var reader = new BufferedReader(new StringReader(output))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.trim().isEmpty()) {
+          jsonNodes.add(objectMapper.readTree(line));
+        }
+      }
+    }
+    return jsonNodes;
+  }
+}
@@ -0,0 +1,64 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kevinherron.modbus.cli.test.CliTestRunner;
+import com.kevinherron.modbus.cli.test.CliTestRunner.Result;
+import com.kevinherron.modbus.cli.test.TestServerBuilder;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+public class SweepIT {
+
+  @Test
+  void testSweep() throws Exception {
+    try (var server = new TestServerBuilder().build()) {
+      server.start();
+
+      // Nothing listens on port 1, so only the test server is reachable
+      Result result =
+          CliTestRunner.execute(
+              "--format",
+              "json",
+              "--quiet",
+              "client",
+              "tcp:127.0.0.1:1,localhost:" + server.getPort(),
+              "sweep",
+              "--probe-timeout",
+              "2000");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+
+      var jsonNodes = new ArrayList<JsonNode>();
+      var objectMapper = new ObjectMapper();
+
+      try (var reader = new BufferedReader(new StringReader(result.getOutput()))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.trim().isEmpty()) {
+            jsonNodes.add(objectMapper.readTree(line));
+          }
+        }
+      }
+
+      assertEquals(1, jsonNodes.size(), "Should have 1 JSON line");
+
+      JsonNode sweepNode = jsonNodes.getFirst();
+      assertEquals("sweep", sweepNode.get("type").asText());
+
+      JsonNode hostsNode = sweepNode.get("hosts");
+      assertEquals(1, hostsNode.size(), "Only the test server should be reachable");
+
+      JsonNode hostNode = hostsNode.get(0);
+      assertEquals("localhost", hostNode.get("hostname").asText());
+      assertEquals(server.getPort(), hostNode.get("port").asInt());
+      assertTrue(hostNode.get("modbus").asBoolean());
+      assertTrue(hostNode.get("detail").isNull());
+    }
+  }
+}
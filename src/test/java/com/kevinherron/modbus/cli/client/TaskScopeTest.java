@@ -0,0 +1,55 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class TaskScopeTest {
+
+  @Test
+  void joinReturnsResultsInForkOrder() throws Exception {
+    try (var scope = new TaskScope<Integer>("test")) {
+      scope.fork(
+          () -> {
+            Thread.sleep(50);
+            return 1;
+          });
+      scope.fork(() -> 2);
+      scope.fork(() -> 3);
+
+      assertEquals(List.of(1, 2, 3), scope.join());
+    }
+  }
+
+  @Test
+  void firstFailureCancelsSiblings() {
+    var interrupted = new CountDownLatch(1);
+    var failure = new IllegalStateException("boom");
+
+    try (var scope = new TaskScope<Void>("test")) {
+      // Forked first, and would block forever unless cancelled
+      scope.fork(
+          () -> {
+            try {
+              Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+              interrupted.countDown();
+            }
+            return null;
+          });
+      scope.fork(
+          () -> {
+            throw failure;
+          });
+
+      assertSame(failure, assertThrows(IllegalStateException.class, scope::join));
+    }
+
+    // Closing the scope waits for every task, so the sibling has already seen its interrupt
+    assertEquals(0, interrupted.getCount(), "Sibling task should have been interrupted");
+  }
+}
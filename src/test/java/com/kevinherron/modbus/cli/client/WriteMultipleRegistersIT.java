@@ -0,0 +1,104 @@
+package com.kevinherron.modbus.cli.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kevinherron.modbus.cli.test.CliTestRunner;
+import com.kevinherron.modbus.cli.test.CliTestRunner.Result;
+import com.kevinherron.modbus.cli.test.TestProcessImage;
+import com.kevinherron.modbus.cli.test.TestServerBuilder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class WriteMultipleRegistersIT {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testWriteMultipleRegisters() throws Exception {
+    var processImage = new TestProcessImage();
+
+    try (var server = new TestServerBuilder().withProcessImage(processImage).build()) {
+      server.start();
+
+      Result result =
+          CliTestRunner.execute(
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "wmr",
+              "10",
+              "3",
+              "100,0x64,200");
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+      assertEquals(100, processImage.getHoldingRegister(10));
+      assertEquals(0x64, processImage.getHoldingRegister(11));
+      assertEquals(200, processImage.getHoldingRegister(12));
+    }
+  }
+
+  @Test
+  void testWriteRegistersFromFileBeyondProtocolMaximum() throws Exception {
+    var processImage = new TestProcessImage();
+
+    try (var server = new TestServerBuilder().withProcessImage(processImage).build()) {
+      server.start();
+
+      // 300 values, split into chunks of 123, 123 and 54 registers
+      var text = new StringBuilder("# recipe\n");
+      for (int i = 0; i < 300; i++) {
+        text.append(i * 3).append(i % 10 == 9 ? "\n" : ", ");
+      }
+      Path valueFile = tempDir.resolve("recipe.txt");
+      Files.writeString(valueFile, text);
+
+      Result result =
+          CliTestRunner.execute(
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "--pipeline",
+              "2",
+              "wmr",
+              "1000",
+              "-f",
+              valueFile.toString());
+
+      assertEquals(0, result.exitCode(), "Command should succeed");
+      for (int i = 0; i < 300; i++) {
+        assertEquals(i * 3, processImage.getHoldingRegister(1000 + i), "register " + (1000 + i));
+      }
+      assertTrue(result.stdout().contains("chunk 3 of 3"), "Should report each chunk");
+    }
+  }
+
+  @Test
+  void testQuantityMismatch() throws Exception {
+    try (var server = new TestServerBuilder().build()) {
+      server.start();
+
+      Path valueFile = tempDir.resolve("values.txt");
+      Files.writeString(valueFile, "1 2 3\n");
+
+      Result result =
+          CliTestRunner.execute(
+              "client",
+              "localhost",
+              "-p",
+              String.valueOf(server.getPort()),
+              "wmr",
+              "0",
+              "4",
+              "-f",
+              valueFile.toString());
+
+      assertTrue(
+          result.stderr().contains("does not match quantity"), "Should report the mismatch");
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.kevinherron.modbus.cli.daemon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kevinherron.modbus.cli.test.TestProcessImage;
+import com.kevinherron.modbus.cli.test.TestServerBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DaemonIT {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testForwardedCommands() throws Exception {
+    var processImage = new TestProcessImage();
+    processImage.setHoldingRegisters(0, 0x1234, 0x5678);
+
+    try (var server = new TestServerBuilder().withProcessImage(processImage).build();
+        var daemon = DaemonServer.start(tempDir.resolve("modbus.sock"))) {
+      server.start();
+      String port = String.valueOf(server.getPort());
+
+      var stdout = new ByteArrayOutputStream();
+      var stderr = new ByteArrayOutputStream();
+
+      int exitCode =
+          DaemonClient.forward(
+              daemon.socket(),
+              new String[] {"--format", "json", "client", "localhost", "-p", port, "rhr", "0", "2"},
+              InputStream.nullInputStream(),
+              new PrintStream(stdout, true, StandardCharsets.UTF_8),
+              new PrintStream(stderr, true, StandardCharsets.UTF_8));
+
+      assertEquals(0, exitCode);
+      assertTrue(stdout.toString(StandardCharsets.UTF_8).contains("\"register_table\""));
+
+      // Standard input is forwarded, e.g. to a batch
+      var batch = "wsr 5 0x4321\n".getBytes(StandardCharsets.UTF_8);
+
+      exitCode =
+          DaemonClient.forward(
+              daemon.socket(),
+              new String[] {"client", "localhost", "-p", port, "batch"},
+              new ByteArrayInputStream(batch),
+              new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8),
+              new PrintStream(stderr, true, StandardCharsets.UTF_8));
+
+      assertEquals(0, exitCode);
+      assertEquals(0x4321, processImage.getHoldingRegister(5));
+    }
+  }
+
+  @Test
+  void testSocketRemovedOnClose() throws Exception {
+    Path socket = tempDir.resolve("modbus.sock");
+
+    try (var daemon = DaemonServer.start(socket)) {
+      assertTrue(Files.exists(daemon.socket()));
+      assertThrows(IOException.class, () -> DaemonServer.start(socket));
+    }
+
+    assertFalse(Files.exists(socket));
+  }
+}
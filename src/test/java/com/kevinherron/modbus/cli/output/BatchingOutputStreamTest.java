@@ -0,0 +1,53 @@
+package com.kevinherron.modbus.cli.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class BatchingOutputStreamTest {
+
+  @Test
+  void buffersUntilFlushed() throws IOException {
+    var target = new ByteArrayOutputStream();
+    var out = new BatchingOutputStream(target, 64, Duration.ofMinutes(1));
+
+    out.write("abc".getBytes(StandardCharsets.US_ASCII));
+    out.write('d');
+    assertEquals(0, target.size());
+
+    out.flush();
+    assertEquals("abcd", target.toString(StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  void writesOutWhenTheBufferFills() throws IOException {
+    var target = new ByteArrayOutputStream();
+    var out = new BatchingOutputStream(target, 8, Duration.ofMinutes(1));
+
+    out.write("12345".getBytes(StandardCharsets.US_ASCII));
+    out.write("6789".getBytes(StandardCharsets.US_ASCII));
+    assertEquals("12345", target.toString(StandardCharsets.US_ASCII));
+
+    // Larger than the buffer: written through, after what was already buffered
+    out.write("abcdefghij".getBytes(StandardCharsets.US_ASCII));
+    assertEquals("123456789abcdefghij", target.toString(StandardCharsets.US_ASCII));
+  }
+
+  @Test
+  void writesOutAfterTheMaxDelay() throws Exception {
+    var target = new ByteArrayOutputStream();
+    var out = new BatchingOutputStream(target, 64, Duration.ofMillis(10));
+
+    out.write("sample".getBytes(StandardCharsets.US_ASCII));
+
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (target.size() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals("sample", target.toString(StandardCharsets.US_ASCII));
+  }
+}
@@ -0,0 +1,78 @@
+package com.kevinherron.modbus.cli.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class JsonWriterTest {
+
+  @Test
+  void writesNestedObjectsAndArrays() {
+    var json = new JsonWriter();
+
+    json.reset().beginObject();
+    json.name("timestamp").value(Instant.parse("2025-11-02T23:07:57.618695Z"));
+    json.field("type", "scan_results");
+    json.name("results").beginArray();
+    json.beginObject().field("address", 1).name("values");
+    json.beginArray().beginArray().value(0).value(255).endArray().endArray();
+    json.field("identical", true).endObject();
+    json.beginObject().field("address", 2).field("error", null).endObject();
+    json.endArray().endObject();
+
+    assertEquals(
+        "{\"timestamp\":\"2025-11-02T23:07:57.618695Z\",\"type\":\"scan_results\",\"results\":"
+            + "[{\"address\":1,\"values\":[[0,255]],\"identical\":true},"
+            + "{\"address\":2,\"error\":null}]}",
+        json.toString());
+  }
+
+  @Test
+  void escapesStrings() {
+    var json = new JsonWriter();
+
+    json.reset().value("a \"quote\" \\ \n\t\u0001 é");
+
+    assertEquals("\"a \\\"quote\\\" \\\\ \\n\\t\\u0001 é\"", json.toString());
+  }
+
+  @Test
+  void writesNonFiniteNumbersAsNull() {
+    var json = new JsonWriter();
+
+    json.reset().beginArray().value(1.5f).value(Float.NaN).value(Double.POSITIVE_INFINITY);
+    json.endArray();
+
+    assertEquals("[1.5,null,null]", json.toString());
+  }
+
+  @Test
+  void resetStartsANewLine() {
+    var json = new JsonWriter();
+    json.reset().beginObject().field("a", 1).endObject();
+
+    json.reset().beginObject().field("b", 2).endObject();
+
+    assertEquals("{\"b\":2}", json.toString());
+  }
+
+  @Test
+  void printlnEncodesLinesLongerThanTheByteBuffer() {
+    var json = new JsonWriter();
+    var bytes = new ByteArrayOutputStream();
+    var out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+    String text = "é".repeat(1000);
+
+    json.reset().beginArray().value(text).endArray();
+    json.println(out);
+    json.println(out);
+
+    String line = "[\"" + text + "\"]" + System.lineSeparator();
+    assertEquals(line + line, bytes.toString(StandardCharsets.UTF_8));
+    assertEquals("[\"" + text + "\"]", json.toString());
+  }
+}
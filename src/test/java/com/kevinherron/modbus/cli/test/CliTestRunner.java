@@ -73,6 +73,7 @@ public class CliTestRunner {
       var cmd = new CommandLine(command);
       exitCode = cmd.execute(args);
     } finally {
+      command.flushOutput();
       System.setOut(originalStdout);
       System.setErr(originalStderr);
     }
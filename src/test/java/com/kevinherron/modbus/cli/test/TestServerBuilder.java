@@ -1,11 +1,18 @@
 package com.kevinherron.modbus.cli.test;
 
+import com.digitalpetri.modbus.ExceptionCode;
+import com.digitalpetri.modbus.exceptions.ModbusResponseException;
+import com.digitalpetri.modbus.exceptions.UnknownUnitIdException;
+import com.digitalpetri.modbus.pdu.ReadHoldingRegistersRequest;
+import com.digitalpetri.modbus.pdu.ReadHoldingRegistersResponse;
+import com.digitalpetri.modbus.server.ModbusRequestContext;
 import com.digitalpetri.modbus.server.ModbusTcpServer;
 import com.digitalpetri.modbus.server.ProcessImage;
 import com.digitalpetri.modbus.server.ReadWriteModbusServices;
 import com.digitalpetri.modbus.tcp.server.NettyTcpServerTransport;
 import java.io.IOException;
 import java.net.ServerSocket;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
@@ -56,6 +63,9 @@ public class TestServerBuilder implements AutoCloseable {
   private ModbusTcpServer server;
   private int actualPort = -1;
   private ConcurrentHashMap<Integer, ProcessImage> unitProcessImages;
+  private int unreadableFrom = -1;
+  private int unreadableTo = -1;
+  private int maxRegistersPerResponse = Integer.MAX_VALUE;
 
   /**
    * Set the bind address for the server.
@@ -116,6 +126,34 @@ public class TestServerBuilder implements AutoCloseable {
     return this;
   }
 
+  /**
+   * Make a range of holding registers unreadable.
+   *
+   * <p>Any Read Holding Registers request that includes an address in the range is answered with
+   * an Illegal Data Address exception response, as a device with gaps in its register map would.
+   *
+   * @param from the first unreadable address.
+   * @param to the address after the last unreadable address.
+   * @return this builder.
+   */
+  public TestServerBuilder withUnreadableHoldingRegisters(int from, int to) {
+    this.unreadableFrom = from;
+    this.unreadableTo = to;
+    return this;
+  }
+
+  /**
+   * Truncate Read Holding Registers responses to at most {@code maxRegisters} registers, as a
+   * misbehaving device might, regardless of the quantity requested.
+   *
+   * @param maxRegisters the most registers returned in one response.
+   * @return this builder.
+   */
+  public TestServerBuilder withMaxRegistersPerResponse(int maxRegisters) {
+    this.maxRegistersPerResponse = maxRegisters;
+    return this;
+  }
+
   /**
    * Build and return this TestServerBuilder instance.
    *
@@ -166,6 +204,25 @@ public class TestServerBuilder implements AutoCloseable {
             }
             return Optional.of(processImage);
           }
+
+          @Override
+          public ReadHoldingRegistersResponse readHoldingRegisters(
+              ModbusRequestContext context, int unitId, ReadHoldingRegistersRequest request)
+              throws ModbusResponseException, UnknownUnitIdException {
+
+            if (request.address() < unreadableTo
+                && request.address() + request.quantity() > unreadableFrom) {
+              throw new ModbusResponseException(
+                  request.getFunctionCode(), ExceptionCode.ILLEGAL_DATA_ADDRESS.getCode());
+            }
+            ReadHoldingRegistersResponse response =
+                super.readHoldingRegisters(context, unitId, request);
+            if (request.quantity() > maxRegistersPerResponse) {
+              return new ReadHoldingRegistersResponse(
+                  Arrays.copyOf(response.registers(), maxRegistersPerResponse * 2));
+            }
+            return response;
+          }
         };
 
     server = ModbusTcpServer.create(transport, services);
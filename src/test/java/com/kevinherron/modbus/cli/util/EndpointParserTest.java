@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.kevinherron.modbus.cli.util.EndpointParser.Endpoint;
+import java.util.List;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -347,4 +348,77 @@ class EndpointParserTest {
           IllegalArgumentException.class, () -> EndpointParser.parse("tcp:[::1]:abc", null));
     }
   }
+
+  @Nested
+  class HostRanges {
+
+    @Test
+    void singleHost() {
+      List<Endpoint.Tcp> hosts = EndpointParser.parseHosts("tcp:plc1", null);
+
+      assertEquals(List.of(new Endpoint.Tcp("plc1", 502)), hosts);
+    }
+
+    @Test
+    void hostList_withPorts() {
+      List<Endpoint.Tcp> hosts = EndpointParser.parseHosts("plc1, plc2:1502", null);
+
+      assertEquals(List.of(new Endpoint.Tcp("plc1", 502), new Endpoint.Tcp("plc2", 1502)), hosts);
+    }
+
+    @Test
+    void cidr_excludesNetworkAndBroadcast() {
+      List<Endpoint.Tcp> hosts = EndpointParser.parseHosts("tcp:10.1.0.0/30", null);
+
+      assertEquals(
+          List.of(new Endpoint.Tcp("10.1.0.1", 502), new Endpoint.Tcp("10.1.0.2", 502)), hosts);
+    }
+
+    @Test
+    void cidr_size() {
+      assertEquals(1022, EndpointParser.parseHosts("tcp:10.1.0.0/22", null).size());
+      assertEquals(2, EndpointParser.parseHosts("10.1.0.0/31", null).size());
+      assertEquals(1, EndpointParser.parseHosts("10.1.0.7/32", null).size());
+    }
+
+    @Test
+    void cidr_hostBitsIgnored() {
+      List<Endpoint.Tcp> hosts = EndpointParser.parseHosts("192.168.1.77/24", null);
+
+      assertEquals("192.168.1.1", hosts.getFirst().hostname());
+      assertEquals("192.168.1.254", hosts.getLast().hostname());
+    }
+
+    @Test
+    void cidr_withPortOverride() {
+      List<Endpoint.Tcp> hosts = EndpointParser.parseHosts("10.1.0.0/30", 1502);
+
+      assertTrue(hosts.stream().allMatch(host -> host.port() == 1502));
+    }
+
+    @Test
+    void mixedEntries_deduplicated() {
+      List<Endpoint.Tcp> hosts = EndpointParser.parseHosts("10.1.0.1,10.1.0.0/30", null);
+
+      assertEquals(
+          List.of(new Endpoint.Tcp("10.1.0.1", 502), new Endpoint.Tcp("10.1.0.2", 502)), hosts);
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = {
+          "",
+          "tcp:",
+          "plc1,,plc2",
+          "10.1.0.0/",
+          "10.1.0.0/33",
+          "10.1.0.0/8",
+          "10.1.0/24",
+          "10.1.0.256/24",
+          "rtu:/dev/ttyUSB0"
+        })
+    void invalid(String hosts) {
+      assertThrows(IllegalArgumentException.class, () -> EndpointParser.parseHosts(hosts, null));
+    }
+  }
 }
@@ -0,0 +1,144 @@
+package com.kevinherron.modbus.cli.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.kevinherron.modbus.cli.util.RegisterCodec.DataType;
+import com.kevinherron.modbus.cli.util.RegisterCodec.Order;
+import com.kevinherron.modbus.cli.util.RegisterCodec.Values;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RegisterCodecTest {
+
+  private static byte[] bytes(int... values) {
+    var bytes = new byte[values.length];
+    for (int i = 0; i < values.length; i++) {
+      bytes[i] = (byte) values[i];
+    }
+    return bytes;
+  }
+
+  private static long[] integers(RegisterCodec codec, byte[] registers) {
+    return ((Values.Integers) codec.decode(registers)).values();
+  }
+
+  private static float float32(Order wordOrder, Order byteOrder, byte[] registers) {
+    var codec = new RegisterCodec(DataType.FLOAT32, wordOrder, byteOrder);
+    return ((Values.Floats) codec.decode(registers)).values()[0];
+  }
+
+  @Test
+  void decode_int16AndUint16() {
+    byte[] registers = bytes(0xFF, 0xFE, 0x00, 0x2A);
+
+    assertArrayEquals(
+        new long[] {-2, 42},
+        integers(new RegisterCodec(DataType.INT16, Order.BIG, Order.BIG), registers));
+    assertArrayEquals(
+        new long[] {0xFFFE, 42},
+        integers(new RegisterCodec(DataType.UINT16, Order.BIG, Order.BIG), registers));
+  }
+
+  @Test
+  void decode_int32AndUint32() {
+    byte[] registers = bytes(0xFF, 0xFF, 0xFF, 0xFF);
+
+    assertArrayEquals(
+        new long[] {-1},
+        integers(new RegisterCodec(DataType.INT32, Order.BIG, Order.BIG), registers));
+    assertArrayEquals(
+        new long[] {0xFFFF_FFFFL},
+        integers(new RegisterCodec(DataType.UINT32, Order.BIG, Order.BIG), registers));
+  }
+
+  @Test
+  void decode_int64() {
+    byte[] registers = bytes(0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08);
+
+    assertArrayEquals(
+        new long[] {0x0102_0304_0506_0708L},
+        integers(new RegisterCodec(DataType.INT64, Order.BIG, Order.BIG), registers));
+  }
+
+  @Test
+  void decode_float32InEveryLayout() {
+    // 1.5f is 0x3FC00000
+    assertEquals(1.5f, float32(Order.BIG, Order.BIG, bytes(0x3F, 0xC0, 0x00, 0x00)));
+    assertEquals(1.5f, float32(Order.LITTLE, Order.BIG, bytes(0x00, 0x00, 0x3F, 0xC0)));
+    assertEquals(1.5f, float32(Order.BIG, Order.LITTLE, bytes(0xC0, 0x3F, 0x00, 0x00)));
+    assertEquals(1.5f, float32(Order.LITTLE, Order.LITTLE, bytes(0x00, 0x00, 0xC0, 0x3F)));
+  }
+
+  @Test
+  void decode_float64() {
+    var codec = new RegisterCodec(DataType.FLOAT64, Order.BIG, Order.BIG);
+    byte[] registers = bytes(0x40, 0x09, 0x21, 0xFB, 0x54, 0x44, 0x2D, 0x18);
+
+    assertArrayEquals(new double[] {Math.PI}, ((Values.Doubles) codec.decode(registers)).values());
+  }
+
+  @Test
+  void decode_ignoresPartialTrailingValue() {
+    var codec = new RegisterCodec(DataType.INT32, Order.BIG, Order.BIG);
+
+    assertEquals(1, codec.decode(bytes(0x00, 0x00, 0x00, 0x07, 0x00, 0x01)).size());
+  }
+
+  @Test
+  void decode_stringEndsAtFirstNul() {
+    byte[] registers = bytes('A', 'B', 'C', 0x00, 0x00, 0x00);
+
+    assertEquals(
+        new Values.Text("ABC"),
+        new RegisterCodec(DataType.STRING, Order.BIG, Order.BIG).decode(registers));
+    assertEquals(
+        new Values.Text("BA"),
+        new RegisterCodec(DataType.STRING, Order.BIG, Order.LITTLE).decode(registers));
+  }
+
+  @Test
+  void encode_float32WordSwapped() {
+    var codec = new RegisterCodec(DataType.FLOAT32, Order.LITTLE, Order.BIG);
+
+    assertArrayEquals(
+        bytes(0x00, 0x00, 0x3F, 0xC0, 0x0F, 0xDB, 0x40, 0x49),
+        codec.encode(List.of("1.5", "3.1415927")));
+  }
+
+  @Test
+  void encode_roundTripsEveryLayout() {
+    for (Order wordOrder : Order.values()) {
+      for (Order byteOrder : Order.values()) {
+        var codec = new RegisterCodec(DataType.INT32, wordOrder, byteOrder);
+
+        assertArrayEquals(
+            new long[] {-123456, 7}, integers(codec, codec.encode(List.of("-123456", "7"))));
+      }
+    }
+  }
+
+  @Test
+  void encode_hexIsRawBits() {
+    var codec = new RegisterCodec(DataType.INT16, Order.BIG, Order.BIG);
+
+    assertArrayEquals(bytes(0xFF, 0xFF), codec.encode(List.of("0xFFFF")));
+  }
+
+  @Test
+  void encode_outOfRange() {
+    var codec = new RegisterCodec(DataType.UINT16, Order.BIG, Order.BIG);
+
+    assertThrows(IllegalArgumentException.class, () -> codec.encode(List.of("-1")));
+    assertThrows(IllegalArgumentException.class, () -> codec.encode(List.of("0x10000")));
+    assertThrows(IllegalArgumentException.class, () -> codec.encode(List.of("1.5")));
+  }
+
+  @Test
+  void encode_stringPadsToWholeRegister() {
+    var codec = new RegisterCodec(DataType.STRING, Order.BIG, Order.BIG);
+
+    assertArrayEquals(bytes('A', 'B', 'C', 0x00), codec.encode(List.of("ABC")));
+  }
+}
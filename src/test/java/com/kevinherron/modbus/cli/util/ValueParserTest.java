@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -136,4 +137,25 @@ class ValueParserTest {
     assertEquals(0x1234, ValueParser.parseHexValue("1234"));
     assertEquals(0xABCD, ValueParser.parseHexValue("ABCD"));
   }
+
+  @Test
+  void splitValues_mixedSeparatorsAndComments() {
+    String text =
+        """
+        # recipe header
+        100, 0x64 200
+        300,,400   # trailing comment
+
+        \t500
+        """;
+
+    assertEquals(
+        List.of("100", "0x64", "200", "300", "400", "500"), ValueParser.splitValues(text));
+  }
+
+  @Test
+  void splitValues_empty() {
+    assertTrue(ValueParser.splitValues("").isEmpty());
+    assertTrue(ValueParser.splitValues("# only a comment\n\n").isEmpty());
+  }
 }